@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+# Regenerates src/main/resources/geo/us-zip-centroids.csv from the Census ZCTA Gazetteer, trimmed to
+# zip,latitude,longitude (about 33k rows). Run from backend/:  scripts/update-zip-centroids.sh [gazetteer.txt|.zip]
+# Without an argument the 2020 national file is downloaded from census.gov.
+set -euo pipefail
+
+URL="https://www2.census.gov/geo/docs/maps-data/data/gazetteer/2020_Gazetteer/2020_Gaz_zcta_national.zip"
+OUT="src/main/resources/geo/us-zip-centroids.csv"
+
+tmp="$(mktemp -d)"
+trap 'rm -rf "$tmp"' EXIT
+
+src="${1:-}"
+if [[ -z "$src" ]]; then
+  curl -fsSL "$URL" -o "$tmp/gazetteer.zip"
+  src="$tmp/gazetteer.zip"
+fi
+if [[ "$src" == *.zip ]]; then
+  unzip -p "$src" '*.txt' > "$tmp/gazetteer.txt"
+  src="$tmp/gazetteer.txt"
+fi
+
+{
+  echo "# zip,latitude,longitude"
+  echo "# Census ZCTA Gazetteer (2020) internal points, trimmed by scripts/update-zip-centroids.sh."
+  awk -F '\t' 'NR > 1 && $1 ~ /^[0-9][0-9][0-9][0-9][0-9]$/ {
+    gsub(/[ \r]/, "", $6); gsub(/[ \r]/, "", $7)
+    printf "%s,%.4f,%.4f\n", $1, $6, $7
+  }' "$src" | sort
+} > "$tmp/centroids.csv"
+
+rows="$(grep -vc '^#' "$tmp/centroids.csv" || true)"
+if (( rows < 30000 )); then
+  echo "Only $rows ZIP centroids parsed from $src; leaving $OUT unchanged" >&2
+  exit 1
+fi
+mv "$tmp/centroids.csv" "$OUT"
+echo "Wrote $rows ZIP centroids to $OUT"
@@ -0,0 +1,44 @@
+package com.authentix.authentix.cart;
+
+import com.authentix.authentix.cart.dto.CartResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Cart response mapping and subtotal math from {@link CartService#summarize}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartSummaryBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int itemCount;
+
+    private List<CartItem> items;
+
+    @Setup
+    public void setUp() {
+        items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            CartItem item = new CartItem();
+            item.setListingId((long) i + 1);
+            item.setQuantity(1 + i % 3);
+            item.setPriceSnapshot(new BigDecimal("19.99").add(BigDecimal.valueOf(i)));
+            item.setTitleSnapshot("Item " + i);
+            item.setImageSnapshot("/api/images/cover-" + i);
+            item.setShippingOptionSnapshot("SHIP");
+            items.add(item);
+        }
+    }
+
+    @Benchmark
+    public CartResponse summarize() {
+        return CartService.summarize(items);
+    }
+}
@@ -0,0 +1,77 @@
+package com.authentix.authentix.dto;
+
+import com.authentix.authentix.entity.*;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Listing card mapping and the JSON encoding of a feed page, as returned by GET /api/listings. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListingDtoBenchmark {
+
+    @Param({"20"})
+    private int pageSize;
+
+    private Listing listing;
+    private List<Listing> listings;
+    private Page<ListingDto> page;
+    private JsonMapper jsonMapper;
+
+    @Setup
+    public void setUp() {
+        Category category = Category.builder().id(25L).name("Pokemon cards").slug("pokemon-cards").parentId(2L).build();
+        User seller = User.builder().id(7L).email("seller@test.local").displayName("Card Shop")
+                .profilePhotoUrl("/api/images/9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+                .stripeConnectAccountId("acct_123").contactVisible(true).build();
+        listings = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            listings.add(Listing.builder()
+                    .id((long) i + 1)
+                    .seller(seller)
+                    .category(category)
+                    .title("PSA 10 Charizard Base Set #" + i)
+                    .description("Gem mint, centered, from a smoke-free collection. Ships double boxed with tracking.")
+                    .price(new BigDecimal("599.99"))
+                    .condition("Graded")
+                    .images(List.of("/api/images/cover-" + i, "/api/images/back-" + i, "/api/images/slab-" + i))
+                    .status(ListingStatus.ACTIVE)
+                    .shippingOption(ShippingOption.SHIP)
+                    .zipCode("90007")
+                    .city("Los Angeles")
+                    .state("CA")
+                    .createdAt(Instant.parse("2026-01-01T00:00:00Z").plusSeconds(i))
+                    .build());
+        }
+        listing = listings.get(0);
+        page = new PageImpl<>(listings.stream().map(ListingDto::fromEntity).toList(), PageRequest.of(0, pageSize), 1000);
+        jsonMapper = JsonMapper.builder().build();
+    }
+
+    @Benchmark
+    public ListingDto fromEntity() {
+        return ListingDto.fromEntity(listing);
+    }
+
+    @Benchmark
+    public List<ListingDto> fromEntityPage() {
+        return listings.stream().map(ListingDto::fromEntity).toList();
+    }
+
+    @Benchmark
+    public byte[] serializePage() {
+        return jsonMapper.writeValueAsBytes(page);
+    }
+}
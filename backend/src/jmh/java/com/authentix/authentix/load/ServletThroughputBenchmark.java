@@ -0,0 +1,185 @@
+package com.authentix.authentix.load;
+
+import com.authentix.authentix.AuthentixApplication;
+import com.authentix.authentix.cart.CartService;
+import com.authentix.authentix.cart.dto.CartItemRequest;
+import com.authentix.authentix.entity.*;
+import com.authentix.authentix.repository.AddressRepository;
+import com.authentix.authentix.repository.CategoryRepository;
+import com.authentix.authentix.repository.ListingRepository;
+import com.authentix.authentix.repository.UserRepository;
+import com.authentix.authentix.security.JwtUtil;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * End-to-end request throughput at high concurrency, with Tomcat on platform threads versus virtual
+ * threads: {@link #CLIENTS} clients on the listing feed (all database) and on cart checkout (database
+ * plus a Stripe call, stubbed locally with {@link #STRIPE_LATENCY_MS} of latency). Every client is its
+ * own buyer and checks out a cart holding a listing it has not checked out before, so each checkout
+ * creates a new PaymentIntent and orders rather than replaying an earlier one. The pool is held at 10
+ * connections so the run shows what the pool-aware request cap does under a burst.
+ *
+ * Run with: mvn -Pbenchmarks -DskipTests verify -Djmh.args="ServletThroughputBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(ServletThroughputBenchmark.CLIENTS)
+@Fork(1)
+public class ServletThroughputBenchmark {
+
+    static final int CLIENTS = 2000;
+    static final int STRIPE_LATENCY_MS = 150;
+    private static final int FEED_LISTINGS = 200;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private HttpServer stripe;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private User seller;
+    private Category category;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        stripe = startStubStripe();
+        context = new SpringApplicationBuilder(AuthentixApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.hikari.maximum-pool-size=10",
+                        "app.web.queue-timeout=5m",
+                        "stripe.secret-key=sk_test_stub",
+                        "stripe.api-base=http://127.0.0.1:" + stripe.getAddress().getPort(),
+                        "logging.level.root=WARN")
+                .run();
+        baseUrl = "http://127.0.0.1:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+
+        seller = context.getBean(UserRepository.class).save(User.builder().email("seller-" + UUID.randomUUID() + "@bench.local")
+                .passwordHash("x").displayName("seller").contactVisible(true).stripeConnectAccountId("acct_bench").build());
+        category = context.getBean(CategoryRepository.class).findBySlug("pokemon-cards").orElseThrow();
+        for (int i = 0; i < FEED_LISTINGS; i++) {
+            listing("Card " + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+        stripe.stop(0);
+    }
+
+    /** One buyer per client thread, with a fresh listing in the cart before each checkout, so checkouts neither contend on holds nor replay. */
+    @State(Scope.Thread)
+    public static class Buyer {
+        String token;
+        String checkoutBody;
+        private ServletThroughputBenchmark benchmark;
+        private Long userId;
+
+        @Setup(Level.Trial)
+        public void setUp(ServletThroughputBenchmark benchmark) {
+            this.benchmark = benchmark;
+            ConfigurableApplicationContext context = benchmark.context;
+            User buyer = context.getBean(UserRepository.class).save(User.builder().email("buyer-" + UUID.randomUUID() + "@bench.local")
+                    .passwordHash("x").displayName("buyer").contactVisible(true).build());
+            Address address = context.getBean(AddressRepository.class).save(Address.builder().user(buyer).line1("1 Main St")
+                    .city("Los Angeles").state("CA").postalCode("90007").country("US").build());
+            userId = buyer.getId();
+            token = context.getBean(JwtUtil.class).generateToken(buyer.getEmail(), buyer.getId());
+            checkoutBody = "{\"addressId\":" + address.getId() + "}";
+        }
+
+        @Setup(Level.Invocation)
+        public void nextCart() {
+            Listing listing = benchmark.listing("Held for " + userId);
+            CartService carts = benchmark.context.getBean(CartService.class);
+            carts.clearCart(userId);
+            carts.addOrUpdateItem(userId, new CartItemRequest(listing.getId(), 1, listing.getPrice(), listing.getTitle(), null, "SHIP"));
+        }
+    }
+
+    @Benchmark
+    public int feed() throws Exception {
+        return expectOk(client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/listings?size=20")).GET().build(),
+                HttpResponse.BodyHandlers.discarding()));
+    }
+
+    @Benchmark
+    public int checkout(Buyer buyer) throws Exception {
+        return expectOk(client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/cart/checkout"))
+                        .header("Authorization", "Bearer " + buyer.token)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(buyer.checkoutBody)).build(),
+                HttpResponse.BodyHandlers.discarding()));
+    }
+
+    private static int expectOk(HttpResponse<Void> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private Listing listing(String title) {
+        return context.getBean(ListingRepository.class).save(Listing.builder()
+                .seller(seller)
+                .category(category)
+                .title(title)
+                .price(new BigDecimal("25.00"))
+                .status(ListingStatus.ACTIVE)
+                .shippingOption(ShippingOption.SHIP)
+                .zipCode("90007")
+                .build());
+    }
+
+    /** Answers every PaymentIntent create after a fixed delay, replaying by idempotency key like Stripe. */
+    private static HttpServer startStubStripe() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        AtomicInteger ids = new AtomicInteger();
+        java.util.Map<String, String> byKey = new java.util.concurrent.ConcurrentHashMap<>();
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/v1/payment_intents", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(STRIPE_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String id = byKey.computeIfAbsent(String.valueOf(exchange.getRequestHeaders().getFirst("Idempotency-Key")),
+                    key -> "pi_bench_" + ids.incrementAndGet());
+            byte[] json = ("{\"id\":\"" + id + "\",\"object\":\"payment_intent\",\"amount\":2500,\"currency\":\"usd\","
+                    + "\"client_secret\":\"" + id + "_secret\",\"status\":\"requires_payment_method\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, json.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(json);
+            }
+        });
+        server.start();
+        return server;
+    }
+}
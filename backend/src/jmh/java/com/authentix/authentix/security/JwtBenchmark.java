@@ -0,0 +1,59 @@
+package com.authentix.authentix.security;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification cost. {@link #threeParsePath} is the filter's original sequence (validate, then
+ * read user id and email, three full parses); {@link #verifyOnce} is the single-parse path used on a
+ * cache miss and {@link #cachedPath} the digest lookup used for repeat tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache cache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil("benchmark-secret-key-that-is-at-least-256-bits-long!!", 86_400_000L);
+        token = jwtUtil.generateToken("buyer@test.local", 42L);
+        cache = new VerifiedTokenCache(10_000);
+        JwtUtil.VerifiedToken verified = jwtUtil.verify(token).orElseThrow();
+        cache.put(token, new AuthenticatedUser(verified.userId(), verified.email()), verified.expiresAt().toEpochMilli());
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return jwtUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public Object threeParsePath() {
+        if (!jwtUtil.validateToken(token)) return null;
+        return new AuthenticatedUser(jwtUtil.getUserIdFromToken(token), jwtUtil.getEmailFromToken(token));
+    }
+
+    @Benchmark
+    public Object verifyOnce() {
+        return jwtUtil.verify(token).orElse(null);
+    }
+
+    @Benchmark
+    public AuthenticatedUser cachedPath() {
+        return cache.get(token);
+    }
+}
@@ -22,6 +22,10 @@ public class Cart {
     @Column(name = "user_id", nullable = false, unique = true)
     private Long userId;
 
+    /** Writes so far; see {@link CartBatchWriter}. */
+    @Column(nullable = false)
+    private long version;
+
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CartItem> items = new ArrayList<>();
 
@@ -0,0 +1,132 @@
+package com.authentix.authentix.cart;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes cart snapshots in carts/cart_items, always on the primary. carts.version counts the
+ * writes of each cart, and a snapshot is only written over the version it was built from, so two
+ * instances holding the same cart never overwrite each other's changes. Each written snapshot
+ * replaces the user's stored items, so a flush of any number of carts is a few JDBC batches in one
+ * transaction: ensure and lock the carts rows, bump their versions, delete the old items, insert the
+ * current ones.
+ */
+@Component
+@RequiredArgsConstructor
+public class CartBatchWriter {
+
+    /** A cart's items as of one version, copied out of the store under the cart's lock, and the stored version they build on. */
+    record Snapshot(Long userId, long version, long storedVersion, List<CartItem> items) {}
+
+    /** A cart as stored: how many times it has been written, and its items. Never-written carts are version 0 and empty. */
+    record Stored(long version, List<CartItem> items) {
+        static final Stored EMPTY = new Stored(0, List.of());
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Stored load(Long userId) {
+        return read(List.of(userId)).getOrDefault(userId, Stored.EMPTY);
+    }
+
+    /**
+     * Writes every snapshot whose cart is still at its stored version. Carts another instance wrote in
+     * the meantime are left alone; their stored state is returned, by user id, to be merged and written
+     * on a later flush.
+     */
+    @Transactional
+    public Map<Long, Stored> write(List<Snapshot> snapshots) {
+        if (snapshots.isEmpty()) return Map.of();
+        Timestamp now = Timestamp.from(Instant.now());
+
+        List<Object[]> carts = new ArrayList<>(snapshots.size());
+        List<Long> userIds = new ArrayList<>(snapshots.size());
+        for (Snapshot snapshot : snapshots) {
+            carts.add(new Object[]{snapshot.userId(), now, now});
+            userIds.add(snapshot.userId());
+        }
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO carts (user_id, version, created_at, updated_at) VALUES (?, 0, ?, ?)", carts);
+        Map<Long, Long> versions = new HashMap<>();
+        jdbcTemplate.query("SELECT user_id, version FROM carts WHERE user_id IN (" + placeholders(userIds) + ") FOR UPDATE",
+                rs -> { versions.put(rs.getLong("user_id"), rs.getLong("version")); }, userIds.toArray());
+
+        List<Object[]> bumps = new ArrayList<>();
+        List<Object[]> owners = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        List<Long> stale = new ArrayList<>();
+        for (Snapshot snapshot : snapshots) {
+            if (versions.get(snapshot.userId()) != snapshot.storedVersion()) {
+                stale.add(snapshot.userId());
+                continue;
+            }
+            bumps.add(new Object[]{now, snapshot.userId()});
+            owners.add(new Object[]{snapshot.userId()});
+            for (CartItem item : snapshot.items()) {
+                items.add(new Object[]{
+                        item.getListingId(), item.getQuantity(), item.getPriceSnapshot(), item.getTitleSnapshot(),
+                        item.getImageSnapshot(), item.getShippingOptionSnapshot(),
+                        Timestamp.from(item.getCreatedAt()), Timestamp.from(item.getUpdatedAt()), snapshot.userId()});
+            }
+        }
+
+        if (!bumps.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE carts SET version = version + 1, updated_at = ? WHERE user_id = ?", bumps);
+            jdbcTemplate.batchUpdate("DELETE FROM cart_items WHERE cart_id = (SELECT id FROM carts WHERE user_id = ?)", owners);
+        }
+        if (!items.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO cart_items (cart_id, listing_id, quantity, price_snapshot, title_snapshot,"
+                    + " image_snapshot, shipping_option_snapshot, created_at, updated_at)"
+                    + " SELECT id, ?, ?, ?, ?, ?, ?, ?, ? FROM carts WHERE user_id = ?", items);
+        }
+        return stale.isEmpty() ? Map.of() : read(stale);
+    }
+
+    /** The stored carts of the given users that have a carts row, in one statement. */
+    private Map<Long, Stored> read(Collection<Long> userIds) {
+        Map<Long, Long> versions = new HashMap<>();
+        Map<Long, List<CartItem>> items = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT c.user_id, c.version, ci.listing_id, ci.quantity, ci.price_snapshot, ci.title_snapshot,"
+                + " ci.image_snapshot, ci.shipping_option_snapshot, ci.created_at, ci.updated_at"
+                + " FROM carts c LEFT JOIN cart_items ci ON ci.cart_id = c.id"
+                + " WHERE c.user_id IN (" + placeholders(userIds) + ") ORDER BY c.user_id, ci.id", rs -> {
+            long userId = rs.getLong("user_id");
+            versions.put(userId, rs.getLong("version"));
+            List<CartItem> cartItems = items.computeIfAbsent(userId, id -> new ArrayList<>());
+            if (rs.getObject("listing_id") != null) cartItems.add(item(rs));
+        }, userIds.toArray());
+        Map<Long, Stored> stored = new HashMap<>();
+        versions.forEach((userId, version) -> stored.put(userId, new Stored(version, items.get(userId))));
+        return stored;
+    }
+
+    private static CartItem item(ResultSet rs) throws SQLException {
+        CartItem item = new CartItem();
+        item.setListingId(rs.getLong("listing_id"));
+        item.setQuantity(rs.getInt("quantity"));
+        item.setPriceSnapshot(rs.getBigDecimal("price_snapshot"));
+        item.setTitleSnapshot(rs.getString("title_snapshot"));
+        item.setImageSnapshot(rs.getString("image_snapshot"));
+        item.setShippingOptionSnapshot(rs.getString("shipping_option_snapshot"));
+        item.setCreatedAt(rs.getTimestamp("created_at").toInstant());
+        item.setUpdatedAt(rs.getTimestamp("updated_at").toInstant());
+        return item;
+    }
+
+    private static String placeholders(Collection<?> values) {
+        return String.join(", ", Collections.nCopies(values.size(), "?"));
+    }
+}
@@ -0,0 +1,263 @@
+package com.authentix.authentix.cart;
+
+import com.authentix.authentix.cart.dto.CartItemResponse;
+import com.authentix.authentix.cart.dto.CartResponse;
+import com.authentix.authentix.cart.dto.CheckoutResponse;
+import com.authentix.authentix.dto.ListingSummary;
+import com.authentix.authentix.entity.Address;
+import com.authentix.authentix.entity.ListingStatus;
+import com.authentix.authentix.entity.Order;
+import com.authentix.authentix.entity.OrderStatus;
+import com.authentix.authentix.repository.ListingRepository;
+import com.authentix.authentix.repository.OrderRepository;
+import com.authentix.authentix.service.AddressService;
+import com.authentix.authentix.service.ListingHoldService;
+import com.authentix.authentix.service.StripeService;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.PaymentIntentCreateParams;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Checks out the whole cart: one PaymentIntent per seller (a destination charge with the platform
+ * fee, as for single purchases), all created concurrently, and one PENDING order per item inserted in
+ * a single batch. The cost is a fixed number of queries plus one Stripe round trip of wall time,
+ * whatever the cart size.
+ *
+ * Every listing in the cart is held for the buyer (see {@link ListingHoldService}) before any
+ * PaymentIntent is created; if another buyer holds one of them the checkout fails up front.
+ *
+ * PaymentIntents are created with an idempotency key derived from the cart contents, the address and
+ * how many of the buyer's orders for that seller's items have failed. Retrying the same checkout
+ * returns the same intents and the PENDING orders already recorded for them; once an intent is
+ * canceled, checking out again starts a new intent with new orders. Orders are unique per (intent, listing), so
+ * concurrent identical checkouts end up with one set of orders.
+ */
+@Service
+@RequiredArgsConstructor
+public class CartCheckoutService {
+
+    private final CartRevalidator cartRevalidator;
+    private final ListingRepository listingRepository;
+    private final OrderRepository orderRepository;
+    private final AddressService addressService;
+    private final ListingHoldService listingHoldService;
+    private final CheckoutOrderWriter orderWriter;
+
+    private record SellerCart(Long sellerId, String connectAccountId, List<CheckoutOrderWriter.Line> lines) {
+        long amountCents() {
+            return lines.stream().mapToLong(CheckoutOrderWriter.Line::amountCents).sum();
+        }
+
+        long feeCents() {
+            return lines.stream().mapToLong(CheckoutOrderWriter.Line::feeCents).sum();
+        }
+    }
+
+    public CheckoutResponse checkout(Long buyerId, Long addressId) throws StripeException {
+        if (addressId == null) {
+            throw new IllegalArgumentException("addressId required");
+        }
+        CartResponse cart = cartRevalidator.revalidate(buyerId);
+        if (!cart.issues().isEmpty()) {
+            throw new IllegalArgumentException("Some items in your cart changed; review your cart before checking out");
+        }
+        if (cart.items().isEmpty()) {
+            throw new IllegalArgumentException("Cart is empty");
+        }
+        Address address = addressService.getAddressForUser(addressId, buyerId);
+        List<SellerCart> sellers = groupBySeller(buyerId, cart.items());
+
+        List<Long> listingIds = cart.items().stream().map(CartItemResponse::listingId).toList();
+        String checkoutKey = checkoutKey(buyerId, addressId, cart.items());
+        Map<Long, Long> failed = orderRepository.countFailedByListing(buyerId, listingIds).stream()
+                .collect(Collectors.toMap(OrderRepository.FailedCount::listingId, OrderRepository.FailedCount::count));
+        List<String> idempotencyKeys = sellers.stream()
+                .map(seller -> checkoutKey + "-" + seller.sellerId() + "-" + seller.lines().stream()
+                        .mapToLong(line -> failed.getOrDefault(line.listingId(), 0L)).sum())
+                .toList();
+        listingHoldService.claimAll(listingIds, buyerId);
+        try {
+            return createPaymentsAndOrders(buyerId, address, idempotencyKeys, sellers);
+        } catch (StripeException | RuntimeException e) {
+            listingHoldService.releaseAll(listingIds, buyerId);
+            throw e;
+        }
+    }
+
+    private CheckoutResponse createPaymentsAndOrders(Long buyerId, Address address, List<String> idempotencyKeys,
+                                                     List<SellerCart> sellers) throws StripeException {
+        List<PaymentIntent> intents = createPaymentIntents(buyerId, idempotencyKeys, sellers);
+
+        List<CheckoutOrderWriter.Line> lines = new ArrayList<>();
+        for (int i = 0; i < sellers.size(); i++) {
+            String paymentIntentId = intents.get(i).getId();
+            for (CheckoutOrderWriter.Line line : sellers.get(i).lines()) {
+                lines.add(new CheckoutOrderWriter.Line(line.listingId(), paymentIntentId, line.amountCents(), line.feeCents()));
+            }
+        }
+        List<Long> orderIds = recordOrders(buyerId, address, intents, lines);
+
+        List<CheckoutResponse.SellerPayment> payments = new ArrayList<>(sellers.size());
+        long totalCents = 0;
+        int next = 0;
+        for (int i = 0; i < sellers.size(); i++) {
+            SellerCart seller = sellers.get(i);
+            int count = seller.lines().size();
+            payments.add(new CheckoutResponse.SellerPayment(seller.sellerId(), intents.get(i).getId(),
+                    intents.get(i).getClientSecret(), BigDecimal.valueOf(seller.amountCents(), 2),
+                    List.copyOf(orderIds.subList(next, next + count))));
+            next += count;
+            totalCents += seller.amountCents();
+        }
+        return new CheckoutResponse(payments, BigDecimal.valueOf(totalCents, 2));
+    }
+
+    /** Resolves sellers and payout accounts for every item with one query, keeping cart order. */
+    private List<SellerCart> groupBySeller(Long buyerId, List<CartItemResponse> items) {
+        Map<Long, ListingSummary> listings = listingRepository.findSummariesByIdIn(
+                        items.stream().map(CartItemResponse::listingId).toList()).stream()
+                .collect(Collectors.toMap(ListingSummary::id, Function.identity()));
+        Map<Long, SellerCart> bySeller = new LinkedHashMap<>();
+        for (CartItemResponse item : items) {
+            ListingSummary listing = listings.get(item.listingId());
+            if (listing == null || listing.status() != ListingStatus.ACTIVE) {
+                throw new IllegalArgumentException("Listing is not available for purchase");
+            }
+            if (listing.sellerId().equals(buyerId)) {
+                throw new IllegalArgumentException("Cannot buy your own listing");
+            }
+            String account = listing.sellerStripeConnectAccountId();
+            if (account == null || account.isBlank()) {
+                throw new IllegalArgumentException("Seller of \"" + listing.title() + "\" has not set up payouts");
+            }
+            long amountCents = listing.price().multiply(BigDecimal.valueOf(item.quantity()))
+                    .movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+            long feeCents = (amountCents * StripeService.PLATFORM_FEE_PERCENT) / 100;
+            bySeller.computeIfAbsent(listing.sellerId(), id -> new SellerCart(id, account, new ArrayList<>()))
+                    .lines().add(new CheckoutOrderWriter.Line(listing.id(), null, amountCents, feeCents));
+        }
+        return new ArrayList<>(bySeller.values());
+    }
+
+    /** One Stripe call per seller, run in parallel on virtual threads; keys and results follow {@code sellers}. */
+    private List<PaymentIntent> createPaymentIntents(Long buyerId, List<String> idempotencyKeys, List<SellerCart> sellers)
+            throws StripeException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<PaymentIntent>> futures = new ArrayList<>(sellers.size());
+            for (int i = 0; i < sellers.size(); i++) {
+                String idempotencyKey = idempotencyKeys.get(i);
+                SellerCart seller = sellers.get(i);
+                futures.add(executor.submit(() -> createPaymentIntent(buyerId, idempotencyKey, seller)));
+            }
+            List<PaymentIntent> intents = new ArrayList<>(sellers.size());
+            for (Future<PaymentIntent> future : futures) {
+                intents.add(future.get());
+            }
+            return intents;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof StripeException stripeException) throw stripeException;
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Checkout interrupted", e);
+        }
+    }
+
+    private PaymentIntent createPaymentIntent(Long buyerId, String idempotencyKey, SellerCart seller) throws StripeException {
+        PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
+                .setAmount(seller.amountCents())
+                .setCurrency(StripeService.CURRENCY)
+                .setAutomaticPaymentMethods(
+                        PaymentIntentCreateParams.AutomaticPaymentMethods.builder()
+                                .setEnabled(true)
+                                .build())
+                .setApplicationFeeAmount(seller.feeCents())
+                .setTransferData(
+                        PaymentIntentCreateParams.TransferData.builder()
+                                .setDestination(seller.connectAccountId())
+                                .build())
+                .putMetadata("buyerId", buyerId.toString())
+                .putMetadata("sellerId", seller.sellerId().toString())
+                .putMetadata("listingIds", seller.lines().stream()
+                        .map(line -> line.listingId().toString()).collect(Collectors.joining(",")))
+                .build();
+        RequestOptions options = RequestOptions.builder()
+                .setIdempotencyKey(idempotencyKey)
+                .build();
+        return PaymentIntent.create(params, options);
+    }
+
+    /**
+     * Inserts the orders of intents that have none yet and reuses the PENDING orders a retried checkout
+     * recorded for the others. If a concurrent identical checkout inserts first, the unique (intent,
+     * listing) key rejects this batch and its orders are used instead.
+     */
+    private List<Long> recordOrders(Long buyerId, Address address, List<PaymentIntent> intents,
+                                    List<CheckoutOrderWriter.Line> lines) {
+        List<String> intentIds = intents.stream().map(PaymentIntent::getId).toList();
+        Map<String, Long> recorded = pendingOrders(intentIds);
+        List<CheckoutOrderWriter.Line> missing = lines.stream()
+                .filter(line -> !recorded.containsKey(line.paymentIntentId() + "/" + line.listingId()))
+                .toList();
+        if (!missing.isEmpty()) {
+            try {
+                List<Long> inserted = orderWriter.insert(buyerId, address, missing);
+                for (int i = 0; i < missing.size(); i++) {
+                    recorded.put(missing.get(i).paymentIntentId() + "/" + missing.get(i).listingId(), inserted.get(i));
+                }
+            } catch (DuplicateKeyException e) {
+                recorded.putAll(pendingOrders(intentIds));
+            }
+        }
+        List<Long> ids = new ArrayList<>(lines.size());
+        for (CheckoutOrderWriter.Line line : lines) {
+            Long id = recorded.get(line.paymentIntentId() + "/" + line.listingId());
+            if (id == null) {
+                throw new IllegalStateException("Checkout was partially recorded; contact support");
+            }
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    /** Orders already recorded for the intents, by intent and listing; all must still be PENDING. */
+    private Map<String, Long> pendingOrders(List<String> intentIds) {
+        Map<String, Long> byIntentAndListing = new HashMap<>();
+        for (Order order : orderRepository.findAllByStripePaymentIntentIdIn(intentIds)) {
+            if (order.getStatus() != OrderStatus.PENDING) {
+                throw new IllegalArgumentException("A payment for this checkout has already completed or failed; check out again");
+            }
+            byIntentAndListing.put(order.getStripePaymentIntentId() + "/" + order.getListing().getId(), order.getId());
+        }
+        return byIntentAndListing;
+    }
+
+    private static String checkoutKey(Long buyerId, Long addressId, List<CartItemResponse> items) {
+        StringBuilder raw = new StringBuilder().append(buyerId).append('|').append(addressId);
+        for (CartItemResponse item : items) {
+            raw.append('|').append(item.listingId()).append('x').append(item.quantity()).append('@').append(item.price());
+        }
+        return "cart-checkout-" + UUID.nameUUIDFromBytes(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -77,9 +77,14 @@ package com.authentix.authentix.cart;
 import com.authentix.authentix.cart.dto.CartItemRequest;
 import com.authentix.authentix.cart.dto.CartQuantityRequest;
 import com.authentix.authentix.cart.dto.CartResponse;
+import com.authentix.authentix.cart.dto.CheckoutRequest;
 import com.authentix.authentix.cart.dto.MergeCartRequest;
 import com.authentix.authentix.security.AuthenticatedUser;
+import com.authentix.authentix.service.StripeService;
+import com.stripe.exception.StripeException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -90,12 +95,16 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/cart")
 @RequiredArgsConstructor
 public class CartController {
 
     private final CartService cartService;
+    private final CartCheckoutService cartCheckoutService;
+    private final StripeService stripeService;
 
     @GetMapping
     public CartResponse getCart(Authentication authentication) {
@@ -109,6 +118,13 @@ public class CartController {
         return cartService.addOrUpdateItem(auth.getUserId(), request);
     }
 
+    /** Drops unavailable items and takes current prices, clearing the issues the cart reports. */
+    @PostMapping("/issues/acknowledge")
+    public CartResponse acknowledgeIssues(Authentication authentication) {
+        AuthenticatedUser auth = (AuthenticatedUser) authentication.getPrincipal();
+        return cartService.acknowledgeIssues(auth.getUserId());
+    }
+
     @PatchMapping("/items/{listingId}")
     public CartResponse updateQuantity(
             Authentication authentication,
@@ -136,4 +152,19 @@ public class CartController {
         AuthenticatedUser auth = (AuthenticatedUser) authentication.getPrincipal();
         return cartService.mergeGuestCart(auth.getUserId(), request.items());
     }
-}
\ No newline at end of file
+
+    /** Starts payment for everything in the cart: one PaymentIntent per seller, one PENDING order per item. */
+    @PostMapping("/checkout")
+    public ResponseEntity<?> checkout(Authentication authentication, @RequestBody CheckoutRequest request) {
+        if (!stripeService.isStripeConfigured()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Stripe is not configured"));
+        }
+        AuthenticatedUser auth = (AuthenticatedUser) authentication.getPrincipal();
+        try {
+            return ResponseEntity.ok(cartCheckoutService.checkout(auth.getUserId(), request != null ? request.addressId() : null));
+        } catch (StripeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
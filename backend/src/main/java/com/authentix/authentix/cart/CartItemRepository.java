@@ -3,11 +3,7 @@ package com.authentix.authentix.cart;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
-import java.util.Optional;
 
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
-    List<CartItem> findByCartId(Long cartId);
-    Optional<CartItem> findByCartIdAndListingId(Long cartId, Long listingId);
-    void deleteByCartIdAndListingId(Long cartId, Long listingId);
-    void deleteByCartId(Long cartId);
-}
\ No newline at end of file
+    List<CartItem> findByCartUserIdOrderByIdAsc(Long userId);
+}
@@ -0,0 +1,109 @@
+package com.authentix.authentix.cart;
+
+import com.authentix.authentix.cart.dto.CartResponse;
+import com.authentix.authentix.dto.ListingSummary;
+import com.authentix.authentix.repository.ListingRepository;
+import com.authentix.authentix.service.ListingChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Checks a cart against the listings it holds. All of the cart's listings are resolved with one
+ * {@code IN} query and the cart is reviewed without being changed (see {@link CartState#review}), so
+ * issues keep being reported until the buyer changes the item or calls {@link #acknowledge}.
+ *
+ * The review is cached on the cart until the cart changes or one of its own listings does: every
+ * committed listing change is stamped from a clock, and a cached review is reused only while none of
+ * the cart's listings has a stamp newer than the clock reading taken before its query. Rendering an
+ * unchanged cart costs no query at all, and edits to other listings leave it cached.
+ */
+@Component
+@RequiredArgsConstructor
+public class CartRevalidator {
+
+    /** Listings whose last change is remembered; past this the map is cleared and older reviews expire. */
+    private static final int MAX_TRACKED_LISTINGS = 100_000;
+
+    private final CartStore cartStore;
+    private final ListingRepository listingRepository;
+    private final AtomicLong clock = new AtomicLong();
+    /** Listing id to the clock value of its last committed change. */
+    private final Map<Long, Long> lastChange = new ConcurrentHashMap<>();
+    /** Reviews older than this predate the last clear of {@link #lastChange} and are not trusted. */
+    private volatile long floor;
+    private final StampedLock clearLock = new StampedLock();
+
+    private record Lookup(CartResponse cached, List<Long> listingIds, long version) {}
+
+    public CartResponse revalidate(Long userId) {
+        return review(userId, false);
+    }
+
+    /** Accepts every current issue: drops unavailable items and takes current prices and details. */
+    public CartResponse acknowledge(Long userId) {
+        return review(userId, true);
+    }
+
+    private CartResponse review(Long userId, boolean acknowledge) {
+        while (true) {
+            long stamp = clock.get();
+            Lookup lookup = cartStore.apply(userId, cart -> {
+                CartResponse cached = acknowledge ? null : cart.validated();
+                if (cached != null && unchangedSince(cart.listingIds(), cart.validatedStamp())) {
+                    return new Lookup(cached, null, 0);
+                }
+                return new Lookup(null, cart.listingIds(), cart.version());
+            });
+            if (lookup.cached() != null) return lookup.cached();
+
+            // Query outside the cart lock; if the cart changes meanwhile, start over against the new contents.
+            Map<Long, ListingSummary> listings = lookup.listingIds().isEmpty() ? Map.of()
+                    : listingRepository.findSummariesByIdIn(lookup.listingIds()).stream()
+                            .collect(Collectors.toMap(ListingSummary::id, Function.identity()));
+            CartResponse response = cartStore.apply(userId, cart -> {
+                if (cart.version() != lookup.version()) return null;
+                if (acknowledge) cart.refresh(listings);
+                CartResponse reviewed = cart.review(listings);
+                cart.cacheValidated(reviewed, stamp);
+                return reviewed;
+            });
+            if (response != null) return response;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        lastChange.merge(event.id(), clock.incrementAndGet(), Math::max);
+        if (lastChange.size() > MAX_TRACKED_LISTINGS) {
+            long write = clearLock.writeLock();
+            try {
+                lastChange.clear();
+                floor = clock.get();
+            } finally {
+                clearLock.unlockWrite(write);
+            }
+        }
+    }
+
+    /** True if none of the listings changed after stamp; false (revalidate) if a clear raced the check. */
+    boolean unchangedSince(Collection<Long> listingIds, long stamp) {
+        long read = clearLock.tryOptimisticRead();
+        boolean unchanged = stamp >= floor;
+        for (Long listingId : listingIds) {
+            if (!unchanged) break;
+            Long changed = lastChange.get(listingId);
+            unchanged = changed == null || changed <= stamp;
+        }
+        return clearLock.validate(read) && unchanged;
+    }
+}
@@ -1,110 +1,112 @@
 package com.authentix.authentix.cart;
 import com.authentix.authentix.cart.dto.*;
-import com.authentix.authentix.cart.dto.CartItemRequest;
-import com.authentix.authentix.cart.dto.CartItemResponse;
-import com.authentix.authentix.cart.dto.CartResponse;
+import com.authentix.authentix.dto.ListingSummary;
+import com.authentix.authentix.entity.ListingStatus;
+import com.authentix.authentix.repository.ListingRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cart operations against the in-memory {@link CartStore}. Changes reach cart_items on the store's next
+ * flush. Items are added with the listing's own price, title, image and shipping option, read in one
+ * query per request; whatever snapshot the client sends is ignored.
+ */
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class CartService {
 
-    private final CartRepository cartRepository;
-    private final CartItemRepository cartItemRepository;
+    private final CartStore cartStore;
+    private final CartRevalidator cartRevalidator;
+    private final ListingRepository listingRepository;
 
+    /** The cart checked against current listings; see {@link CartRevalidator}. */
     public CartResponse getCart(Long userId) {
-        Cart cart = getOrCreateCart(userId);
-        return toResponse(cart);
+        return cartRevalidator.revalidate(userId);
     }
 
-    public CartResponse addOrUpdateItem(Long userId, CartItemRequest req) {
-        Cart cart = getOrCreateCart(userId);
-        upsertItem(cart, req);
-        return toResponse(cart);
+    /** Accepts the issues the cart currently reports; see {@link CartRevalidator#acknowledge}. */
+    public CartResponse acknowledgeIssues(Long userId) {
+        return cartRevalidator.acknowledge(userId);
     }
 
-    public CartResponse updateQuantity(Long userId, Long listingId, Integer quantity) {
-        Cart cart = getOrCreateCart(userId);
-
-        if (quantity == null || quantity < 1) {
-            cartItemRepository.deleteByCartIdAndListingId(cart.getId(), listingId);
-            return toResponse(cart);
+    public CartResponse addOrUpdateItem(Long userId, CartItemRequest req) {
+        if (req == null || req.listingId() == null) {
+            throw new IllegalArgumentException("listingId required");
         }
+        ListingSummary listing = activeListings(List.of(req)).get(req.listingId());
+        if (listing == null) {
+            throw new IllegalArgumentException("Listing is not available for purchase");
+        }
+        cartStore.apply(userId, cart -> {
+            cart.upsert(listing, req.quantity());
+            return null;
+        });
+        return cartRevalidator.revalidate(userId);
+    }
 
-        CartItem item = cartItemRepository.findByCartIdAndListingId(cart.getId(), listingId)
-            .orElseThrow(() -> new IllegalArgumentException("Cart item not found"));
-
-        item.setQuantity(quantity);
-        cartItemRepository.save(item);
-
-        return toResponse(cart);
+    public CartResponse updateQuantity(Long userId, Long listingId, Integer quantity) {
+        return cartStore.apply(userId, cart -> {
+            if (quantity == null || quantity < 1) {
+                cart.remove(listingId);
+            } else if (!cart.setQuantity(listingId, quantity)) {
+                throw new IllegalArgumentException("Cart item not found");
+            }
+            return summarize(cart.items());
+        });
     }
 
     public CartResponse removeItem(Long userId, Long listingId) {
-        Cart cart = getOrCreateCart(userId);
-        cartItemRepository.deleteByCartIdAndListingId(cart.getId(), listingId);
-        return toResponse(cart);
+        return cartStore.apply(userId, cart -> {
+            cart.remove(listingId);
+            return summarize(cart.items());
+        });
     }
 
     public CartResponse clearCart(Long userId) {
-        Cart cart = getOrCreateCart(userId);
-        cartItemRepository.deleteByCartId(cart.getId());
-        return new CartResponse(List.of(), 0, BigDecimal.ZERO);
+        return cartStore.apply(userId, cart -> {
+            cart.clear();
+            return new CartResponse(List.of(), 0, BigDecimal.ZERO, List.of());
+        });
     }
 
+    /** Adds the guest cart's items; listings that are gone or no longer ACTIVE are left out. */
     public CartResponse mergeGuestCart(Long userId, List<CartItemRequest> guestItems) {
-        Cart cart = getOrCreateCart(userId);
-
-        if (guestItems != null) {
-            for (CartItemRequest req : guestItems) {
-                upsertItem(cart, req);
-            }
+        if (guestItems != null && !guestItems.isEmpty()) {
+            Map<Long, ListingSummary> listings = activeListings(guestItems);
+            cartStore.apply(userId, cart -> {
+                for (CartItemRequest item : guestItems) {
+                    ListingSummary listing = item == null ? null : listings.get(item.listingId());
+                    if (listing != null) cart.upsert(listing, item.quantity());
+                }
+                return null;
+            });
         }
-
-        return toResponse(cart);
+        return cartRevalidator.revalidate(userId);
     }
 
-    private Cart getOrCreateCart(Long userId) {
-        return cartRepository.findByUserId(userId).orElseGet(() -> {
-            Cart cart = new Cart(userId);
-            return cartRepository.save(cart);
-        });
+    /** The requested items' listings that can be bought, by id, with one query. */
+    private Map<Long, ListingSummary> activeListings(List<CartItemRequest> requested) {
+        List<Long> ids = requested.stream().filter(Objects::nonNull).map(CartItemRequest::listingId)
+                .filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) return Map.of();
+        return listingRepository.findSummariesByIdIn(ids).stream()
+                .filter(listing -> listing.status() == ListingStatus.ACTIVE)
+                .collect(Collectors.toMap(ListingSummary::id, Function.identity()));
     }
 
-    private void upsertItem(Cart cart, CartItemRequest req) {
-        if (req == null || req.listingId() == null) {
-            return;
-        }
-
-        int quantity = req.quantity() == null ? 1 : Math.max(1, req.quantity());
-
-        CartItem item = cartItemRepository.findByCartIdAndListingId(cart.getId(), req.listingId())
-            .orElseGet(() -> {
-                CartItem created = new CartItem();
-                created.setCart(cart);
-                created.setListingId(req.listingId());
-                created.setQuantity(0);
-                return created;
-            });
-
-        item.setQuantity(item.getQuantity() + quantity);
-        item.setPriceSnapshot(req.price() == null ? BigDecimal.ZERO : req.price());
-        item.setTitleSnapshot(req.title());
-        item.setImageSnapshot(req.image());
-        item.setShippingOptionSnapshot(req.shippingOption());
-        cartItemRepository.save(item);
+    /** Maps cart rows to the response and totals them; kept separate so the math can be benchmarked. */
+    static CartResponse summarize(List<CartItem> items) {
+        return summarize(items, List.of());
     }
 
-    @Transactional(readOnly = true)
-    private CartResponse toResponse(Cart cart) {
-        List<CartItem> items = cartItemRepository.findByCartId(cart.getId());
-
+    static CartResponse summarize(List<CartItem> items, List<CartIssue> issues) {
         List<CartItemResponse> mapped = items.stream()
             .map(item -> new CartItemResponse(
                 item.getListingId(),
@@ -122,6 +124,6 @@ public class CartService {
             .map(item -> item.price().multiply(BigDecimal.valueOf(item.quantity())))
             .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-        return new CartResponse(mapped, itemCount, subtotal);
+        return new CartResponse(mapped, itemCount, subtotal, issues);
     }
 }
\ No newline at end of file
@@ -0,0 +1,263 @@
+package com.authentix.authentix.cart;
+
+import com.authentix.authentix.cart.dto.CartIssue;
+import com.authentix.authentix.cart.dto.CartResponse;
+import com.authentix.authentix.dto.ListingSummary;
+import com.authentix.authentix.entity.ListingStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One user's cart as held by {@link CartStore}. Items are detached {@link CartItem}s keyed by listing
+ * id in insertion order. Every change bumps {@code version}; the cart is dirty until a flush has
+ * written that version. The cart also remembers the stored version and items it was last loaded from
+ * or written as, so that if another instance writes the cart first, this one's changes can be merged
+ * onto the newer copy ({@link #rebase}). All access goes through {@link #lock}.
+ */
+final class CartState {
+
+    final Long userId;
+    final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, CartItem> items = new LinkedHashMap<>();
+    private long version;
+    private long persistedVersion;
+    /** carts.version these items build on, and the items as stored at that version. */
+    private long storedVersion;
+    private Map<Long, CartItem> stored;
+    /** Set when the store dropped this cart; callers holding it must look the cart up again. */
+    boolean evicted;
+    /** Last reviewed view, the cart version it was computed at and the listing change stamp it reflects. */
+    private CartResponse validated;
+    private long validatedVersion = -1;
+    private long validatedStamp;
+
+    CartState(Long userId, CartBatchWriter.Stored loaded) {
+        this.userId = userId;
+        this.storedVersion = loaded.version();
+        this.stored = byListing(loaded.items());
+        this.items.putAll(byListing(loaded.items()));
+    }
+
+    long version() {
+        return version;
+    }
+
+    boolean isDirty() {
+        return version != persistedVersion;
+    }
+
+    long storedVersion() {
+        return storedVersion;
+    }
+
+    /** Records that items, taken at flushedVersion, were written as stored version newStoredVersion. */
+    void markPersisted(long flushedVersion, long newStoredVersion, List<CartItem> written) {
+        persistedVersion = Math.max(persistedVersion, flushedVersion);
+        storedVersion = newStoredVersion;
+        stored = byListing(written);
+    }
+
+    /**
+     * Moves the cart onto a newer stored copy written by another instance, keeping this cart's own
+     * changes: items changed, added or removed here since {@link #storedVersion} win, every other item
+     * is taken from newer. The result is dirty, so the next flush writes it over newer's version.
+     */
+    void rebase(CartBatchWriter.Stored newer) {
+        Map<Long, CartItem> merged = byListing(newer.items());
+        Set<Long> listingIds = new LinkedHashSet<>(stored.keySet());
+        listingIds.addAll(items.keySet());
+        for (Long listingId : listingIds) {
+            CartItem before = stored.get(listingId);
+            CartItem now = items.get(listingId);
+            if (sameItem(before, now)) continue;
+            if (now == null) merged.remove(listingId);
+            else merged.put(listingId, now);
+        }
+        items.clear();
+        items.putAll(merged);
+        storedVersion = newer.version();
+        stored = byListing(newer.items());
+        version++;
+    }
+
+    List<CartItem> items() {
+        return new ArrayList<>(items.values());
+    }
+
+    List<Long> listingIds() {
+        return new ArrayList<>(items.keySet());
+    }
+
+    /** The cached review if the cart has not changed since; the caller checks its listings against {@link #validatedStamp()}. */
+    CartResponse validated() {
+        return validatedVersion == version ? validated : null;
+    }
+
+    long validatedStamp() {
+        return validatedStamp;
+    }
+
+    void cacheValidated(CartResponse response, long listingStamp) {
+        validated = response;
+        validatedVersion = version;
+        validatedStamp = listingStamp;
+    }
+
+    /**
+     * The cart checked against the current listings, without changing it. Items whose listing is gone
+     * or no longer ACTIVE are left out; the rest show the listing's current price, title, image and
+     * shipping option. Dropped items and price changes are reported as issues on every review until
+     * the buyer changes the item or acknowledges them (see {@link #refresh}).
+     */
+    CartResponse review(Map<Long, ListingSummary> listings) {
+        List<CartItem> current = new ArrayList<>(items.size());
+        List<CartIssue> issues = new ArrayList<>();
+        for (CartItem item : items.values()) {
+            ListingSummary listing = listings.get(item.getListingId());
+            CartIssue issue = issue(item, listing);
+            if (issue != null) issues.add(issue);
+            if (isAvailable(listing)) {
+                CartItem view = copy(item);
+                applyListing(view, listing);
+                current.add(view);
+            }
+        }
+        return CartService.summarize(current, issues);
+    }
+
+    /**
+     * Accepts the current listings: unavailable items are dropped and snapshots take the listing's
+     * price, title, image and shipping option, which clears every issue {@link #review} reported.
+     */
+    void refresh(Map<Long, ListingSummary> listings) {
+        boolean changed = false;
+        for (Iterator<CartItem> it = items.values().iterator(); it.hasNext(); ) {
+            CartItem item = it.next();
+            ListingSummary listing = listings.get(item.getListingId());
+            if (!isAvailable(listing)) {
+                it.remove();
+                changed = true;
+                continue;
+            }
+            String shippingOption = listing.shippingOption() != null ? listing.shippingOption().name() : null;
+            if (item.getPriceSnapshot() == null || item.getPriceSnapshot().compareTo(listing.price()) != 0
+                    || !Objects.equals(item.getTitleSnapshot(), listing.title())
+                    || !Objects.equals(item.getImageSnapshot(), listing.firstImage())
+                    || !Objects.equals(item.getShippingOptionSnapshot(), shippingOption)) {
+                applyListing(item, listing);
+                item.setUpdatedAt(Instant.now());
+                changed = true;
+            }
+        }
+        if (changed) version++;
+    }
+
+    private static boolean isAvailable(ListingSummary listing) {
+        return listing != null && listing.status() == ListingStatus.ACTIVE;
+    }
+
+    /** What the buyer should be told about item against its listing, or null if nothing. */
+    private static CartIssue issue(CartItem item, ListingSummary listing) {
+        if (!isAvailable(listing)) {
+            CartIssue.Reason reason = listing == null || listing.status() == ListingStatus.REMOVED ? CartIssue.Reason.REMOVED
+                    : listing.status() == ListingStatus.SOLD ? CartIssue.Reason.SOLD : CartIssue.Reason.UNAVAILABLE;
+            return new CartIssue(item.getListingId(), item.getTitleSnapshot(), reason, item.getPriceSnapshot(), null);
+        }
+        if (item.getPriceSnapshot() == null || item.getPriceSnapshot().compareTo(listing.price()) != 0) {
+            return new CartIssue(item.getListingId(), listing.title(), CartIssue.Reason.PRICE_CHANGED,
+                    item.getPriceSnapshot(), listing.price());
+        }
+        return null;
+    }
+
+    private static void applyListing(CartItem item, ListingSummary listing) {
+        item.setPriceSnapshot(listing.price());
+        item.setTitleSnapshot(listing.title());
+        item.setImageSnapshot(listing.firstImage());
+        item.setShippingOptionSnapshot(listing.shippingOption() != null ? listing.shippingOption().name() : null);
+    }
+
+    /** Adds the requested quantity (at least 1) and snapshots the listing's current price, title, image and shipping option. */
+    void upsert(ListingSummary listing, Integer requested) {
+        int quantity = requested == null ? 1 : Math.max(1, requested);
+        CartItem item = items.get(listing.id());
+        if (item == null) {
+            item = new CartItem();
+            item.setListingId(listing.id());
+            item.setQuantity(0);
+            item.setCreatedAt(Instant.now());
+            items.put(listing.id(), item);
+        }
+        item.setQuantity(item.getQuantity() + quantity);
+        applyListing(item, listing);
+        item.setUpdatedAt(Instant.now());
+        version++;
+    }
+
+    /** False if the listing is not in the cart. */
+    boolean setQuantity(Long listingId, int quantity) {
+        CartItem item = items.get(listingId);
+        if (item == null) {
+            return false;
+        }
+        if (item.getQuantity() != quantity) {
+            item.setQuantity(quantity);
+            item.setUpdatedAt(Instant.now());
+            version++;
+        }
+        return true;
+    }
+
+    void remove(Long listingId) {
+        if (items.remove(listingId) != null) {
+            version++;
+        }
+    }
+
+    void clear() {
+        if (!items.isEmpty()) {
+            items.clear();
+            version++;
+        }
+    }
+
+    private static Map<Long, CartItem> byListing(List<CartItem> source) {
+        Map<Long, CartItem> byListing = new LinkedHashMap<>();
+        for (CartItem item : source) {
+            byListing.put(item.getListingId(), copy(item));
+        }
+        return byListing;
+    }
+
+    private static boolean sameItem(CartItem a, CartItem b) {
+        if (a == null || b == null) return a == b;
+        return Objects.equals(a.getQuantity(), b.getQuantity())
+                && (a.getPriceSnapshot() == null ? b.getPriceSnapshot() == null
+                    : b.getPriceSnapshot() != null && a.getPriceSnapshot().compareTo(b.getPriceSnapshot()) == 0)
+                && Objects.equals(a.getTitleSnapshot(), b.getTitleSnapshot())
+                && Objects.equals(a.getImageSnapshot(), b.getImageSnapshot())
+                && Objects.equals(a.getShippingOptionSnapshot(), b.getShippingOptionSnapshot());
+    }
+
+    static CartItem copy(CartItem source) {
+        CartItem item = new CartItem();
+        item.setListingId(source.getListingId());
+        item.setQuantity(source.getQuantity());
+        item.setPriceSnapshot(source.getPriceSnapshot());
+        item.setTitleSnapshot(source.getTitleSnapshot());
+        item.setImageSnapshot(source.getImageSnapshot());
+        item.setShippingOptionSnapshot(source.getShippingOptionSnapshot());
+        item.setCreatedAt(source.getCreatedAt() != null ? source.getCreatedAt() : Instant.now());
+        item.setUpdatedAt(source.getUpdatedAt() != null ? source.getUpdatedAt() : item.getCreatedAt());
+        return item;
+    }
+}
@@ -0,0 +1,242 @@
+package com.authentix.authentix.cart;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Write-behind cart cache. Active carts live in memory, split into lock stripes by user id, each
+ * stripe an access-ordered LRU. Reads and mutations run against memory under the cart's own lock;
+ * changed carts are queued and written to the database in batches by {@link #flush()}, on a
+ * schedule and at shutdown. Only clean carts are evicted, so the cache can briefly exceed its
+ * bound when many carts change between flushes.
+ *
+ * With several instances, each may hold its own copy of a cart. Loads and flushes run on the primary,
+ * and a flush only writes a cart over the stored version it was built from; if another instance wrote
+ * the cart first, the local changes are merged onto that copy ({@link CartState#rebase}) and written
+ * on the next run. Every write is announced as a {@link CartsWrittenEvent}, which the invalidation bus
+ * turns into {@link #invalidate} calls on the other instances, so their clean copies are reloaded.
+ * A copy with unwritten changes can therefore serve reads up to one flush interval out of date.
+ *
+ * Changes made since the last flush are lost if the process dies without shutting down.
+ */
+@Component
+public class CartStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CartStore.class);
+    private static final int STRIPES = 64;
+    /** Carts per flush transaction. */
+    private static final int FLUSH_BATCH = 500;
+    /** How far past the LRU end eviction looks for a clean, unlocked cart. */
+    private static final int EVICTION_SCAN = 8;
+
+    private final CartBatchWriter writer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Stripe[] stripes;
+    private final int stripeCapacity;
+    private final Set<CartState> dirty = ConcurrentHashMap.newKeySet();
+
+    private static final class Stripe {
+        final Map<Long, CartState> carts = new LinkedHashMap<>(16, 0.75f, true);
+        /** Bumped on every eviction so a load that raced with one can tell its result may be stale. */
+        long evictions;
+    }
+
+    public CartStore(CartBatchWriter writer, ApplicationEventPublisher eventPublisher,
+                     @Value("${app.cart.max-carts:100000}") int maxCarts) {
+        this.writer = writer;
+        this.eventPublisher = eventPublisher;
+        this.stripeCapacity = Math.max(1, maxCarts / STRIPES);
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Runs action on the user's cart while holding its lock, loading the cart on first use. If the
+     * action changed the cart it is queued for the next flush.
+     */
+    public <T> T apply(Long userId, Function<CartState, T> action) {
+        while (true) {
+            CartState cart = get(userId);
+            cart.lock.lock();
+            try {
+                if (cart.evicted) continue;
+                T result = action.apply(cart);
+                if (cart.isDirty()) dirty.add(cart);
+                return result;
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes every changed cart; carts whose write fails stay queued for the next run, as do carts
+     * another instance wrote first, once merged onto its copy.
+     */
+    @Scheduled(fixedDelayString = "${app.cart.flush-interval:2s}", initialDelayString = "${app.cart.flush-interval:2s}")
+    public synchronized void flush() {
+        List<CartState> pending = new ArrayList<>(dirty);
+        for (int from = 0; from < pending.size(); from += FLUSH_BATCH) {
+            List<CartState> batch = pending.subList(from, Math.min(pending.size(), from + FLUSH_BATCH));
+            List<CartBatchWriter.Snapshot> snapshots = new ArrayList<>(batch.size());
+            for (CartState cart : batch) {
+                cart.lock.lock();
+                try {
+                    dirty.remove(cart);
+                    snapshots.add(new CartBatchWriter.Snapshot(cart.userId, cart.version(), cart.storedVersion(),
+                            cart.items().stream().map(CartState::copy).toList()));
+                } finally {
+                    cart.lock.unlock();
+                }
+            }
+            Map<Long, CartBatchWriter.Stored> newer;
+            try {
+                newer = writer.write(snapshots);
+            } catch (RuntimeException e) {
+                log.warn("Cart flush of {} carts failed; retrying on the next run", batch.size(), e);
+                dirty.addAll(batch);
+                continue;
+            }
+            List<Long> written = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                CartState cart = batch.get(i);
+                CartBatchWriter.Snapshot snapshot = snapshots.get(i);
+                cart.lock.lock();
+                try {
+                    CartBatchWriter.Stored stored = newer.get(cart.userId);
+                    if (stored != null) {
+                        cart.rebase(stored);
+                        dirty.add(cart);
+                    } else {
+                        cart.markPersisted(snapshot.version(), snapshot.storedVersion() + 1, snapshot.items());
+                        written.add(cart.userId);
+                    }
+                } finally {
+                    cart.lock.unlock();
+                }
+            }
+            if (!newer.isEmpty()) {
+                log.info("{} carts were written by another instance since they were loaded; merged for the next run", newer.size());
+            }
+            if (!written.isEmpty()) eventPublisher.publishEvent(new CartsWrittenEvent(written));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+        if (!dirty.isEmpty()) {
+            log.error("{} carts could not be written at shutdown", dirty.size());
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.carts.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Forgets the user's cart after another instance wrote it, so the next use loads the new copy; a
+     * load already under way is retried. A cart with unwritten changes is kept, and its next flush
+     * merges them onto the new copy.
+     */
+    public void invalidate(Long userId) {
+        Stripe stripe = stripe(userId);
+        CartState cart;
+        synchronized (stripe) {
+            cart = stripe.carts.get(userId);
+            stripe.evictions++;
+        }
+        if (cart == null) return;
+        cart.lock.lock();
+        try {
+            if (cart.evicted || cart.isDirty()) return;
+            synchronized (stripe) {
+                cart.evicted = true;
+                stripe.carts.remove(userId, cart);
+                stripe.evictions++;
+            }
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    /** Drops the user's cart from memory if it has no unwritten changes; false otherwise. */
+    boolean evict(Long userId) {
+        Stripe stripe = stripe(userId);
+        synchronized (stripe) {
+            CartState cart = stripe.carts.get(userId);
+            return cart == null || tryEvict(stripe, cart);
+        }
+    }
+
+    private CartState get(Long userId) {
+        Stripe stripe = stripe(userId);
+        while (true) {
+            long evictions;
+            synchronized (stripe) {
+                CartState cart = stripe.carts.get(userId);
+                if (cart != null) return cart;
+                evictions = stripe.evictions;
+            }
+            // Load outside the stripe lock so a slow query does not block other users in the stripe.
+            CartState loaded = new CartState(userId, writer.load(userId));
+            synchronized (stripe) {
+                CartState cart = stripe.carts.get(userId);
+                if (cart != null) return cart;
+                // Another thread may have loaded, changed, flushed and evicted this cart meanwhile, or
+                // another instance written it.
+                if (stripe.evictions != evictions) continue;
+                stripe.carts.put(userId, loaded);
+                if (stripe.carts.size() > stripeCapacity) evictEldest(stripe, loaded);
+                return loaded;
+            }
+        }
+    }
+
+    private void evictEldest(Stripe stripe, CartState keep) {
+        Iterator<CartState> it = stripe.carts.values().iterator();
+        for (int scanned = 0; scanned < EVICTION_SCAN && it.hasNext(); scanned++) {
+            CartState cart = it.next();
+            if (cart != keep && tryEvict(stripe, cart)) return;
+        }
+    }
+
+    private static boolean tryEvict(Stripe stripe, CartState cart) {
+        if (!cart.lock.tryLock()) return false;
+        try {
+            if (cart.isDirty()) return false;
+            cart.evicted = true;
+            stripe.carts.remove(cart.userId);
+            stripe.evictions++;
+            return true;
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    private Stripe stripe(Long userId) {
+        return stripes[Math.floorMod(Long.hashCode(userId) * 0x9E3779B9, STRIPES)];
+    }
+}
@@ -0,0 +1,6 @@
+package com.authentix.authentix.cart;
+
+import java.util.List;
+
+/** Published by {@link CartStore} after a flush wrote these users' carts. */
+public record CartsWrittenEvent(List<Long> userIds) {}
@@ -0,0 +1,74 @@
+package com.authentix.authentix.cart;
+
+import com.authentix.authentix.entity.Address;
+import com.authentix.authentix.entity.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/** Inserts all of a checkout's PENDING orders in one JDBC batch, sharing one shipping address snapshot. */
+@Component
+@RequiredArgsConstructor
+public class CheckoutOrderWriter {
+
+    private static final String INSERT = "INSERT INTO orders (buyer_id, listing_id, stripe_payment_intent_id, amount,"
+            + " platform_fee, seller_payout, status, created_at, ship_line1, ship_line2, ship_city, ship_state,"
+            + " ship_postal_code, ship_country, ship_phone) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    record Line(Long listingId, String paymentIntentId, long amountCents, long feeCents) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Returns the new order ids in the order of {@code lines}. */
+    @Transactional
+    public List<Long> insert(Long buyerId, Address address, List<Line> lines) {
+        Timestamp now = Timestamp.from(Instant.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Line line = lines.get(i);
+                        ps.setLong(1, buyerId);
+                        ps.setLong(2, line.listingId());
+                        ps.setString(3, line.paymentIntentId());
+                        ps.setBigDecimal(4, BigDecimal.valueOf(line.amountCents(), 2));
+                        ps.setBigDecimal(5, BigDecimal.valueOf(line.feeCents(), 2));
+                        ps.setBigDecimal(6, BigDecimal.valueOf(line.amountCents() - line.feeCents(), 2));
+                        ps.setString(7, OrderStatus.PENDING.name());
+                        ps.setTimestamp(8, now);
+                        ps.setString(9, address.getLine1());
+                        ps.setString(10, address.getLine2());
+                        ps.setString(11, address.getCity());
+                        ps.setString(12, address.getState());
+                        ps.setString(13, address.getPostalCode());
+                        ps.setString(14, address.getCountry());
+                        ps.setString(15, address.getPhone());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return lines.size();
+                    }
+                }, keys);
+        List<Long> ids = new ArrayList<>(lines.size());
+        for (Map<String, Object> row : keys.getKeyList()) {
+            ids.add(((Number) row.values().iterator().next()).longValue());
+        }
+        return ids;
+    }
+}
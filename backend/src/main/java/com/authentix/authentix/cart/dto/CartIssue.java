@@ -0,0 +1,17 @@
+package com.authentix.authentix.cart.dto;
+import java.math.BigDecimal;
+
+/**
+ * Something that changed about a cart item since it was added. SOLD, REMOVED and UNAVAILABLE items
+ * are left out of the cart view; PRICE_CHANGED items are shown at the current price. Reported on
+ * every view until the item changes or the buyer acknowledges (POST /api/cart/issues/acknowledge).
+ */
+public record CartIssue(
+    Long listingId,
+    String title,
+    Reason reason,
+    BigDecimal previousPrice,
+    BigDecimal currentPrice
+) {
+    public enum Reason { SOLD, REMOVED, UNAVAILABLE, PRICE_CHANGED }
+}
@@ -1,6 +1,10 @@
 package com.authentix.authentix.cart.dto;
 import java.math.BigDecimal;
 
+/**
+ * An item to add. price, title, image and shippingOption are what the client last displayed; they are
+ * accepted for compatibility but ignored, since the cart snapshots the listing itself.
+ */
 public record CartItemRequest(
     Long listingId,
     Integer quantity,
@@ -5,5 +5,6 @@ import java.util.List;
 public record CartResponse(
     List<CartItemResponse> items,
     Integer itemCount,
-    BigDecimal subtotal
-) {}
\ No newline at end of file
+    BigDecimal subtotal,
+    List<CartIssue> issues
+) {}
@@ -0,0 +1,2 @@
+package com.authentix.authentix.cart.dto;
+public record CheckoutRequest(Long addressId) {}
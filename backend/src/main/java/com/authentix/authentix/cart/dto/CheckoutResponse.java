@@ -0,0 +1,17 @@
+package com.authentix.authentix.cart.dto;
+import java.math.BigDecimal;
+import java.util.List;
+
+/** One payment to confirm per seller in the cart; the client confirms each clientSecret with Stripe.js. */
+public record CheckoutResponse(
+    List<SellerPayment> payments,
+    BigDecimal total
+) {
+    public record SellerPayment(
+        Long sellerId,
+        String paymentIntentId,
+        String clientSecret,
+        BigDecimal amount,
+        List<Long> orderIds
+    ) {}
+}
@@ -2,6 +2,7 @@ package com.authentix.authentix.config;
 
 import com.authentix.authentix.entity.Category;
 import com.authentix.authentix.repository.CategoryRepository;
+import com.authentix.authentix.service.CategoryTree;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -13,9 +14,15 @@ import java.util.List;
 public class CategoryDataLoader implements CommandLineRunner {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryTree categoryTree;
 
     @Override
     public void run(String... args) {
+        seed();
+        categoryTree.invalidate();
+    }
+
+    private void seed() {
         if (categoryRepository.count() > 0) return;
 
         // Root categories (parent_id = null)
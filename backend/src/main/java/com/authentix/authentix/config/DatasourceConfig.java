@@ -1,20 +1,86 @@
 package com.authentix.authentix.config;
 
+import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 public class DatasourceConfig {
 
+    /**
+     * MySQL Connector/J settings applied unless overridden under spring.datasource.hikari.data-source-properties:
+     * client- and server-side prepared statement caching, multi-row rewriting of batched inserts, and
+     * skipping round trips for session state the driver already knows.
+     */
+    static final Map<String, String> MYSQL_DRIVER_DEFAULTS = Map.of(
+            "cachePrepStmts", "true",
+            "prepStmtCacheSize", "250",
+            "prepStmtCacheSqlLimit", "2048",
+            "useServerPrepStmts", "true",
+            "rewriteBatchedStatements", "true",
+            "useLocalSessionState", "true",
+            "cacheResultSetMetadata", "true",
+            "cacheServerConfiguration", "true",
+            "elideSetAutoCommits", "true",
+            "maintainTimeStats", "false");
+
+    /**
+     * The DataSource everything uses: routes read-only transactions to replicas (when configured) and
+     * the rest to the primary. The lazy proxy defers the routing decision to the first statement.
+     */
     @Bean
     @Primary
-    public DataSource dataSource(Environment environment) {
+    public DataSource dataSource(ReadReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Replicas from app.datasource.replicas (comma-separated JDBC URLs), each with its own pool using the
+     * primary's pool settings. Without replicas, every connection comes from the primary. Replica pools
+     * do not connect at startup, so a replica that is down then only starts out of rotation until
+     * {@link ReplicaLagMonitor} finds it caught up.
+     */
+    @Bean
+    public ReadReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                          @Value("${app.datasource.replicas:}") List<String> replicaUrls,
+                                                          @Value("${app.datasource.replica-username:}") String replicaUsername,
+                                                          @Value("${app.datasource.replica-password:}") String replicaPassword) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (!StringUtils.hasText(url)) continue;
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setJdbcUrl(toJdbcUrl(url.trim()));
+            config.setPoolName(primaryDataSource.getPoolName() + "-replica-" + replicas.size());
+            config.setReadOnly(true);
+            config.setInitializationFailTimeout(-1);
+            if (StringUtils.hasText(replicaUsername)) config.setUsername(replicaUsername);
+            if (StringUtils.hasText(replicaPassword)) config.setPassword(replicaPassword);
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReadReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    /**
+     * Pool settings (size, timeouts, leak detection, driver properties) are bound from
+     * spring.datasource.hikari.* onto the HikariConfig after this method returns; the pool starts on
+     * first use, so they all apply. Pool metrics are bound to Micrometer by Spring Boot.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(Environment environment) {
         String configuredUrl = firstNonBlank(
                 environment.getProperty("SPRING_DATASOURCE_URL"),
                 environment.getProperty("spring.datasource.url"),
@@ -29,6 +95,9 @@ public class DatasourceConfig {
 
         HikariDataSource dataSource = new HikariDataSource();
         dataSource.setJdbcUrl(jdbcUrl);
+        if (jdbcUrl.startsWith("jdbc:mysql:")) {
+            MYSQL_DRIVER_DEFAULTS.forEach(dataSource::addDataSourceProperty);
+        }
 
         String username = firstNonBlank(
                 environment.getProperty("SPRING_DATASOURCE_USERNAME"),
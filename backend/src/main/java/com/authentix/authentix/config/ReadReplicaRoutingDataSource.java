@@ -0,0 +1,75 @@
+package com.authentix.authentix.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Sends connections for read-only transactions ({@code @Transactional(readOnly = true)}) to a replica,
+ * round-robin over the replicas {@link ReplicaLagMonitor} currently considers caught up; everything
+ * else, and read-only work when no replica is usable, goes to the primary.
+ *
+ * The lookup happens when a connection is fetched, so this must sit behind a
+ * LazyConnectionDataSourceProxy: otherwise the transaction manager takes the connection before the
+ * read-only flag is visible.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final List<HikariDataSource> replicas;
+    /** 1 = usable; all start unusable until the first lag check. */
+    private final AtomicIntegerArray usable;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas) {
+        this.replicas = List.copyOf(replicas);
+        this.usable = new AtomicIntegerArray(replicas.size());
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    List<HikariDataSource> replicas() {
+        return replicas;
+    }
+
+    void setUsable(int replica, boolean value) {
+        usable.set(replica, value ? 1 : 0);
+    }
+
+    boolean isUsable(int replica) {
+        return usable.get(replica) == 1;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            int candidate = (start + i) % replicas.size();
+            if (isUsable(candidate)) return candidate;
+        }
+        return PRIMARY;
+    }
+
+    /** Closes the replica pools; the primary pool is a bean of its own. */
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
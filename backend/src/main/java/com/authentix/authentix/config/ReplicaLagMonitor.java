@@ -0,0 +1,114 @@
+package com.authentix.authentix.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Measures replica lag with a heartbeat row: each check reads the row from every replica, then bumps
+ * it on the primary. A replica whose copy is older than {@code app.datasource.replica-max-lag}, or
+ * that cannot be read, stops receiving reads until a later check finds it caught up.
+ */
+@Component
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    private static final int QUERY_TIMEOUT_SECONDS = 2;
+
+    private final ReadReplicaRoutingDataSource routing;
+    private final JdbcTemplate primary;
+    private final List<JdbcTemplate> replicas;
+    private final Duration maxLag;
+    /** Last measured lag per replica in ms; -1 when unreadable. */
+    private final AtomicLongArray lagMillis;
+
+    public ReplicaLagMonitor(ReadReplicaRoutingDataSource routing, HikariDataSource primaryDataSource,
+                             ObjectProvider<MeterRegistry> meterRegistry,
+                             @Value("${app.datasource.replica-max-lag:5s}") Duration maxLag) {
+        this.routing = routing;
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replicas = routing.replicas().stream().map(ReplicaLagMonitor::jdbcTemplate).toList();
+        this.maxLag = maxLag;
+        this.lagMillis = new AtomicLongArray(replicas.size());
+        meterRegistry.ifAvailable(registry -> bindMetrics(registry, routing.replicas()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica-lag-check-interval:1s}")
+    public void check() {
+        if (replicas.isEmpty()) return;
+        Instant now = Instant.now();
+        for (int i = 0; i < replicas.size(); i++) {
+            Duration lag = lag(i, now);
+            lagMillis.set(i, lag != null ? lag.toMillis() : -1);
+            boolean usable = lag != null && lag.compareTo(maxLag) <= 0;
+            if (usable != routing.isUsable(i)) {
+                log.info("Read replica {} {} (lag {})", routing.replicas().get(i).getPoolName(),
+                        usable ? "in use" : "taken out of rotation", lag != null ? lag : "unknown");
+            }
+            routing.setUsable(i, usable);
+        }
+        beat(now);
+    }
+
+    private Duration lag(int replica, Instant now) {
+        try {
+            List<Timestamp> beats = replicas.get(replica).queryForList(
+                    "SELECT beat_at FROM replication_heartbeat WHERE id = 1", Timestamp.class);
+            if (beats.isEmpty() || beats.get(0) == null) return null;
+            Duration lag = Duration.between(beats.get(0).toInstant(), now);
+            return lag.isNegative() ? Duration.ZERO : lag;
+        } catch (RuntimeException e) {
+            log.debug("Replica {} heartbeat read failed", routing.replicas().get(replica).getPoolName(), e);
+            return null;
+        }
+    }
+
+    private void beat(Instant now) {
+        try {
+            Timestamp at = Timestamp.from(now);
+            if (primary.update("UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1", at) == 0) {
+                primary.update("INSERT IGNORE INTO replication_heartbeat (id, beat_at) VALUES (1, ?)", at);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not write replication heartbeat", e);
+        }
+    }
+
+    private void bindMetrics(MeterRegistry registry, List<HikariDataSource> pools) {
+        for (int i = 0; i < pools.size(); i++) {
+            HikariDataSource pool = pools.get(i);
+            if (pool.getMetricsTrackerFactory() == null && pool.getMetricRegistry() == null) {
+                pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+            int replica = i;
+            Gauge.builder("app.datasource.replica.lag", lagMillis, lags -> lags.get(replica))
+                    .tag("pool", pool.getPoolName())
+                    .baseUnit("milliseconds")
+                    .description("Replication lag from the heartbeat row; -1 when the replica is unreadable")
+                    .register(registry);
+            Gauge.builder("app.datasource.replica.in.use", routing, r -> r.isUsable(replica) ? 1 : 0)
+                    .tag("pool", pool.getPoolName())
+                    .register(registry);
+        }
+    }
+
+    private static JdbcTemplate jdbcTemplate(HikariDataSource dataSource) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+        return template;
+    }
+}
@@ -0,0 +1,83 @@
+package com.authentix.authentix.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps concurrent API requests at a multiple of the database connection pools' size. With virtual
+ * threads Tomcat no longer bounds concurrency, and without a cap a burst turns into thousands of
+ * threads queued on a few connections until they time out. Excess requests wait briefly, in arrival
+ * order, then get a 503 with Retry-After. Streams and image downloads are not counted: they hold no
+ * connection.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final int limit;
+    private final Duration queueTimeout;
+
+    public RequestConcurrencyLimitFilter(HikariDataSource primaryDataSource, ReadReplicaRoutingDataSource routingDataSource,
+                                         @Value("${app.web.max-concurrent-requests:0}") int maxConcurrentRequests,
+                                         @Value("${app.web.requests-per-connection:25}") int requestsPerConnection,
+                                         @Value("${app.web.queue-timeout:2s}") Duration queueTimeout) {
+        int connections = primaryDataSource.getMaximumPoolSize()
+                + routingDataSource.replicas().stream().mapToInt(HikariDataSource::getMaximumPoolSize).sum();
+        this.limit = maxConcurrentRequests > 0 ? maxConcurrentRequests : connections * Math.max(1, requestsPerConnection);
+        this.permits = new Semaphore(limit, true);
+        this.queueTimeout = queueTimeout;
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !path.startsWith("/api/") || path.startsWith("/api/images/") || path.endsWith("/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(queueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Server is busy, try again shortly\"}");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -11,10 +11,17 @@ public class StripeConfig {
     @Value("${stripe.secret-key:}")
     private String secretKey;
 
+    /** Alternate API host, e.g. a local stub server in tests; blank uses Stripe's. */
+    @Value("${stripe.api-base:}")
+    private String apiBase;
+
     @PostConstruct
     void init() {
         if (secretKey != null && !secretKey.isBlank()) {
             Stripe.apiKey = secretKey;
         }
+        if (apiBase != null && !apiBase.isBlank()) {
+            Stripe.overrideApiBase(apiBase);
+        }
     }
 }
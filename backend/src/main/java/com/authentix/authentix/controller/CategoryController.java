@@ -1,26 +1,34 @@
 package com.authentix.authentix.controller;
 
-import com.authentix.authentix.entity.Category;
-import com.authentix.authentix.repository.CategoryRepository;
+import com.authentix.authentix.security.AuthenticatedUser;
+import com.authentix.authentix.service.CategoriesChangedEvent;
+import com.authentix.authentix.service.CategoryTree;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/categories")
 @RequiredArgsConstructor
 public class CategoryController {
 
-    private final CategoryRepository categoryRepository;
+    private final CategoryTree categoryTree;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.admin-email:}")
+    private String adminEmail;
 
     /**
      * List categories: roots (no parentId) or children of a parent (parentId given).
@@ -29,37 +37,25 @@ public class CategoryController {
     @GetMapping
     public ResponseEntity<List<Map<String, Object>>> list(
             @RequestParam(required = false) Long parentId) {
-        List<Category> categories;
-        if (parentId == null) {
-            categories = categoryRepository.findByParentIdIsNullOrderByName();
-        } else {
-            categories = categoryRepository.findByParentIdOrderByName(parentId);
-        }
-        List<Map<String, Object>> result = categories.stream()
-                .map(c -> {
-                    Map<String, Object> m = new HashMap<>();
-                    m.put("id", c.getId());
-                    m.put("name", c.getName());
-                    m.put("slug", c.getSlug());
-                    m.put("parentId", c.getParentId());
-                    return m;
-                })
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(parentId == null ? categoryTree.roots() : categoryTree.children(parentId));
     }
 
     /** Get a single category by id (e.g. to resolve parentId when editing a listing). */
     @GetMapping("/{id}")
     public ResponseEntity<Map<String, Object>> getById(@PathVariable Long id) {
-        return categoryRepository.findById(id)
-                .map(c -> {
-                    Map<String, Object> m = new HashMap<>();
-                    m.put("id", c.getId());
-                    m.put("name", c.getName());
-                    m.put("slug", c.getSlug());
-                    m.put("parentId", c.getParentId());
-                    return ResponseEntity.<Map<String, Object>>ok(m);
-                })
+        return categoryTree.get(id)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    /** Admin only: reload the in-memory category tree, on every instance, after editing the categories table. */
+    @PostMapping("/cache/invalidate")
+    public ResponseEntity<Void> invalidate(@AuthenticationPrincipal AuthenticatedUser auth) {
+        if (auth == null || adminEmail == null || adminEmail.isBlank() || !adminEmail.equalsIgnoreCase(auth.getEmail())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        categoryTree.invalidate();
+        eventPublisher.publishEvent(new CategoriesChangedEvent());
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -2,10 +2,12 @@ package com.authentix.authentix.controller;
 
 import com.authentix.authentix.dto.CreateListingRequest;
 import com.authentix.authentix.dto.DiscoveryLocationDto;
+import com.authentix.authentix.dto.ListingCursorPage;
 import com.authentix.authentix.dto.ListingDto;
 import com.authentix.authentix.dto.UpdateListingRequest;
 import com.authentix.authentix.entity.ListingStatus;
 import com.authentix.authentix.entity.ShippingOption;
+import com.authentix.authentix.search.ListingSearchService;
 import com.authentix.authentix.security.AuthenticatedUser;
 import com.authentix.authentix.service.ListingService;
 import com.authentix.authentix.service.RecommendationService;
@@ -19,6 +21,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 
@@ -31,24 +34,52 @@ public class ListingController {
     private final WatchlistService watchlistService;
     private final RecommendationService recommendationService;
     private final UserService userService;
+    private final ListingSearchService listingSearchService;
 
+    /**
+     * Offset paging by default, as a slice: {@code last} says whether another page follows, with no
+     * total count. Passing {@code cursor} (empty for the first page) switches to keyset mode, which
+     * returns {@link ListingCursorPage} with a {@code nextCursor}.
+     */
     @GetMapping
-    public ResponseEntity<Page<ListingDto>> list(
+    public ResponseEntity<?> list(
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) ShippingOption shippingOption,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
+        if (cursor != null) {
+            return ResponseEntity.ok(listingService.getActiveListingsAfter(categoryId, shippingOption, cursor, size));
+        }
         return ResponseEntity.ok(listingService.getActiveListings(categoryId, shippingOption, page, size));
     }
 
+    /**
+     * Full-text search over ACTIVE listings (title, description, category, condition) with prefix
+     * matching and BM25 ranking. Blank q returns filtered listings newest first.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Page<ListingDto>> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) ShippingOption shippingOption,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(listingSearchService.search(q, minPrice, maxPrice, categoryId, shippingOption, page, size));
+    }
+
     @GetMapping("/recommended")
     public ResponseEntity<List<ListingDto>> recommended(@RequestParam(required = false) Long listingId) {
         return ResponseEntity.ok(recommendationService.getRecommended(listingId));
     }
 
+    /** Listings within radiusMiles (default 25) of the ZIP, or the user's discovery ZIP, nearest first. */
     @GetMapping("/nearby")
     public ResponseEntity<List<ListingDto>> nearby(
             @RequestParam(required = false) String zip,
+            @RequestParam(required = false) Double radiusMiles,
             @RequestParam(defaultValue = "10") int limit) {
         String zipToUse = zip;
         if (zipToUse == null || zipToUse.isBlank()) {
@@ -60,7 +91,7 @@ public class ListingController {
                 }
             }
         }
-        return ResponseEntity.ok(listingService.getNearby(zipToUse, limit));
+        return ResponseEntity.ok(listingService.getNearby(zipToUse, radiusMiles, limit));
     }
 
     @GetMapping("/{id}")
@@ -1,10 +1,16 @@
 package com.authentix.authentix.controller;
 
+import com.authentix.authentix.dto.ConversationPage;
 import com.authentix.authentix.dto.MessageDto;
+import com.authentix.authentix.dto.MessageIdsRequest;
+import com.authentix.authentix.realtime.MessageStreamService;
 import com.authentix.authentix.service.MessageService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -15,6 +21,7 @@ import java.util.Map;
 public class MessageController {
 
     private final MessageService messageService;
+    private final MessageStreamService messageStreamService;
 
     @PostMapping("/listings/{id}/message")
     public ResponseEntity<MessageDto> sendMessage(@PathVariable Long id, @RequestBody Map<String, String> body) {
@@ -23,8 +30,80 @@ public class MessageController {
     }
 
     @GetMapping("/users/me/inbox")
-    public ResponseEntity<List<MessageDto>> getInbox() {
-        return ResponseEntity.ok(messageService.getMyInbox());
+    public ResponseEntity<List<MessageDto>> getInbox(
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean archived) {
+        return ResponseEntity.ok(messageService.getMyInbox(before, size, archived));
+    }
+
+    // Bulk operations on received messages; each responds with how many messages changed.
+
+    @PostMapping("/users/me/inbox/read")
+    public ResponseEntity<Map<String, Integer>> markRead(@Valid @RequestBody MessageIdsRequest request) {
+        return ResponseEntity.ok(Map.of("updated", messageService.markRead(request.getIds())));
+    }
+
+    @PostMapping("/users/me/inbox/read-all")
+    public ResponseEntity<Map<String, Integer>> markAllRead() {
+        return ResponseEntity.ok(Map.of("updated", messageService.markAllRead()));
+    }
+
+    @PostMapping("/users/me/inbox/archive")
+    public ResponseEntity<Map<String, Integer>> archive(@Valid @RequestBody MessageIdsRequest request) {
+        return ResponseEntity.ok(Map.of("updated", messageService.archive(request.getIds())));
+    }
+
+    @PostMapping("/users/me/inbox/delete")
+    public ResponseEntity<Map<String, Integer>> delete(@Valid @RequestBody MessageIdsRequest request) {
+        return ResponseEntity.ok(Map.of("updated", messageService.delete(request.getIds())));
+    }
+
+    @PostMapping("/users/me/conversations/{id}/read")
+    public ResponseEntity<Map<String, Integer>> markConversationRead(@PathVariable Long id) {
+        return ResponseEntity.ok(Map.of("updated", messageService.markConversationRead(id)));
+    }
+
+    @PostMapping("/users/me/conversations/{id}/archive")
+    public ResponseEntity<Map<String, Integer>> archiveConversation(@PathVariable Long id) {
+        return ResponseEntity.ok(Map.of("updated", messageService.archiveConversation(id)));
+    }
+
+    @PostMapping("/users/me/conversations/{id}/delete")
+    public ResponseEntity<Map<String, Integer>> deleteConversation(@PathVariable Long id) {
+        return ResponseEntity.ok(Map.of("updated", messageService.deleteConversation(id)));
+    }
+
+    @GetMapping("/users/me/inbox/unread-count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount() {
+        return ResponseEntity.ok(Map.of("count", messageService.getUnreadCount()));
+    }
+
+    @GetMapping("/users/me/conversations")
+    public ResponseEntity<ConversationPage> getConversations(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(messageService.getConversations(cursor, size));
+    }
+
+    @GetMapping("/users/me/conversations/{id}/messages")
+    public ResponseEntity<List<MessageDto>> getConversationMessages(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(messageService.getConversationMessages(id, before, size));
+    }
+
+    /**
+     * Server-sent events: each new message received is pushed as event "message". Reconnect with the
+     * last event id as Last-Event-ID (or ?after=) to first receive everything missed since; messages
+     * already seen may be sent again.
+     */
+    @GetMapping(value = "/users/me/inbox/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamInbox(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long after) {
+        return messageStreamService.open(lastEventId != null ? lastEventId : after);
     }
 
     @PatchMapping("/messages/{id}/read")
@@ -1,11 +1,10 @@
 package com.authentix.authentix.controller;
 
 import com.authentix.authentix.security.AuthenticatedUser;
-import com.authentix.authentix.service.OrderService;
 import com.authentix.authentix.service.StripeService;
+import com.authentix.authentix.webhook.WebhookInbox;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.Event;
-import com.stripe.model.PaymentIntent;
 import com.stripe.net.Webhook;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -21,7 +20,7 @@ import java.util.Map;
 public class StripeController {
 
     private final StripeService stripeService;
-    private final OrderService orderService;
+    private final WebhookInbox webhookInbox;
 
     @PostMapping("/stripe/connect/onboard")
     public ResponseEntity<?> createConnectOnboardingLink(@AuthenticationPrincipal AuthenticatedUser auth) {
@@ -81,12 +80,8 @@ public class StripeController {
         } catch (SignatureVerificationException e) {
             return ResponseEntity.badRequest().body("Invalid signature");
         }
-        if ("payment_intent.succeeded".equals(event.getType())) {
-            PaymentIntent pi = (PaymentIntent) event.getDataObjectDeserializer().getObject().orElse(null);
-            if (pi != null) {
-                orderService.markOrderPaidByPaymentIntentId(pi.getId());
-            }
-        }
+        // Only record the event here; Stripe gets its ack at once and workers apply it (see WebhookDispatcher).
+        webhookInbox.record(event, payload);
         return ResponseEntity.ok("ok");
     }
 }
@@ -0,0 +1,32 @@
+package com.authentix.authentix.dashboard;
+
+import com.authentix.authentix.entity.ListingStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Per-listing dashboard row; exists while the listing is not REMOVED. */
+@Entity
+@Table(name = "listing_stats",
+    indexes = @Index(name = "idx_listing_stats_seller_listing", columnList = "seller_id, listing_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class ListingStats {
+
+    @Id
+    @Column(name = "listing_id")
+    private Long listingId;
+
+    @Column(name = "seller_id", nullable = false)
+    private Long sellerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ListingStatus status;
+
+    /** Distinct users with the listing in their watchlist or any watchlist folder. */
+    @Column(nullable = false)
+    private int watchers;
+}
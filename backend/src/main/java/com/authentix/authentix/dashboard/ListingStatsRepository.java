@@ -0,0 +1,18 @@
+package com.authentix.authentix.dashboard;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ListingStatsRepository extends JpaRepository<ListingStats, Long> {
+
+    /** Newest listing first, straight off the (seller_id, listing_id) index. */
+    List<ListingStats> findBySellerIdOrderByListingIdDesc(Long sellerId);
+
+    /** Distinct users watching the listing through the watchlist or any folder. */
+    @Query(value = "select count(*) from (select user_id from watchlist where listing_id = :listingId"
+            + " union select user_id from watchlist_items where listing_id = :listingId) w", nativeQuery = true)
+    int countWatchers(@Param("listingId") Long listingId);
+}
@@ -0,0 +1,25 @@
+package com.authentix.authentix.dashboard;
+
+import com.authentix.authentix.entity.ListingStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Seller totals and per-listing watcher counts. Order sums cover currently paid orders, refunds
+ * netted out. Figures trail writes by the outbox relay's delivery lag.
+ */
+public record SellerDashboard(
+    int activeListings,
+    int soldListings,
+    int paidOrders,
+    int refundedOrders,
+    BigDecimal gross,
+    BigDecimal platformFees,
+    BigDecimal payouts,
+    Instant updatedAt,
+    List<ListingWatchers> listings
+) {
+    public record ListingWatchers(Long listingId, ListingStatus status, int watchers) {}
+}
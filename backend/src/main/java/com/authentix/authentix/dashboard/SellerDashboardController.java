@@ -0,0 +1,23 @@
+package com.authentix.authentix.dashboard;
+
+import com.authentix.authentix.security.AuthenticatedUser;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/users/me/seller-dashboard")
+public class SellerDashboardController {
+
+    private final SellerDashboardService service;
+
+    public SellerDashboardController(SellerDashboardService service) {
+        this.service = service;
+    }
+
+    @GetMapping
+    public SellerDashboard get(@AuthenticationPrincipal AuthenticatedUser auth) {
+        return service.get(auth);
+    }
+}
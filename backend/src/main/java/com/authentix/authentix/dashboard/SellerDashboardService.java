@@ -0,0 +1,34 @@
+package com.authentix.authentix.dashboard;
+
+import com.authentix.authentix.security.AuthenticatedUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class SellerDashboardService {
+
+    private final SellerStatsRepository sellerStatsRepository;
+    private final ListingStatsRepository listingStatsRepository;
+
+    /** A primary-key read of the totals plus one index range over the seller's listings; nothing is aggregated here. */
+    @Transactional(readOnly = true)
+    public SellerDashboard get(AuthenticatedUser auth) {
+        if (auth == null || auth.getUserId() == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Not signed in");
+        }
+        List<SellerDashboard.ListingWatchers> listings = listingStatsRepository.findBySellerIdOrderByListingIdDesc(auth.getUserId()).stream()
+                .map(l -> new SellerDashboard.ListingWatchers(l.getListingId(), l.getStatus(), l.getWatchers()))
+                .toList();
+        return sellerStatsRepository.findById(auth.getUserId())
+                .map(s -> new SellerDashboard(s.getActiveListings(), s.getSoldListings(), s.getPaidOrders(), s.getRefundedOrders(),
+                        s.getGross(), s.getPlatformFees(), s.getPayouts(), s.getUpdatedAt(), listings))
+                .orElseGet(() -> new SellerDashboard(0, 0, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, null, listings));
+    }
+}
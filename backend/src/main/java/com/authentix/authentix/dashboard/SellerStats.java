@@ -0,0 +1,46 @@
+package com.authentix.authentix.dashboard;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/** A seller's running totals. Order sums cover orders currently PAID; refunds are subtracted. */
+@Entity
+@Table(name = "seller_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+public class SellerStats {
+
+    @Id
+    @Column(name = "seller_id")
+    private Long sellerId;
+
+    @Column(name = "active_listings", nullable = false)
+    private int activeListings;
+
+    @Column(name = "sold_listings", nullable = false)
+    private int soldListings;
+
+    @Column(name = "paid_orders", nullable = false)
+    private int paidOrders;
+
+    @Column(name = "refunded_orders", nullable = false)
+    private int refundedOrders;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal gross = BigDecimal.ZERO;
+
+    @Column(name = "platform_fees", nullable = false, precision = 19, scale = 2)
+    private BigDecimal platformFees = BigDecimal.ZERO;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal payouts = BigDecimal.ZERO;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
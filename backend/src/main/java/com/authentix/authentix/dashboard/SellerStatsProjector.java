@@ -0,0 +1,101 @@
+package com.authentix.authentix.dashboard;
+
+import com.authentix.authentix.entity.ListingStatus;
+import com.authentix.authentix.outbox.DomainEvent;
+import com.authentix.authentix.outbox.DomainEventSubscriber;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Keeps {@code seller_stats} and {@code listing_stats} up to date from outbox events. Writes commit
+ * together with the event's delivery mark, so each event is counted exactly once.
+ */
+@Component
+@RequiredArgsConstructor
+public class SellerStatsProjector implements DomainEventSubscriber {
+
+    private final SellerStatsRepository sellerStatsRepository;
+    private final ListingStatsRepository listingStatsRepository;
+
+    @Override
+    public void handle(DomainEvent event) {
+        JsonNode payload = event.payload();
+        switch (event.type()) {
+            case DomainEvent.LISTING_STATUS_CHANGED -> onStatusChanged(payload);
+            case DomainEvent.ORDER_PAID -> onOrder(payload, 1);
+            case DomainEvent.ORDER_REFUNDED -> onOrder(payload, -1);
+            case DomainEvent.LISTING_WATCHERS_CHANGED -> onWatchersChanged(payload);
+            default -> { }
+        }
+    }
+
+    private void onStatusChanged(JsonNode payload) {
+        Long listingId = payload.get("listingId").asLong();
+        Long sellerId = payload.get("sellerId").asLong();
+        ListingStatus from = payload.get("from").isNull() ? null : ListingStatus.valueOf(payload.get("from").asString());
+        ListingStatus to = ListingStatus.valueOf(payload.get("to").asString());
+
+        int active = count(to, ListingStatus.ACTIVE) - count(from, ListingStatus.ACTIVE);
+        int sold = count(to, ListingStatus.SOLD) - count(from, ListingStatus.SOLD);
+        if (active != 0 || sold != 0) {
+            add(sellerId, active, sold, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+        }
+
+        if (to == ListingStatus.REMOVED) {
+            listingStatsRepository.deleteById(listingId);
+            return;
+        }
+        ListingStats stats = listingStatsRepository.findById(listingId).orElseGet(() -> {
+            ListingStats created = new ListingStats();
+            created.setListingId(listingId);
+            created.setSellerId(sellerId);
+            created.setWatchers(listingStatsRepository.countWatchers(listingId));
+            return created;
+        });
+        stats.setStatus(to);
+        listingStatsRepository.save(stats);
+    }
+
+    /** sign 1 for a payment, -1 for a refund of a paid order. */
+    private void onOrder(JsonNode payload, int sign) {
+        BigDecimal factor = BigDecimal.valueOf(sign);
+        add(payload.get("sellerId").asLong(), 0, 0, sign, sign < 0 ? 1 : 0,
+                new BigDecimal(payload.get("amount").asString()).multiply(factor),
+                new BigDecimal(payload.get("platformFee").asString()).multiply(factor),
+                new BigDecimal(payload.get("sellerPayout").asString()).multiply(factor));
+    }
+
+    /** Recounted rather than incremented: one user can watch a listing from several places. */
+    private void onWatchersChanged(JsonNode payload) {
+        Long listingId = payload.get("listingId").asLong();
+        listingStatsRepository.findById(listingId)
+                .ifPresent(stats -> stats.setWatchers(listingStatsRepository.countWatchers(listingId)));
+    }
+
+    private void add(Long sellerId, int active, int sold, int paid, int refunded,
+                     BigDecimal gross, BigDecimal platformFees, BigDecimal payouts) {
+        Instant now = Instant.now();
+        if (sellerStatsRepository.addDeltas(sellerId, active, sold, paid, refunded, gross, platformFees, payouts, now) > 0) return;
+        // First event for this seller. If another instance inserts the row concurrently, this delivery
+        // fails on the primary key and its retry takes the update path.
+        SellerStats stats = new SellerStats();
+        stats.setSellerId(sellerId);
+        stats.setActiveListings(active);
+        stats.setSoldListings(sold);
+        stats.setPaidOrders(paid);
+        stats.setRefundedOrders(refunded);
+        stats.setGross(gross);
+        stats.setPlatformFees(platformFees);
+        stats.setPayouts(payouts);
+        stats.setUpdatedAt(now);
+        sellerStatsRepository.save(stats);
+    }
+
+    private static int count(ListingStatus status, ListingStatus counted) {
+        return status == counted ? 1 : 0;
+    }
+}
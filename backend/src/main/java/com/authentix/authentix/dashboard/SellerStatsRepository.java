@@ -0,0 +1,23 @@
+package com.authentix.authentix.dashboard;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public interface SellerStatsRepository extends JpaRepository<SellerStats, Long> {
+
+    /** Adds the deltas in place, so concurrent deliveries for one seller never lose an update; 0 if there is no row yet. */
+    @Modifying
+    @Query("update SellerStats s set s.activeListings = s.activeListings + :active, s.soldListings = s.soldListings + :sold,"
+            + " s.paidOrders = s.paidOrders + :paid, s.refundedOrders = s.refundedOrders + :refunded,"
+            + " s.gross = s.gross + :gross, s.platformFees = s.platformFees + :platformFees, s.payouts = s.payouts + :payouts,"
+            + " s.updatedAt = :now where s.sellerId = :sellerId")
+    int addDeltas(@Param("sellerId") Long sellerId, @Param("active") int active, @Param("sold") int sold,
+                  @Param("paid") int paid, @Param("refunded") int refunded, @Param("gross") BigDecimal gross,
+                  @Param("platformFees") BigDecimal platformFees, @Param("payouts") BigDecimal payouts,
+                  @Param("now") Instant now);
+}
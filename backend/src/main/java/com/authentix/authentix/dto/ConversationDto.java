@@ -0,0 +1,19 @@
+package com.authentix.authentix.dto;
+
+import java.time.Instant;
+
+/** Inbox row: one thread with its latest message and the viewer's unread count; filled by a projection query. */
+public record ConversationDto(
+    Long id,
+    Long listingId,
+    String listingTitle,
+    String listingImage,
+    Long counterpartId,
+    String counterpartDisplayName,
+    String counterpartProfilePhotoUrl,
+    Long lastMessageId,
+    String lastMessageBody,
+    Long lastMessageSenderId,
+    Instant lastMessageAt,
+    int unreadCount
+) {}
@@ -0,0 +1,13 @@
+package com.authentix.authentix.dto;
+
+import java.util.List;
+
+/**
+ * One page of conversations, most recently active first. {@code nextCursor} uses the same opaque
+ * (timestamp, id) format as {@link ListingCursor}; pass it back as {@code cursor} to continue.
+ */
+public record ConversationPage(
+    List<ConversationDto> content,
+    String nextCursor,
+    boolean hasNext
+) {}
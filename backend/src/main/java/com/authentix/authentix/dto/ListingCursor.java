@@ -0,0 +1,34 @@
+package com.authentix.authentix.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position in the newest-first listing feed: the (createdAt, id) of the last row a client has seen.
+ * Serialized as an opaque URL-safe token so clients never build or parse it themselves.
+ */
+public record ListingCursor(Instant createdAt, Long id) {
+
+    /** Sorts before every real listing, i.e. the start of the feed. */
+    public static final ListingCursor START = new ListingCursor(Instant.parse("9999-12-31T23:59:59Z"), Long.MAX_VALUE);
+
+    public String encode() {
+        String raw = createdAt.toString() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Decodes a token from {@link #encode()}; a blank token means the start of the feed. */
+    public static ListingCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new ListingCursor(Instant.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
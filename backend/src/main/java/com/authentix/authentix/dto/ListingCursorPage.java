@@ -0,0 +1,10 @@
+package com.authentix.authentix.dto;
+
+import java.util.List;
+
+/** One page of the cursor-mode feed; pass {@code nextCursor} back as {@code cursor} to continue. */
+public record ListingCursorPage(
+    List<ListingDto> content,
+    String nextCursor,
+    boolean hasNext
+) {}
@@ -29,6 +29,8 @@ public class ListingDto {
     private String sellerProfilePhotoUrl;
     private boolean sellerPayoutsEnabled;
     private Instant createdAt;
+    /** Miles from the searched ZIP; only set by the nearby feed. */
+    private Double distanceMiles;
 
     public static ListingDto fromEntity(Listing listing) {
         ListingDto dto = new ListingDto();
@@ -52,4 +54,27 @@ public class ListingDto {
         dto.setCreatedAt(listing.getCreatedAt());
         return dto;
     }
+
+    /** Feed card: no description and only the cover image. */
+    public static ListingDto fromSummary(ListingSummary s) {
+        ListingDto dto = new ListingDto();
+        dto.setId(s.id());
+        dto.setCategoryId(s.categoryId());
+        dto.setCategoryName(s.categoryName());
+        dto.setTitle(s.title());
+        dto.setPrice(s.price());
+        dto.setCondition(s.condition());
+        dto.setImages(s.firstImage() != null ? List.of(s.firstImage()) : List.of());
+        dto.setStatus(s.status());
+        dto.setShippingOption(s.shippingOption());
+        dto.setZipCode(s.zipCode());
+        dto.setCity(s.city());
+        dto.setState(s.state());
+        dto.setSellerId(s.sellerId());
+        dto.setSellerDisplayName(s.sellerDisplayName());
+        dto.setSellerProfilePhotoUrl(s.sellerProfilePhotoUrl());
+        dto.setSellerPayoutsEnabled(s.sellerStripeConnectAccountId() != null && !s.sellerStripeConnectAccountId().isBlank());
+        dto.setCreatedAt(s.createdAt());
+        return dto;
+    }
 }
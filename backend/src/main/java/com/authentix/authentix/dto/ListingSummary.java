@@ -0,0 +1,32 @@
+package com.authentix.authentix.dto;
+
+import com.authentix.authentix.entity.ListingStatus;
+import com.authentix.authentix.entity.ShippingOption;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Flat read model for listing feeds, filled by a single JPQL constructor expression in
+ * {@link com.authentix.authentix.repository.ListingRepository} (listing + category + seller + first image),
+ * so feed pages never hydrate Listing/User/Category entities.
+ */
+public record ListingSummary(
+    Long id,
+    Long categoryId,
+    String categoryName,
+    String title,
+    BigDecimal price,
+    String condition,
+    String firstImage,
+    ListingStatus status,
+    ShippingOption shippingOption,
+    String zipCode,
+    String city,
+    String state,
+    Long sellerId,
+    String sellerDisplayName,
+    String sellerProfilePhotoUrl,
+    String sellerStripeConnectAccountId,
+    Instant createdAt
+) {}
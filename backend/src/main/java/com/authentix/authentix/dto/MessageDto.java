@@ -15,6 +15,7 @@ public class MessageDto {
     private Long receiverId;
     private String body;
     private boolean read;
+    private boolean archived;
     private Instant createdAt;
 
     public static MessageDto fromEntity(Message m) {
@@ -27,6 +28,7 @@ public class MessageDto {
         dto.setReceiverId(m.getReceiver().getId());
         dto.setBody(m.getBody());
         dto.setRead(m.isRead());
+        dto.setArchived(m.isArchived());
         dto.setCreatedAt(m.getCreatedAt());
         return dto;
     }
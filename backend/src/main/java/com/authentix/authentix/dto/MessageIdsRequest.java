@@ -0,0 +1,14 @@
+package com.authentix.authentix.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MessageIdsRequest {
+    @NotEmpty
+    @Size(max = 500)
+    private List<Long> ids;
+}
@@ -0,0 +1,70 @@
+package com.authentix.authentix.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * One participant's view of a message thread about a listing with one counterpart. Maintained by
+ * MessageService on send and mark-read; the inbox reads only this table plus the latest message.
+ */
+@Entity
+@Table(name = "conversations",
+    uniqueConstraints = @UniqueConstraint(name = "uq_conversations_owner_listing_counterpart",
+            columnNames = {"owner_id", "listing_id", "counterpart_id"}),
+    indexes = {
+        @Index(name = "idx_conversations_owner_last_message", columnList = "owner_id, last_message_at, id"),
+        @Index(name = "idx_conversations_owner_unread", columnList = "owner_id, unread_count")
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Conversation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id", nullable = false)
+    private User owner;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "listing_id", nullable = false)
+    private Listing listing;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "counterpart_id", nullable = false)
+    private User counterpart;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_message_id", nullable = false)
+    private Message lastMessage;
+
+    @Column(name = "last_message_at", nullable = false)
+    private Instant lastMessageAt;
+
+    @Column(name = "unread_count", nullable = false)
+    private int unreadCount;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @PrePersist
+    void onCreate() {
+        Instant now = Instant.now();
+        if (createdAt == null) createdAt = now;
+        updatedAt = now;
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        updatedAt = Instant.now();
+    }
+}
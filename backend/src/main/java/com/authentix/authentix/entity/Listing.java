@@ -13,7 +13,8 @@ import java.util.List;
     @Index(columnList = "status"),
     @Index(columnList = "category_id"),
     @Index(columnList = "seller_id"),
-    @Index(columnList = "created_at")
+    @Index(columnList = "created_at"),
+    @Index(name = "idx_listings_status_created_at_id", columnList = "status, created_at, id")
 })
 @Getter
 @Setter
@@ -70,6 +71,18 @@ public class Listing {
     @Column(name = "state", length = 100)
     private String state;
 
+    /** Bumped by every update, including hold claims, so a stale copy cannot overwrite a newer row. */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    /** Buyer with a checkout in progress, until heldUntil; see ListingHoldService. */
+    @Column(name = "held_by_user_id")
+    private Long heldByUserId;
+
+    @Column(name = "held_until")
+    private Instant heldUntil;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
@@ -9,7 +9,8 @@ import java.time.Instant;
 @Table(name = "messages", indexes = {
     @Index(columnList = "listing_id"),
     @Index(columnList = "receiver_id"),
-    @Index(columnList = "created_at")
+    @Index(columnList = "created_at"),
+    @Index(name = "idx_messages_receiver_id_id", columnList = "receiver_id, id")
 })
 @Getter
 @Setter
@@ -40,6 +41,14 @@ public class Message {
     @Column(name = "is_read", nullable = false)
     private boolean read;
 
+    /** Hidden from the receiver's inbox but still shown in the thread. */
+    @Column(name = "is_archived", nullable = false)
+    private boolean archived;
+
+    /** Deleted by the receiver; hidden from them everywhere and not counted as unread. */
+    @Column(name = "is_deleted", nullable = false)
+    private boolean deleted;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
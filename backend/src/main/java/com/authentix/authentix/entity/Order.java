@@ -7,12 +7,14 @@ import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
-@Table(name = "orders", indexes = {
-    @Index(columnList = "buyer_id"),
-    @Index(columnList = "listing_id"),
-    @Index(columnList = "stripe_payment_intent_id", unique = true),
-    @Index(columnList = "status")
-})
+@Table(name = "orders",
+    uniqueConstraints = @UniqueConstraint(name = "uk_orders_payment_intent_listing",
+            columnNames = {"stripe_payment_intent_id", "listing_id"}),
+    indexes = {
+        @Index(columnList = "buyer_id"),
+        @Index(columnList = "listing_id"),
+        @Index(columnList = "status")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -32,7 +34,8 @@ public class Order {
     @JoinColumn(name = "listing_id", nullable = false)
     private Listing listing;
 
-    @Column(name = "stripe_payment_intent_id", nullable = false, unique = true)
+    /** Shared by every order paid with the same PaymentIntent (one per seller in a cart checkout). */
+    @Column(name = "stripe_payment_intent_id", nullable = false)
     private String stripePaymentIntentId;
 
     @Column(nullable = false, precision = 19, scale = 2)
@@ -4,5 +4,6 @@ public enum OrderStatus {
     PENDING,   // PaymentIntent created, awaiting payment
     PAID,      // payment_intent.succeeded received
     FAILED,
-    REFUNDED
+    REFUNDED,
+    OVERSOLD   // paid after the listing went to another buyer; the payment has to be refunded
 }
@@ -0,0 +1,23 @@
+package com.authentix.authentix.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/** Single-row replication heartbeat; maintained with plain SQL by ReplicaLagMonitor. */
+@Entity
+@Table(name = "replication_heartbeat")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReplicationHeartbeat {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "beat_at", nullable = false)
+    private Instant beatAt;
+}
@@ -0,0 +1,39 @@
+package com.authentix.authentix.geo;
+
+import com.authentix.authentix.entity.ListingStatus;
+import com.authentix.authentix.repository.ListingRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/** Builds the geo index from MySQL at startup, reading ACTIVE listings in id-ordered batches. */
+@Component
+@RequiredArgsConstructor
+public class GeoIndexLoader implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(GeoIndexLoader.class);
+    private static final int BATCH_SIZE = 5000;
+
+    private final ListingRepository listingRepository;
+    private final ListingGeoIndex index;
+    private final NearbyListingService nearbyListingService;
+
+    @Override
+    public void run(String... args) {
+        long start = System.nanoTime();
+        index.clear();
+        long afterId = 0;
+        while (true) {
+            List<ListingLocation> batch = listingRepository.findListingLocations(ListingStatus.ACTIVE, afterId, PageRequest.of(0, BATCH_SIZE));
+            batch.forEach(l -> nearbyListingService.index(l.id(), l.zipCode(), l.createdAt()));
+            if (batch.size() < BATCH_SIZE) break;
+            afterId = batch.get(batch.size() - 1).id();
+        }
+        log.info("Geo index built: {} listings in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,16 @@
+package com.authentix.authentix.geo;
+
+/** A WGS84 coordinate in decimal degrees. */
+public record GeoPoint(double lat, double lon) {
+
+    private static final double EARTH_RADIUS_MILES = 3958.8;
+
+    /** Great-circle (haversine) distance in miles. */
+    public double distanceMiles(GeoPoint other) {
+        double dLat = Math.toRadians(other.lat - lat);
+        double dLon = Math.toRadians(other.lon - lon);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat)) * Math.cos(Math.toRadians(other.lat)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_MILES * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
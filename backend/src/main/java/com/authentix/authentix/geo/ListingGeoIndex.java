@@ -0,0 +1,154 @@
+package com.authentix.authentix.geo;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Spatial index over ACTIVE listings. Listings are located by ZIP centroid, so they are grouped per
+ * ZIP (newest first) and the ZIPs are bucketed into a fixed lat/lon grid. A radius query only visits
+ * the grid cells overlapping the search box, sorts the matching ZIPs by distance and takes listings
+ * from the nearest ZIPs until the limit is reached, so its cost depends on the number of nearby ZIPs,
+ * not on the number of listings.
+ */
+@Component
+public class ListingGeoIndex {
+
+    /** Grid cell size in degrees (~35 miles of latitude). */
+    private static final double CELL_DEGREES = 0.5;
+    private static final double MILES_PER_DEGREE_LAT = 69.0;
+
+    private static final Comparator<Entry> NEWEST_FIRST =
+            Comparator.comparing(Entry::createdAt).thenComparing(Entry::id).reversed();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, List<ZipBucket>> cells = new HashMap<>();
+    private final Map<String, ZipBucket> zips = new HashMap<>();
+    private final Map<Long, Entry> listings = new HashMap<>();
+
+    private record Entry(Long id, String zip, Instant createdAt) {}
+
+    private static final class ZipBucket {
+        final String zip;
+        final GeoPoint point;
+        final NavigableSet<Entry> entries = new TreeSet<>(NEWEST_FIRST);
+
+        ZipBucket(String zip, GeoPoint point) {
+            this.zip = zip;
+            this.point = point;
+        }
+    }
+
+    /** Adds or moves a listing. */
+    public void put(Long listingId, String zip, GeoPoint point, Instant createdAt) {
+        Entry entry = new Entry(listingId, zip, createdAt != null ? createdAt : Instant.EPOCH);
+        lock.writeLock().lock();
+        try {
+            removeInternal(listingId);
+            addInternal(entry, point);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long listingId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(listingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            zips.clear();
+            listings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return listings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Up to limit listings within radiusMiles of origin, nearest first (newest first within a ZIP). */
+    public List<NearbyHit> within(GeoPoint origin, double radiusMiles, int limit) {
+        double dLat = radiusMiles / MILES_PER_DEGREE_LAT;
+        double dLon = radiusMiles / (MILES_PER_DEGREE_LAT * Math.max(0.01, Math.cos(Math.toRadians(origin.lat()))));
+        int minLatCell = cell(origin.lat() - dLat);
+        int maxLatCell = cell(origin.lat() + dLat);
+        int minLonCell = cell(origin.lon() - dLon);
+        int maxLonCell = cell(origin.lon() + dLon);
+
+        lock.readLock().lock();
+        try {
+            List<Map.Entry<ZipBucket, Double>> inRange = new ArrayList<>();
+            for (int latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+                for (int lonCell = minLonCell; lonCell <= maxLonCell; lonCell++) {
+                    List<ZipBucket> buckets = cells.get(key(latCell, lonCell));
+                    if (buckets == null) continue;
+                    for (ZipBucket bucket : buckets) {
+                        double distance = origin.distanceMiles(bucket.point);
+                        if (distance <= radiusMiles) inRange.add(Map.entry(bucket, distance));
+                    }
+                }
+            }
+            inRange.sort(Map.Entry.comparingByValue());
+            List<NearbyHit> hits = new ArrayList<>(Math.min(limit, listings.size()));
+            for (Map.Entry<ZipBucket, Double> e : inRange) {
+                for (Entry entry : e.getKey().entries) {
+                    if (hits.size() >= limit) return hits;
+                    hits.add(new NearbyHit(entry.id(), e.getValue()));
+                }
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addInternal(Entry entry, GeoPoint point) {
+        ZipBucket bucket = zips.get(entry.zip());
+        if (bucket == null) {
+            bucket = new ZipBucket(entry.zip(), point);
+            zips.put(entry.zip(), bucket);
+            cells.computeIfAbsent(key(cell(point.lat()), cell(point.lon())), k -> new ArrayList<>()).add(bucket);
+        }
+        bucket.entries.add(entry);
+        listings.put(entry.id(), entry);
+    }
+
+    private void removeInternal(Long listingId) {
+        Entry old = listings.remove(listingId);
+        if (old == null) return;
+        ZipBucket bucket = zips.get(old.zip());
+        bucket.entries.remove(old);
+        if (bucket.entries.isEmpty()) {
+            zips.remove(bucket.zip);
+            long k = key(cell(bucket.point.lat()), cell(bucket.point.lon()));
+            List<ZipBucket> buckets = cells.get(k);
+            buckets.remove(bucket);
+            if (buckets.isEmpty()) cells.remove(k);
+        }
+    }
+
+    private static int cell(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long key(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+}
@@ -0,0 +1,6 @@
+package com.authentix.authentix.geo;
+
+import java.time.Instant;
+
+/** The fields of an ACTIVE listing that the geo index needs; filled by a projection query. */
+public record ListingLocation(Long id, String zipCode, Instant createdAt) {}
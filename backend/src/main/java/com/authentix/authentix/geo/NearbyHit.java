@@ -0,0 +1,3 @@
+package com.authentix.authentix.geo;
+
+public record NearbyHit(Long listingId, double distanceMiles) {}
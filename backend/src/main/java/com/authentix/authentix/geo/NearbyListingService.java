@@ -0,0 +1,69 @@
+package com.authentix.authentix.geo;
+
+import com.authentix.authentix.dto.ListingDto;
+import com.authentix.authentix.dto.ListingSummary;
+import com.authentix.authentix.entity.ListingStatus;
+import com.authentix.authentix.repository.ListingRepository;
+import com.authentix.authentix.service.ListingChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class NearbyListingService {
+
+    private final ListingGeoIndex index;
+    private final ZipCentroids zipCentroids;
+    private final ListingRepository listingRepository;
+
+    /**
+     * ACTIVE listings within radiusMiles of the ZIP's centroid, nearest first, each carrying its distance.
+     * Empty when the ZIP is not in the centroid dataset.
+     */
+    public Optional<List<ListingDto>> within(String zipCode, double radiusMiles, int limit) {
+        Optional<GeoPoint> origin = zipCentroids.lookup(zipCode);
+        if (origin.isEmpty()) {
+            return Optional.empty();
+        }
+        List<NearbyHit> hits = index.within(origin.get(), radiusMiles, limit);
+        if (hits.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        Map<Long, ListingSummary> byId = listingRepository.findSummariesByIdIn(hits.stream().map(NearbyHit::listingId).toList())
+                .stream()
+                .collect(Collectors.toMap(ListingSummary::id, Function.identity()));
+        return Optional.of(hits.stream()
+                .filter(h -> byId.containsKey(h.listingId()) && byId.get(h.listingId()).status() == ListingStatus.ACTIVE)
+                .map(h -> {
+                    ListingDto dto = ListingDto.fromSummary(byId.get(h.listingId()));
+                    dto.setDistanceMiles(Math.round(h.distanceMiles() * 10) / 10.0);
+                    return dto;
+                })
+                .toList());
+    }
+
+    /** Keeps the index in step with listing status and ZIP changes once the transaction commits. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        index(event.id(), event.isActive() ? event.zipCode() : null, event.createdAt());
+    }
+
+    /** Indexes a listing at its ZIP's centroid; listings without a known ZIP are left out. */
+    void index(Long listingId, String zipCode, Instant createdAt) {
+        String zip = ZipCentroids.normalize(zipCode);
+        Optional<GeoPoint> point = zip != null ? zipCentroids.lookup(zip) : Optional.empty();
+        if (point.isPresent()) {
+            index.put(listingId, zip, point.get(), createdAt);
+        } else {
+            index.remove(listingId);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.authentix.authentix.geo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * ZIP code to centroid lookup, loaded once into memory from an offline dataset. Reads either the
+ * bundled "zip,lat,lon" CSV or the Census ZCTA Gazetteer file (tab-separated, GEOID header) as-is.
+ */
+@Component
+public class ZipCentroids {
+
+    private static final Logger log = LoggerFactory.getLogger(ZipCentroids.class);
+
+    private final Map<String, GeoPoint> centroids;
+
+    public ZipCentroids(ResourceLoader resourceLoader,
+                        @Value("${app.geo.zip-centroids:classpath:geo/us-zip-centroids.csv}") String location) {
+        this.centroids = load(resourceLoader.getResource(location));
+        log.info("Loaded {} ZIP centroids from {}", centroids.size(), location);
+    }
+
+    /** Centroid for a ZIP or ZIP+4; empty when the ZIP is not in the dataset. */
+    public Optional<GeoPoint> lookup(String zipCode) {
+        String zip = normalize(zipCode);
+        return zip != null ? Optional.ofNullable(centroids.get(zip)) : Optional.empty();
+    }
+
+    public int size() {
+        return centroids.size();
+    }
+
+    /** First five digits of a ZIP or ZIP+4, or null if it does not start with five digits. */
+    public static String normalize(String zipCode) {
+        if (zipCode == null) return null;
+        String zip = zipCode.trim();
+        if (zip.length() < 5) return null;
+        for (int i = 0; i < 5; i++) {
+            if (!Character.isDigit(zip.charAt(i))) return null;
+        }
+        return zip.substring(0, 5);
+    }
+
+    private static Map<String, GeoPoint> load(Resource resource) {
+        Map<String, GeoPoint> result = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            boolean gazetteer = false;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                if (line.startsWith("GEOID")) {
+                    gazetteer = true;
+                    continue;
+                }
+                String[] cols = gazetteer ? line.split("\t") : line.split(",");
+                int latCol = gazetteer ? 5 : 1;
+                int lonCol = gazetteer ? 6 : 2;
+                if (cols.length <= lonCol) continue;
+                String zip = normalize(cols[0]);
+                if (zip == null) continue;
+                try {
+                    result.put(zip, new GeoPoint(Double.parseDouble(cols[latCol].trim()), Double.parseDouble(cols[lonCol].trim())));
+                } catch (NumberFormatException e) {
+                    log.warn("Skipping malformed ZIP centroid row: {}", line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read ZIP centroids from " + resource, e);
+        }
+        return Map.copyOf(result);
+    }
+}
@@ -0,0 +1,177 @@
+package com.authentix.authentix.httpcache;
+
+import com.authentix.authentix.service.CategoriesChangedEvent;
+import com.authentix.authentix.service.ListingChangedEvent;
+import com.authentix.authentix.service.UserProfileChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Serialized responses of public GET endpoints, bounded by total body bytes. Entries live in lock
+ * stripes keyed by the normalized request, each stripe an access-ordered LRU with its share of the
+ * byte budget.
+ *
+ * Each entry depends on a few tags ("listings", "listing:42", "user:7", ...). A tag's version is
+ * bumped after a committed change to what it covers, which makes every entry filled under the old
+ * version stale. Versions live in a fixed array indexed by tag hash, so memory does not grow with the
+ * number of listings; a collision only costs an extra miss. Entries also expire after {@code ttl},
+ * which bounds staleness from changes this process does not see (other instances, manual SQL).
+ */
+@Component
+public class ResponseCache {
+
+    public static final String LISTINGS = "listings";
+    public static final String PROFILES = "profiles";
+    public static final String CATEGORIES = "categories";
+
+    private static final int STRIPES = 16;
+    private static final int TAG_SLOTS = 4096;
+
+    /** A cached 200 response and the tag versions it was computed under. */
+    record Entry(byte[] body, String contentType, String etag, int[] slots, long[] versions, long expiresAtMillis) {
+        int weight() {
+            return body.length + 128;
+        }
+    }
+
+    /** Tag versions read before computing a response; pass to {@link #put} so racing changes win. */
+    record Stamp(int[] slots, long[] versions) {}
+
+    private final AtomicLongArray tagVersions = new AtomicLongArray(TAG_SLOTS);
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long stripeBudget;
+    private final long ttlMillis;
+
+    private static final class Stripe {
+        final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        long bytes;
+    }
+
+    public ResponseCache(@Value("${app.http-cache.max-bytes:32MB}") DataSize maxBytes,
+                         @Value("${app.http-cache.ttl:60s}") Duration ttl) {
+        this.stripeBudget = maxBytes.toBytes() / STRIPES;
+        this.ttlMillis = ttl.toMillis();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public static String listing(Long id) {
+        return "listing:" + id;
+    }
+
+    public static String user(Long id) {
+        return "user:" + id;
+    }
+
+    Stamp stamp(List<String> tags) {
+        int[] slots = new int[tags.size()];
+        long[] versions = new long[tags.size()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = slot(tags.get(i));
+            versions[i] = tagVersions.get(slots[i]);
+        }
+        return new Stamp(slots, versions);
+    }
+
+    /** The entry for key if it is still current; stale and expired entries are dropped. */
+    Entry get(String key) {
+        Stripe stripe = stripe(key);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(key);
+            if (entry == null) return null;
+            if (isCurrent(entry)) return entry;
+            stripe.entries.remove(key);
+            stripe.bytes -= entry.weight();
+            return null;
+        }
+    }
+
+    /** Stores a response unless it is larger than a stripe's budget or already stale. */
+    Entry put(String key, byte[] body, String contentType, String etag, Stamp stamp) {
+        Entry entry = new Entry(body, contentType, etag, stamp.slots(), stamp.versions(),
+                System.currentTimeMillis() + ttlMillis);
+        if (entry.weight() > stripeBudget || !isCurrent(entry)) return entry;
+        Stripe stripe = stripe(key);
+        synchronized (stripe) {
+            Entry previous = stripe.entries.put(key, entry);
+            if (previous != null) stripe.bytes -= previous.weight();
+            stripe.bytes += entry.weight();
+            Iterator<Entry> it = stripe.entries.values().iterator();
+            while (stripe.bytes > stripeBudget && it.hasNext()) {
+                Entry eldest = it.next();
+                it.remove();
+                stripe.bytes -= eldest.weight();
+            }
+        }
+        return entry;
+    }
+
+    /** Makes every entry that depends on tag stale. */
+    public void invalidate(String tag) {
+        tagVersions.incrementAndGet(slot(tag));
+    }
+
+    public long bytes() {
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                bytes += stripe.bytes;
+            }
+        }
+        return bytes;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.entries.size();
+            }
+        }
+        return size;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        invalidate(listing(event.id()));
+        invalidate(LISTINGS);
+    }
+
+    /** Listing responses embed the seller's name, photo and payout status, so they go stale too. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        invalidate(user(event.userId()));
+        invalidate(PROFILES);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoriesChanged(CategoriesChangedEvent event) {
+        invalidate(CATEGORIES);
+    }
+
+    private boolean isCurrent(Entry entry) {
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) return false;
+        for (int i = 0; i < entry.slots().length; i++) {
+            if (tagVersions.get(entry.slots()[i]) != entry.versions()[i]) return false;
+        }
+        return true;
+    }
+
+    private Stripe stripe(String key) {
+        return stripes[Math.floorMod(key.hashCode() * 0x9E3779B9, STRIPES)];
+    }
+
+    private static int slot(String tag) {
+        return Math.floorMod(tag.hashCode() * 0x9E3779B9, TAG_SLOTS);
+    }
+}
@@ -0,0 +1,155 @@
+package com.authentix.authentix.httpcache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves the public read endpoints (feed, listing detail, category list, user profile) from
+ * {@link ResponseCache} and answers conditional GETs. Every response carries a weak ETag, a hash of
+ * its body, and {@code Cache-Control: public, no-cache}, so browsers and CDNs may store it but must
+ * revalidate; a matching {@code If-None-Match} gets a bodyless 304.
+ *
+ * Runs after the security chain, so CORS headers are already on the response. The responses do not
+ * depend on who is asking.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final Pattern LISTING = Pattern.compile("/api/listings/(\\d+)");
+    private static final Pattern USER = Pattern.compile("/api/users/(\\d+)");
+    private static final String CACHE_CONTROL = "public, no-cache";
+
+    private final ResponseCache cache;
+
+    /** Cache key without the query string, and the tags the response depends on. */
+    private record Route(String path, List<String> tags) {}
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || route(request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        Route route = route(request.getRequestURI());
+        String key = route.path() + normalizedQuery(request.getParameterMap());
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+
+        ResponseCache.Entry entry = cache.get(key);
+        if (entry != null) {
+            if (matches(ifNoneMatch, entry.etag())) {
+                notModified(response, entry.etag());
+            } else {
+                response.setStatus(HttpServletResponse.SC_OK);
+                response.setContentType(entry.contentType());
+                response.setHeader(HttpHeaders.ETAG, entry.etag());
+                response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+                response.setContentLength(entry.body().length);
+                response.getOutputStream().write(entry.body());
+            }
+            return;
+        }
+
+        ResponseCache.Stamp stamp = cache.stamp(route.tags());
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || wrapper.containsHeader(HttpHeaders.SET_COOKIE)) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        byte[] body = wrapper.getContentAsByteArray();
+        String etag = etag(body);
+        cache.put(key, body, wrapper.getContentType(), etag, stamp);
+        if (matches(ifNoneMatch, etag)) {
+            notModified(response, etag);
+            return;
+        }
+        wrapper.setHeader(HttpHeaders.ETAG, etag);
+        wrapper.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        wrapper.copyBodyToResponse();
+    }
+
+    private static Route route(String path) {
+        if (path.equals("/api/listings")) {
+            return new Route(path, List.of(ResponseCache.LISTINGS, ResponseCache.PROFILES));
+        }
+        if (path.equals("/api/categories")) {
+            return new Route(path, List.of(ResponseCache.CATEGORIES));
+        }
+        Matcher listing = LISTING.matcher(path);
+        if (listing.matches()) {
+            return new Route(path, List.of(ResponseCache.listing(Long.valueOf(listing.group(1))), ResponseCache.PROFILES));
+        }
+        Matcher user = USER.matcher(path);
+        if (user.matches()) {
+            return new Route(path, List.of(ResponseCache.user(Long.valueOf(user.group(1)))));
+        }
+        return null;
+    }
+
+    /** Parameters sorted by name, blank values dropped, so equivalent URLs share an entry. */
+    static String normalizedQuery(Map<String, String[]> parameters) {
+        StringBuilder query = new StringBuilder();
+        for (Map.Entry<String, String[]> param : new TreeMap<>(parameters).entrySet()) {
+            List<String> values = new ArrayList<>(Arrays.asList(param.getValue()));
+            values.removeIf(v -> v == null || v.isBlank());
+            values.sort(null);
+            for (String value : values) {
+                query.append(query.isEmpty() ? '?' : '&').append(param.getKey()).append('=').append(value.trim());
+            }
+        }
+        return query.toString();
+    }
+
+    /** Weak comparison against an If-None-Match list, as RFC 9110 requires for GET. */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) return true;
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(opaque)) return true;
+        }
+        return false;
+    }
+
+    private static void notModified(HttpServletResponse response, String etag) {
+        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "W/\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.authentix.authentix.image;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-time migration of inline data-URL images (listing images and profile photos) into the
+ * {@link ImageStore}. Rows are rewritten one at a time so the full base64 payloads are never
+ * held in memory together; once everything is converted the queries find nothing and it is a no-op.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImageBackfillRunner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageBackfillRunner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ImageService imageService;
+
+    @Value("${app.images.backfill-on-startup:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) return;
+
+        List<Map<String, Object>> imageKeys = jdbcTemplate.queryForList(
+                "SELECT listing_id, sort_order FROM listing_images WHERE url LIKE 'data:%'");
+        int listingImages = 0;
+        for (Map<String, Object> key : imageKeys) {
+            Object listingId = key.get("listing_id");
+            Object sortOrder = key.get("sort_order");
+            String url = jdbcTemplate.queryForObject(
+                    "SELECT url FROM listing_images WHERE listing_id = ? AND sort_order = ?", String.class, listingId, sortOrder);
+            String ref = convert(url);
+            if (ref != null) {
+                jdbcTemplate.update("UPDATE listing_images SET url = ? WHERE listing_id = ? AND sort_order = ?", ref, listingId, sortOrder);
+                listingImages++;
+            }
+        }
+
+        List<Long> userIds = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE profile_photo_url LIKE 'data:%'", Long.class);
+        int profilePhotos = 0;
+        for (Long userId : userIds) {
+            String url = jdbcTemplate.queryForObject("SELECT profile_photo_url FROM users WHERE id = ?", String.class, userId);
+            String ref = convert(url);
+            if (ref != null) {
+                jdbcTemplate.update("UPDATE users SET profile_photo_url = ? WHERE id = ?", ref, userId);
+                profilePhotos++;
+            }
+        }
+
+        if (listingImages > 0 || profilePhotos > 0) {
+            log.info("Moved {} listing image(s) and {} profile photo(s) into the image store", listingImages, profilePhotos);
+        }
+    }
+
+    private String convert(String url) {
+        try {
+            return imageService.toStoredRef(url);
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping unconvertible inline image: {}", e.getMessage());
+            return null;
+        }
+    }
+}
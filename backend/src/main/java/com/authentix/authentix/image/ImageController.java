@@ -0,0 +1,75 @@
+package com.authentix.authentix.image;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/images")
+@RequiredArgsConstructor
+public class ImageController {
+
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    // Tomcat's sendfile hand-off: when the connector supports it, it writes the named file to the socket
+    // itself (FileChannel.transferTo, so the bytes never enter the heap) after the handler returns.
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ImageService imageService;
+    private final ImageStore imageStore;
+
+    /** Upload one image (multipart field "file"); returns the reference to put in a listing's images. */
+    @PostMapping
+    public ResponseEntity<Map<String, String>> upload(@RequestParam("file") MultipartFile file) throws IOException {
+        return ResponseEntity.ok(Map.of("url", imageService.store(file.getBytes())));
+    }
+
+    /**
+     * Streams a stored image. Content never changes for a given hash, so the hash doubles as a strong
+     * ETag and the response may be cached forever. The body goes out through the connector's sendfile
+     * where available (plain HTTP on Tomcat); otherwise, e.g. over TLS, it is copied through the
+     * servlet output stream.
+     */
+    @GetMapping("/{hash}")
+    public void serve(@PathVariable String hash, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path path = imageStore.find(hash).orElse(null);
+        if (path == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String etag = "\"" + hash + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        long size;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            size = channel.size();
+            response.setContentType(ImageStore.detectContentType(channel));
+        }
+        response.setContentLengthLong(size);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+        Files.copy(path, response.getOutputStream());
+    }
+}
@@ -0,0 +1,73 @@
+package com.authentix.authentix.image;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Turns uploaded bytes and legacy data URLs into short image references ("/api/images/{sha256}")
+ * so listing rows and DTOs carry a ~75 byte key instead of the base64 image itself.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImageService {
+
+    public static final String URL_PREFIX = "/api/images/";
+
+    private final ImageStore imageStore;
+
+    @Value("${app.images.max-bytes:5242880}")
+    private long maxBytes;
+
+    /** Validates and stores raw image bytes, returning the public reference. */
+    public String store(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            throw new IllegalArgumentException("Image is empty");
+        }
+        if (bytes.length > maxBytes) {
+            throw new IllegalArgumentException("Image is too large (max " + (maxBytes / (1024 * 1024)) + " MB)");
+        }
+        if (ImageStore.detectContentType(bytes) == null) {
+            throw new IllegalArgumentException("Unsupported image type (use JPEG, PNG, GIF or WebP)");
+        }
+        return URL_PREFIX + imageStore.put(bytes);
+    }
+
+    /**
+     * Moves an inline data URL into the store and returns its reference; plain URLs and existing
+     * references are returned unchanged.
+     */
+    public String toStoredRef(String ref) {
+        if (ref == null) {
+            return null;
+        }
+        String trimmed = ref.trim();
+        if (!trimmed.startsWith("data:")) {
+            return trimmed;
+        }
+        int comma = trimmed.indexOf(',');
+        if (comma < 0 || !trimmed.substring(0, comma).endsWith(";base64")) {
+            throw new IllegalArgumentException("Unsupported image data URL");
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getMimeDecoder().decode(trimmed.substring(comma + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid image data URL");
+        }
+        return store(bytes);
+    }
+
+    public List<String> toStoredRefs(List<String> refs) {
+        if (refs == null) {
+            return null;
+        }
+        return refs.stream()
+                .filter(r -> r != null && !r.isBlank())
+                .map(this::toStoredRef)
+                .toList();
+    }
+}
@@ -0,0 +1,35 @@
+package com.authentix.authentix.invalidation;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/** A row of the invalidation log; written and read with plain SQL by {@link JdbcInvalidationTransport}. */
+@Entity
+@Table(name = "cache_invalidations",
+    indexes = @Index(name = "idx_cache_invalidations_created_at", columnList = "created_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class CacheInvalidation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Invalidation.Kind kind;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Column(nullable = false, length = 64)
+    private String origin;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
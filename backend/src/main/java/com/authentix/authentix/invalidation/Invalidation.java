@@ -0,0 +1,22 @@
+package com.authentix.authentix.invalidation;
+
+import java.time.Instant;
+
+/**
+ * A committed change that makes other nodes' cached copies stale. Carries only what changed, not the
+ * new state: receivers reload what they need from the database.
+ *
+ * @param entityId listing or user id (the cart's owner for {@link Kind#CART}, the watcher for {@link Kind#WATCH});
+ *                 null for {@link Kind#CATEGORIES}
+ * @param origin   id of the node that made the change
+ */
+public record Invalidation(Kind kind, Long entityId, String origin, Instant createdAt) {
+
+    public enum Kind {
+        LISTING,
+        USER,
+        CATEGORIES,
+        CART,
+        WATCH
+    }
+}
@@ -0,0 +1,142 @@
+package com.authentix.authentix.invalidation;
+
+import com.authentix.authentix.cart.CartStore;
+import com.authentix.authentix.cart.CartsWrittenEvent;
+import com.authentix.authentix.recommend.RecommendationEngine;
+import com.authentix.authentix.repository.ListingRepository;
+import com.authentix.authentix.service.CategoriesChangedEvent;
+import com.authentix.authentix.service.CategoryTree;
+import com.authentix.authentix.service.ListingChangedEvent;
+import com.authentix.authentix.service.UserProfileChangedEvent;
+import com.authentix.authentix.service.WatchChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Keeps in-process caches and indexes consistent across instances. Committed listing, profile and
+ * category changes are sent through the {@link InvalidationTransport}; changes from other nodes are
+ * replayed here as the same local events, so every listener (detail and response caches, search, geo
+ * and recommendation indexes, category tree) handles a remote change exactly like a local one.
+ *
+ * Listings are reloaded from the primary before replay, since their events carry a snapshot. Replayed
+ * events are not sent on again. Cart writes are sent too, and make the other nodes drop their copy of
+ * the cart (see {@link CartStore#invalidate}); watchlist changes make them re-read the watcher's
+ * co-watch edges (see {@link RecommendationEngine#resync}). Without a transport bean the bus does nothing.
+ */
+@Component
+public class InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private final InvalidationTransport transport;
+    private final ListingRepository listingRepository;
+    private final CategoryTree categoryTree;
+    private final CartStore cartStore;
+    private final RecommendationEngine recommendationEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId;
+    private final Timer propagation;
+    /** Set while replaying a remote change, so its local events are not published back out. */
+    private final ThreadLocal<Boolean> replaying = ThreadLocal.withInitial(() -> false);
+
+    public InvalidationBus(ObjectProvider<InvalidationTransport> transport, ListingRepository listingRepository,
+                           CategoryTree categoryTree, CartStore cartStore, RecommendationEngine recommendationEngine,
+                           ApplicationEventPublisher eventPublisher,
+                           ObjectProvider<MeterRegistry> meterRegistry,
+                           @Value("${app.invalidation.node-id:}") String nodeId) {
+        this.transport = transport.getIfAvailable();
+        this.listingRepository = listingRepository;
+        this.categoryTree = categoryTree;
+        this.cartStore = cartStore;
+        this.recommendationEngine = recommendationEngine;
+        this.eventPublisher = eventPublisher;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.propagation = Timer.builder("app.invalidation.propagation")
+                .description("Time from a change being published on one node to it being applied on another")
+                .register(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (transport != null) transport.start(this::apply);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (transport != null) transport.stop();
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        send(Invalidation.Kind.LISTING, event.id());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        send(Invalidation.Kind.USER, event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoriesChanged(CategoriesChangedEvent event) {
+        send(Invalidation.Kind.CATEGORIES, null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWatchChanged(WatchChangedEvent event) {
+        send(Invalidation.Kind.WATCH, event.userId());
+    }
+
+    @EventListener
+    public void onCartsWritten(CartsWrittenEvent event) {
+        event.userIds().forEach(userId -> send(Invalidation.Kind.CART, userId));
+    }
+
+    /** Replays another node's change as local events; our own changes come back too and are skipped. */
+    void apply(Invalidation invalidation) {
+        if (nodeId.equals(invalidation.origin())) return;
+        replaying.set(true);
+        try {
+            switch (invalidation.kind()) {
+                case LISTING -> listingRepository.findDetailById(invalidation.entityId())
+                        .ifPresent(listing -> eventPublisher.publishEvent(ListingChangedEvent.of(listing)));
+                case USER -> eventPublisher.publishEvent(new UserProfileChangedEvent(invalidation.entityId()));
+                case CATEGORIES -> {
+                    categoryTree.invalidate();
+                    eventPublisher.publishEvent(new CategoriesChangedEvent());
+                }
+                case CART -> cartStore.invalidate(invalidation.entityId());
+                case WATCH -> recommendationEngine.resync(invalidation.entityId());
+            }
+            Duration lag = Duration.between(invalidation.createdAt(), Instant.now());
+            if (!lag.isNegative()) propagation.record(lag);
+        } catch (RuntimeException e) {
+            log.warn("Could not apply {}; the affected entries expire on their own", invalidation, e);
+        } finally {
+            replaying.remove();
+        }
+    }
+
+    private void send(Invalidation.Kind kind, Long entityId) {
+        if (transport == null || replaying.get()) return;
+        transport.publish(new Invalidation(kind, entityId, nodeId, Instant.now()));
+    }
+}
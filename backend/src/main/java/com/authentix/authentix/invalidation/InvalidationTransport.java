@@ -0,0 +1,26 @@
+package com.authentix.authentix.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries invalidations between nodes for {@link InvalidationBus}. The default is
+ * {@link JdbcInvalidationTransport}, which needs nothing beyond MySQL; a Redis pub/sub or Kafka
+ * transport can replace it by registering its own bean and setting {@code app.invalidation.transport}
+ * to something other than {@code jdbc}.
+ *
+ * Delivery is at least once and may reorder; invalidations are idempotent, so receivers need neither.
+ * Implementations must not throw from {@link #publish}: the change it reports is already committed.
+ */
+public interface InvalidationTransport {
+
+    /** Sends an invalidation to every other node. */
+    void publish(Invalidation invalidation);
+
+    /**
+     * Starts delivering invalidations published from now on, by any node, to listener. Calls come
+     * from one transport thread at a time.
+     */
+    void start(Consumer<Invalidation> listener);
+
+    void stop();
+}
@@ -0,0 +1,152 @@
+package com.authentix.authentix.invalidation;
+
+import com.authentix.authentix.support.SettlingWatermark;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Invalidation transport over the {@code cache_invalidations} table on the primary. Published
+ * invalidations are queued and inserted in batches by a publisher thread, so the caller (an
+ * after-commit listener still holding its own connection) never waits on a second one. Every node
+ * polls for rows above its watermark every {@code poll-interval}, so propagation takes about one
+ * interval. Rows older than {@code retention} are deleted by whichever node gets there.
+ *
+ * Ids come from AUTO_INCREMENT and can commit out of order, so polls read above a
+ * {@link SettlingWatermark}: a row is delivered once, and the watermark passes it only after {@code settle}.
+ * Each insert is its own short statement, so such gaps close in milliseconds.
+ */
+@Component
+@ConditionalOnProperty(name = "app.invalidation.transport", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcInvalidationTransport.class);
+    private static final int QUERY_TIMEOUT_SECONDS = 2;
+    /** Rows read per poll. */
+    private static final int BATCH = 1000;
+
+    private record Row(long id, Invalidation invalidation) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration pollInterval;
+    private final Duration settle;
+    private final Duration retention;
+    private final BlockingQueue<Invalidation> outbox = new LinkedBlockingQueue<>(10_000);
+    private SettlingWatermark watermark;
+    private long lastCleanupMillis;
+    private Thread poller;
+    private Thread publisher;
+    private volatile boolean running;
+
+    public JdbcInvalidationTransport(HikariDataSource primaryDataSource,
+                                     @Value("${app.invalidation.poll-interval:100ms}") Duration pollInterval,
+                                     @Value("${app.invalidation.settle:2s}") Duration settle,
+                                     @Value("${app.invalidation.retention:1h}") Duration retention) {
+        this.jdbcTemplate = new JdbcTemplate(primaryDataSource);
+        this.jdbcTemplate.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+        this.pollInterval = pollInterval;
+        this.settle = settle;
+        this.retention = retention;
+    }
+
+    @Override
+    public void publish(Invalidation invalidation) {
+        if (!outbox.offer(invalidation)) {
+            log.warn("Invalidation queue full; dropping {}, other nodes will catch up when their entries expire", invalidation);
+        }
+    }
+
+    @Override
+    public synchronized void start(Consumer<Invalidation> listener) {
+        if (running) return;
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM cache_invalidations", Long.class);
+        watermark = new SettlingWatermark(max != null ? max : 0, settle);
+        running = true;
+        poller = Thread.ofPlatform().name("cache-invalidation-poller").daemon().start(() -> run(listener));
+        publisher = Thread.ofPlatform().name("cache-invalidation-publisher").daemon().start(this::drainOutbox);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        poller.interrupt();
+        publisher.interrupt();
+    }
+
+    private void drainOutbox() {
+        List<Invalidation> batch = new ArrayList<>();
+        while (running) {
+            try {
+                batch.add(outbox.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            outbox.drainTo(batch, BATCH - 1);
+            try {
+                jdbcTemplate.batchUpdate("INSERT INTO cache_invalidations (kind, entity_id, origin, created_at) VALUES (?, ?, ?, ?)",
+                        batch.stream().map(i -> new Object[]{i.kind().name(), i.entityId(), i.origin(), Timestamp.from(i.createdAt())}).toList());
+            } catch (RuntimeException e) {
+                log.warn("Could not publish {} invalidations; other nodes will catch up when their entries expire", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void run(Consumer<Invalidation> listener) {
+        while (running) {
+            try {
+                poll(listener);
+                cleanUp();
+                Thread.sleep(pollInterval.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Cache invalidation poll failed", e);
+                try {
+                    Thread.sleep(Math.max(pollInterval.toMillis(), 1000));
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    void poll(Consumer<Invalidation> listener) {
+        List<Row> rows = jdbcTemplate.query(
+                "SELECT id, kind, entity_id, origin, created_at FROM cache_invalidations WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, n) -> new Row(rs.getLong("id"), new Invalidation(
+                        Invalidation.Kind.valueOf(rs.getString("kind")),
+                        rs.getObject("entity_id", Long.class),
+                        rs.getString("origin"),
+                        rs.getTimestamp("created_at").toInstant())),
+                watermark.value(), BATCH);
+        long now = System.currentTimeMillis();
+        for (Row row : rows) {
+            if (watermark.accept(row.id(), now)) listener.accept(row.invalidation());
+        }
+        // A full batch may hide more rows; move past all of it rather than poll the same page again.
+        watermark.advance(now, rows.size() >= BATCH);
+    }
+
+    private void cleanUp() {
+        long now = System.currentTimeMillis();
+        if (now - lastCleanupMillis < Math.min(retention.toMillis(), Duration.ofMinutes(1).toMillis())) return;
+        lastCleanupMillis = now;
+        jdbcTemplate.update("DELETE FROM cache_invalidations WHERE created_at < ?",
+                Timestamp.from(Instant.ofEpochMilli(now).minus(retention)));
+    }
+}
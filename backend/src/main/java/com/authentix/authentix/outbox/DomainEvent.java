@@ -0,0 +1,21 @@
+package com.authentix.authentix.outbox;
+
+import tools.jackson.databind.JsonNode;
+
+import java.time.Instant;
+
+/** An outbox event as handed to {@link DomainEventSubscriber}s. */
+public record DomainEvent(Long id, String aggregateType, Long aggregateId, String type, JsonNode payload, Instant createdAt) {
+
+    public static final String LISTING = "listing";
+    public static final String ORDER = "order";
+
+    /** Listing created or its status changed: listingId, sellerId, from (null on create), to. */
+    public static final String LISTING_STATUS_CHANGED = "ListingStatusChanged";
+    /** Order paid: orderId, listingId, sellerId, buyerId, amount, platformFee, sellerPayout (amounts as decimal strings). */
+    public static final String ORDER_PAID = "OrderPaid";
+    /** Paid order refunded: same fields as {@link #ORDER_PAID}. */
+    public static final String ORDER_REFUNDED = "OrderRefunded";
+    /** A user started or stopped watching the listing (watchlist or a folder): listingId, userId. */
+    public static final String LISTING_WATCHERS_CHANGED = "ListingWatchersChanged";
+}
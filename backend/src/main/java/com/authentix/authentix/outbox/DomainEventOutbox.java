@@ -0,0 +1,41 @@
+package com.authentix.authentix.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Appends domain events to the outbox table. Must be called inside the transaction that makes the
+ * change, so the event exists if and only if the change committed. {@link OutboxRelay} is woken after
+ * the commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class DomainEventOutbox {
+
+    private final OutboxEventRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** Published on append; the relay listens after commit. */
+    record Appended() {}
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String aggregateType, Long aggregateId, String type, Map<String, ?> payload) {
+        Instant now = Instant.now();
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setEventType(type);
+        event.setPayload(JsonMapper.shared().writeValueAsString(payload));
+        event.setCreatedAt(now);
+        event.setNextAttemptAt(now);
+        repository.save(event);
+        eventPublisher.publishEvent(new Appended());
+    }
+}
@@ -0,0 +1,14 @@
+package com.authentix.authentix.outbox;
+
+/**
+ * Receives every outbox event, once per deployment rather than once per instance. Delivery is at
+ * least once and in order per aggregate; handlers must be idempotent or keyed on {@link DomainEvent#id()}.
+ *
+ * Handlers run inside the transaction that marks the event delivered, so database writes they make
+ * commit together with that mark: a rolled-back delivery leaves no trace and is retried. Throwing
+ * rolls back and retries the event with backoff, holding back later events of the same aggregate.
+ */
+public interface DomainEventSubscriber {
+
+    void handle(DomainEvent event);
+}
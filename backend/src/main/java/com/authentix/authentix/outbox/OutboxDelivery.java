@@ -0,0 +1,37 @@
+package com.authentix.authentix.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+
+/** Delivers one outbox event to every subscriber in a single transaction. */
+@Component
+@RequiredArgsConstructor
+class OutboxDelivery {
+
+    enum Result { DELIVERED, NOT_DUE, GONE }
+
+    private final OutboxEventRepository repository;
+    private final ObjectProvider<DomainEventSubscriber> subscribers;
+
+    /**
+     * Locks the event so instances never deliver it concurrently, hands it to each subscriber and marks
+     * it delivered. A subscriber exception rolls all of that back and propagates.
+     */
+    @Transactional
+    public Result deliver(Long id, Instant now) {
+        OutboxEvent event = repository.lockPending(id).orElse(null);
+        if (event == null) return Result.GONE;
+        if (event.getNextAttemptAt().isAfter(now)) return Result.NOT_DUE;
+        DomainEvent domainEvent = new DomainEvent(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                event.getEventType(), JsonMapper.shared().readTree(event.getPayload()), event.getCreatedAt());
+        subscribers.orderedStream().forEach(subscriber -> subscriber.handle(domainEvent));
+        event.setDispatchedAt(now);
+        event.setLastError(null);
+        return Result.DELIVERED;
+    }
+}
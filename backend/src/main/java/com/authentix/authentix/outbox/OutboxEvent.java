@@ -0,0 +1,55 @@
+package com.authentix.authentix.outbox;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "outbox_events",
+    indexes = {
+        @Index(name = "idx_outbox_events_dispatched_id", columnList = "dispatched_at, id"),
+        @Index(name = "idx_outbox_events_dispatched_next_attempt", columnList = "dispatched_at, next_attempt_at"),
+        @Index(name = "idx_outbox_events_aggregate", columnList = "aggregate_type, aggregate_id, id")
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Ordering key together with aggregateId: one aggregate's events are delivered oldest first. */
+    @Column(name = "aggregate_type", nullable = false, length = 40)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "event_type", nullable = false, length = 60)
+    private String eventType;
+
+    /** JSON object. */
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    /** Set in the transaction that delivered the event to every subscriber. */
+    @Column(name = "dispatched_at")
+    private Instant dispatchedAt;
+}
@@ -0,0 +1,48 @@
+package com.authentix.authentix.outbox;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /** Undelivered event as seen by the relay. */
+    record PendingEvent(Long id, String aggregateType, Long aggregateId, int attempts, Instant nextAttemptAt) {}
+
+    /**
+     * Undelivered events that can go now: due, and the oldest undelivered event of their aggregate.
+     * Read-write so it runs on the primary: a replica would show delivered events as still pending.
+     */
+    @Transactional
+    @Query("select new com.authentix.authentix.outbox.OutboxEventRepository$PendingEvent(e.id, e.aggregateType, e.aggregateId, e.attempts, e.nextAttemptAt)"
+            + " from OutboxEvent e where e.dispatchedAt is null and e.nextAttemptAt <= :now"
+            + " and not exists (select 1 from OutboxEvent f where f.aggregateType = e.aggregateType"
+            + " and f.aggregateId = e.aggregateId and f.id < e.id and f.dispatchedAt is null)"
+            + " order by e.id")
+    List<PendingEvent> findDue(@Param("now") Instant now, Pageable pageable);
+
+    /** Locks the event for delivery; empty if it was delivered meanwhile (e.g. by another instance). */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from OutboxEvent e where e.id = :id and e.dispatchedAt is null")
+    Optional<OutboxEvent> lockPending(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt, e.lastError = :error"
+            + " where e.id = :id and e.dispatchedAt is null")
+    int retryAt(@Param("id") Long id, @Param("nextAttemptAt") Instant nextAttemptAt, @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEvent e where e.dispatchedAt < :before")
+    int deleteDispatchedBefore(@Param("before") Instant before);
+}
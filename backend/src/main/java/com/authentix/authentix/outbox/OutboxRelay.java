@@ -0,0 +1,107 @@
+package com.authentix.authentix.outbox;
+
+import com.authentix.authentix.support.PollingLoop;
+import com.authentix.authentix.support.RetryBackoff;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Tails the outbox and delivers pending events in id order, in batches, right after a local commit
+ * appends one and otherwise every {@code poll-interval} (which also picks up other instances' events).
+ *
+ * Events of one aggregate are delivered strictly in order: each round only takes the oldest
+ * undelivered event of each aggregate, and only once it is due, so an event that failed or is waiting
+ * out its backoff holds back the rest of its aggregate while other aggregates go ahead. Both checks
+ * are part of the query, so a backlog behind a stuck aggregate never fills the batch. Failed
+ * deliveries are retried with exponential backoff, without limit; a stuck aggregate is logged on every
+ * attempt. Delivered events are deleted after {@code retention}.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    /** Due events fetched per round. */
+    private static final int BATCH = 500;
+
+    private final OutboxEventRepository repository;
+    private final OutboxDelivery delivery;
+    private final RetryBackoff backoff;
+    private final Duration retention;
+    private final PollingLoop loop;
+    private long lastCleanupMillis;
+
+    public OutboxRelay(OutboxEventRepository repository, OutboxDelivery delivery,
+                       @Value("${app.outbox.poll-interval:1s}") Duration pollInterval,
+                       @Value("${app.outbox.retry-backoff:1s}") Duration retryBackoff,
+                       @Value("${app.outbox.max-retry-backoff:10m}") Duration maxRetryBackoff,
+                       @Value("${app.outbox.retention:7d}") Duration retention) {
+        this.repository = repository;
+        this.delivery = delivery;
+        this.backoff = new RetryBackoff(retryBackoff, maxRetryBackoff);
+        this.retention = retention;
+        this.loop = new PollingLoop("outbox-relay", pollInterval, this::round);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        loop.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        loop.stop();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppended(DomainEventOutbox.Appended event) {
+        loop.wake();
+    }
+
+    /**
+     * Goes again at once while rounds make progress (the next event of an aggregate is only selected
+     * once the one before it is delivered); otherwise cleans up and waits for a commit or the poll.
+     */
+    private boolean round() {
+        if (relayPending()) return true;
+        cleanUp();
+        return false;
+    }
+
+    /** Delivers what is due in the next batch; true if it delivered something. */
+    boolean relayPending() {
+        List<OutboxEventRepository.PendingEvent> due = repository.findDue(Instant.now(), PageRequest.of(0, BATCH));
+        int delivered = 0;
+        for (OutboxEventRepository.PendingEvent event : due) {
+            try {
+                if (delivery.deliver(event.id(), Instant.now()) == OutboxDelivery.Result.DELIVERED) delivered++;
+            } catch (RuntimeException e) {
+                fail(event, e);
+            }
+        }
+        return delivered > 0;
+    }
+
+    private void fail(OutboxEventRepository.PendingEvent event, RuntimeException error) {
+        int attempts = event.attempts() + 1;
+        log.warn("Outbox event {} failed on attempt {}; its aggregate waits for the retry", event.id(), attempts, error);
+        repository.retryAt(event.id(), Instant.now().plus(backoff.after(attempts)), RetryBackoff.describe(error));
+    }
+
+    private void cleanUp() {
+        long now = System.currentTimeMillis();
+        if (now - lastCleanupMillis < Duration.ofMinutes(10).toMillis()) return;
+        lastCleanupMillis = now;
+        repository.deleteDispatchedBefore(Instant.ofEpochMilli(now).minus(retention));
+    }
+}
@@ -0,0 +1,158 @@
+package com.authentix.authentix.realtime;
+
+import com.authentix.authentix.dto.MessageDto;
+import com.authentix.authentix.service.MessageSentEvent;
+import com.authentix.authentix.support.SettlingWatermark;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+/**
+ * In-process fan-out of new messages to receivers' open inbox streams. Each connection gets a bounded
+ * queue drained by its own virtual thread, so a slow client never blocks the sender or other clients.
+ * A connection that falls too far behind is closed; the client reconnects with Last-Event-ID and
+ * catches up from the database like any other resume.
+ *
+ * Message ids come from AUTO_INCREMENT and can commit out of order, so id 11 may be pushed before id
+ * 10. Each connection therefore keeps a {@link SettlingWatermark} over the ids it has sent, which
+ * passes an id only once it has been sent for {@code settle}. The event id handed to the client is that
+ * watermark, so a resume replays anything that was still settling (the client drops repeats by message id).
+ */
+@Component
+public class MessagePushHub {
+
+    private static final Logger log = LoggerFactory.getLogger(MessagePushHub.class);
+
+    private final Map<Long, Set<Subscription>> byUser = new ConcurrentHashMap<>();
+    private final int queueCapacity;
+    private final Duration heartbeat;
+    private final Duration settle;
+
+    public MessagePushHub(@Value("${app.realtime.queue-capacity:256}") int queueCapacity,
+                          @Value("${app.realtime.heartbeat:25s}") Duration heartbeat,
+                          @Value("${app.realtime.settle:5s}") Duration settle) {
+        this.queueCapacity = queueCapacity;
+        this.heartbeat = heartbeat;
+        this.settle = settle;
+    }
+
+    /**
+     * Registers a connection. When afterId is set, the connection first replays everything newer from
+     * {@code replay} (called repeatedly with the last id it returned until it returns nothing), then goes
+     * live; messages that arrive during the replay are queued and deduplicated by id.
+     */
+    public Subscription subscribe(Long userId, Long afterId, PushSink sink, LongFunction<List<MessageDto>> replay) {
+        Subscription subscription = new Subscription(userId, sink, afterId != null ? afterId : Long.MIN_VALUE);
+        byUser.compute(userId, (id, subscriptions) -> {
+            Set<Subscription> set = subscriptions != null ? subscriptions : ConcurrentHashMap.newKeySet();
+            set.add(subscription);
+            return set;
+        });
+        subscription.thread = Thread.ofVirtual().name("inbox-stream-" + userId).start(() -> subscription.run(afterId != null ? replay : null));
+        return subscription;
+    }
+
+    public void publish(Long receiverId, MessageDto message) {
+        Set<Subscription> subscriptions = byUser.get(receiverId);
+        if (subscriptions == null) return;
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.queue.offer(message)) {
+                log.debug("Inbox stream for user {} fell behind; closing so it resumes from the database", receiverId);
+                subscription.close();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageSent(MessageSentEvent event) {
+        publish(event.message().getReceiverId(), event.message());
+    }
+
+    public int connectionCount() {
+        return byUser.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        byUser.values().forEach(subscriptions -> subscriptions.forEach(Subscription::close));
+    }
+
+    public final class Subscription {
+
+        private final Long userId;
+        private final PushSink sink;
+        private final BlockingQueue<MessageDto> queue = new ArrayBlockingQueue<>(queueCapacity);
+        /** Over the ids sent on this connection; MIN_VALUE until one settles. */
+        private final SettlingWatermark watermark;
+        private volatile boolean closed;
+        private volatile Thread thread;
+
+        private Subscription(Long userId, PushSink sink, long watermark) {
+            this.userId = userId;
+            this.sink = sink;
+            this.watermark = new SettlingWatermark(watermark, settle);
+        }
+
+        /** Stops the connection; safe to call from any thread and more than once. */
+        public void close() {
+            closed = true;
+            Thread t = thread;
+            if (t != null) t.interrupt();
+        }
+
+        private void run(LongFunction<List<MessageDto>> replay) {
+            try {
+                if (replay != null) {
+                    long cursor = watermark.value();
+                    List<MessageDto> batch;
+                    while (!closed && !(batch = replay.apply(cursor)).isEmpty()) {
+                        for (MessageDto message : batch) send(message);
+                        cursor = batch.get(batch.size() - 1).getId();
+                    }
+                }
+                while (!closed) {
+                    MessageDto message = queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                    if (message == null) {
+                        sink.heartbeat();
+                    } else {
+                        send(message);
+                    }
+                }
+            } catch (IOException | InterruptedException e) {
+                // client went away or the hub closed the stream
+            } catch (RuntimeException e) {
+                log.warn("Inbox stream for user {} failed", userId, e);
+            } finally {
+                closed = true;
+                byUser.computeIfPresent(userId, (id, subscriptions) -> {
+                    subscriptions.remove(this);
+                    return subscriptions.isEmpty() ? null : subscriptions;
+                });
+                sink.close();
+            }
+        }
+
+        private void send(MessageDto message) throws IOException {
+            long now = System.currentTimeMillis();
+            if (!watermark.accept(message.getId(), now)) return;
+            watermark.advance(now, false);
+            // Without a resume point yet, resume just below the oldest id still settling.
+            long resumeAfter = watermark.value();
+            sink.send(resumeAfter != Long.MIN_VALUE ? resumeAfter : watermark.oldestUnsettled() - 1, message);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.authentix.authentix.realtime;
+
+import com.authentix.authentix.security.AuthenticatedUser;
+import com.authentix.authentix.service.MessageService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+@Service
+@RequiredArgsConstructor
+public class MessageStreamService {
+
+    private static final int REPLAY_BATCH = 200;
+
+    private final MessagePushHub hub;
+    private final MessageService messageService;
+
+    @Value("${app.realtime.stream-timeout:30m}")
+    private Duration streamTimeout;
+
+    /** Opens an inbox stream for the current user, replaying messages after afterId when it is set. */
+    public SseEmitter open(Long afterId) {
+        AuthenticatedUser auth = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        Long userId = auth.getUserId();
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        MessagePushHub.Subscription subscription = hub.subscribe(userId, afterId, new SseMessageSink(emitter),
+                lastId -> messageService.getReceivedAfter(userId, lastId, REPLAY_BATCH));
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        return emitter;
+    }
+}
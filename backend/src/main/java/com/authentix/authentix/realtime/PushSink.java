@@ -0,0 +1,14 @@
+package com.authentix.authentix.realtime;
+
+import java.io.IOException;
+
+/** One connected client as seen by {@link MessagePushHub}; an IOException means it has gone away. */
+public interface PushSink {
+
+    /** eventId is where a reconnect should resume; it can trail the payload's own id. */
+    void send(long eventId, Object payload) throws IOException;
+
+    void heartbeat() throws IOException;
+
+    void close();
+}
@@ -0,0 +1,31 @@
+package com.authentix.authentix.realtime;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/** Writes hub events to an SSE response: event "message", id = resume point (echoed back as Last-Event-ID). */
+class SseMessageSink implements PushSink {
+
+    private final SseEmitter emitter;
+
+    SseMessageSink(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void send(long eventId, Object payload) throws IOException {
+        emitter.send(SseEmitter.event().name("message").id(Long.toString(eventId)).data(payload, MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void heartbeat() throws IOException {
+        emitter.send(SseEmitter.event().comment("keepalive"));
+    }
+
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+}
@@ -0,0 +1,179 @@
+package com.authentix.authentix.recommend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Item-to-item co-watch counts: for every pair of listings, how many users watch both. Each watch
+ * added or removed touches only the pairs it forms with the user's other watches, so the graph is
+ * maintained incrementally and never rebuilt. Similarity is cosine over watcher sets:
+ * co(a, b) / sqrt(watchers(a) * watchers(b)).
+ *
+ * Listings that stop being ACTIVE are marked retired: their counts still link other listings, but
+ * they are never recommended.
+ */
+public class CoWatchGraph {
+
+    private static final long[] NONE = new long[0];
+    /** A user's most recent watches (highest ids) that seed their recommendations. */
+    private static final int MAX_SEEDS = 50;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /** user id -> sorted ids of the listings they watch */
+    private final LongObjectMap<long[]> watchedByUser = new LongObjectMap<>();
+    /** listing id -> (other listing id -> users watching both) */
+    private final LongObjectMap<LongIntMap> coWatch = new LongObjectMap<>();
+    private final LongIntMap watchers = new LongIntMap(1024);
+    private final LongIntMap retired = new LongIntMap();
+
+    /** Records that the user watches the listing; false if it was already recorded. */
+    public boolean add(long userId, long listingId) {
+        lock.writeLock().lock();
+        try {
+            long[] items = watchedByUser.get(userId);
+            if (items == null) items = NONE;
+            int pos = Arrays.binarySearch(items, listingId);
+            if (pos >= 0) return false;
+            for (long other : items) {
+                addPair(listingId, other, 1);
+                addPair(other, listingId, 1);
+            }
+            watchers.addTo(listingId, 1);
+            int insertAt = -pos - 1;
+            long[] updated = new long[items.length + 1];
+            System.arraycopy(items, 0, updated, 0, insertAt);
+            updated[insertAt] = listingId;
+            System.arraycopy(items, insertAt, updated, insertAt + 1, items.length - insertAt);
+            watchedByUser.put(userId, updated);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Forgets that the user watches the listing; false if it was not recorded. */
+    public boolean remove(long userId, long listingId) {
+        lock.writeLock().lock();
+        try {
+            long[] items = watchedByUser.get(userId);
+            int pos = items != null ? Arrays.binarySearch(items, listingId) : -1;
+            if (pos < 0) return false;
+            long[] updated = new long[items.length - 1];
+            System.arraycopy(items, 0, updated, 0, pos);
+            System.arraycopy(items, pos + 1, updated, pos, items.length - pos - 1);
+            for (long other : updated) {
+                addPair(listingId, other, -1);
+                addPair(other, listingId, -1);
+            }
+            watchers.addTo(listingId, -1);
+            if (updated.length == 0) {
+                watchedByUser.remove(userId);
+            } else {
+                watchedByUser.put(userId, updated);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** The listings recorded as watched by the user, in id order. */
+    public long[] watchedBy(long userId) {
+        lock.readLock().lock();
+        try {
+            long[] items = watchedByUser.get(userId);
+            return items == null ? NONE : items.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void setRetired(long listingId, boolean isRetired) {
+        lock.writeLock().lock();
+        try {
+            if (isRetired != (retired.get(listingId) != 0)) {
+                retired.addTo(listingId, isRetired ? 1 : -1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Listings most often watched together with this one, best first. */
+    public long[] similarTo(long listingId, int limit) {
+        lock.readLock().lock();
+        try {
+            LongIntMap pairs = coWatch.get(listingId);
+            if (pairs == null) return NONE;
+            Map<Long, Double> scores = new HashMap<>();
+            int own = watchers.get(listingId);
+            pairs.forEach((other, count) -> {
+                if (retired.get(other) == 0) scores.put(other, similarity(count, own, other));
+            });
+            return top(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Listings similar to what the user watches, summed over their watches, excluding those watches. */
+    public long[] recommendFor(long userId, int limit) {
+        lock.readLock().lock();
+        try {
+            long[] items = watchedByUser.get(userId);
+            if (items == null) return NONE;
+            Map<Long, Double> scores = new HashMap<>();
+            for (int i = Math.max(0, items.length - MAX_SEEDS); i < items.length; i++) {
+                LongIntMap pairs = coWatch.get(items[i]);
+                if (pairs == null) continue;
+                int own = watchers.get(items[i]);
+                pairs.forEach((other, count) -> {
+                    if (retired.get(other) != 0 || Arrays.binarySearch(items, other) >= 0) return;
+                    scores.merge(other, similarity(count, own, other), Double::sum);
+                });
+            }
+            return top(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int userCount() {
+        lock.readLock().lock();
+        try {
+            return watchedByUser.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double similarity(int count, int watchersA, long b) {
+        return count / Math.sqrt((double) watchersA * watchers.get(b));
+    }
+
+    private void addPair(long a, long b, int delta) {
+        LongIntMap pairs = coWatch.get(a);
+        if (pairs == null) {
+            pairs = new LongIntMap();
+            coWatch.put(a, pairs);
+        }
+        pairs.addTo(b, delta);
+        if (pairs.size() == 0) coWatch.remove(a);
+    }
+
+    /** Highest scores first; ties go to the newer (higher) id. */
+    private static long[] top(Map<Long, Double> scores, int limit) {
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed()));
+        int n = Math.min(limit, ranked.size());
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) ids[i] = ranked.get(i).getKey();
+        return ids;
+    }
+}
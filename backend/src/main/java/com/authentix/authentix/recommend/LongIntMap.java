@@ -0,0 +1,100 @@
+package com.authentix.authentix.recommend;
+
+/**
+ * Open-addressing long -> int map (linear probing, backward-shift deletion). Keys must be non-zero,
+ * which holds for database ids. A key whose value reaches 0 is removed, so {@link #addTo} doubles as
+ * a reference counter.
+ */
+final class LongIntMap {
+
+    interface Visitor {
+        void accept(long key, int value);
+    }
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    LongIntMap() {
+        this(4);
+    }
+
+    LongIntMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(2, expected) * 2 - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(long key) {
+        for (int i = slot(key); keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) return values[i];
+        }
+        return 0;
+    }
+
+    /** Adds delta to the key's value (absent counts as 0) and returns the new value. */
+    int addTo(long key, int delta) {
+        int i = slot(key);
+        for (; keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                int value = values[i] + delta;
+                if (value == 0) {
+                    removeAt(i);
+                } else {
+                    values[i] = value;
+                }
+                return value;
+            }
+        }
+        if (delta == 0) return 0;
+        keys[i] = key;
+        values[i] = delta;
+        if (++size * 2 > keys.length) grow();
+        return delta;
+    }
+
+    void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) visitor.accept(keys[i], values[i]);
+        }
+    }
+
+    private void removeAt(int i) {
+        int gap = i;
+        for (int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            boolean movable = j > gap ? (home <= gap || home > j) : (home <= gap && home > j);
+            if (movable) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = 0;
+        size--;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        mask = keys.length - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) addTo(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
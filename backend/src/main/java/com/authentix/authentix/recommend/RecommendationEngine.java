@@ -0,0 +1,118 @@
+package com.authentix.authentix.recommend;
+
+import com.authentix.authentix.repository.WatchlistRepository;
+import com.authentix.authentix.service.ListingChangedEvent;
+import com.authentix.authentix.service.WatchChangedEvent;
+import com.authentix.authentix.watchlist.WatchlistItemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Serves recommendations from the in-memory {@link CoWatchGraph}. Per-user top-N lists are cached in
+ * a bounded LRU; a user's own entry is dropped when they change their watches, and other entries
+ * expire after the TTL so they pick up everyone else's changes.
+ */
+@Service
+@RequiredArgsConstructor
+public class RecommendationEngine {
+
+    private final CoWatchGraph graph = new CoWatchGraph();
+    private final WatchlistRepository watchlistRepository;
+    private final WatchlistItemRepository watchlistItemRepository;
+
+    @Value("${app.recommendations.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${app.recommendations.cache-ttl:10m}")
+    private Duration cacheTtl;
+
+    private record Cached(long[] ids, int limit, long expiresAt) {}
+
+    private final Map<Long, Cached> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Cached> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    /** Top listings for the user by co-watch similarity; empty when they watch nothing with co-watchers. */
+    public long[] forUser(long userId, int limit) {
+        long now = System.nanoTime();
+        synchronized (cache) {
+            Cached cached = cache.get(userId);
+            if (cached != null && cached.limit() >= limit && cached.expiresAt() - now > 0) {
+                return cached.ids().length > limit ? Arrays.copyOf(cached.ids(), limit) : cached.ids();
+            }
+        }
+        long[] ids = graph.recommendFor(userId, limit);
+        synchronized (cache) {
+            cache.put(userId, new Cached(ids, limit, now + cacheTtl.toNanos()));
+        }
+        return ids;
+    }
+
+    public long[] similarTo(long listingId, int limit) {
+        return graph.similarTo(listingId, limit);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWatchChanged(WatchChangedEvent event) {
+        boolean watched = watchlistRepository.existsByUserIdAndListingId(event.userId(), event.listingId())
+                || watchlistItemRepository.existsByUser_IdAndListing_Id(event.userId(), event.listingId());
+        if (watched) {
+            graph.add(event.userId(), event.listingId());
+        } else {
+            graph.remove(event.userId(), event.listingId());
+        }
+        synchronized (cache) {
+            cache.remove(event.userId());
+        }
+    }
+
+    /**
+     * Re-reads everything the user watches and brings their edges in line with it. Watch changes made on
+     * other nodes arrive this way (see {@code InvalidationBus}), with only the user id to go on.
+     */
+    public void resync(long userId) {
+        Set<Long> watched = new HashSet<>(watchlistRepository.findListingIdsByUserId(userId));
+        watched.addAll(watchlistItemRepository.findListingIdsByUserId(userId));
+        for (long listingId : graph.watchedBy(userId)) {
+            if (!watched.remove(listingId)) graph.remove(userId, listingId);
+        }
+        watched.forEach(listingId -> graph.add(userId, listingId));
+        synchronized (cache) {
+            cache.remove(userId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        graph.setRetired(event.id(), !event.isActive());
+    }
+
+    /** Startup load; see {@link RecommendationGraphLoader}. */
+    void load(Iterable<WatchPair> pairs) {
+        for (WatchPair pair : pairs) {
+            graph.add(pair.userId(), pair.listingId());
+        }
+    }
+
+    void retire(Iterable<Long> listingIds) {
+        for (Long id : listingIds) {
+            graph.setRetired(id, true);
+        }
+    }
+
+    int userCount() {
+        return graph.userCount();
+    }
+}
@@ -0,0 +1,48 @@
+package com.authentix.authentix.recommend;
+
+import com.authentix.authentix.entity.ListingStatus;
+import com.authentix.authentix.repository.ListingRepository;
+import com.authentix.authentix.repository.WatchlistRepository;
+import com.authentix.authentix.watchlist.WatchlistItemRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+/** Builds the co-watch graph at startup from both watch tables, read in id-ordered batches. */
+@Component
+@RequiredArgsConstructor
+public class RecommendationGraphLoader implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationGraphLoader.class);
+    private static final int BATCH_SIZE = 5000;
+
+    private final RecommendationEngine engine;
+    private final WatchlistRepository watchlistRepository;
+    private final WatchlistItemRepository watchlistItemRepository;
+    private final ListingRepository listingRepository;
+
+    @Override
+    public void run(String... args) {
+        long start = System.nanoTime();
+        loadAll((afterId, page) -> watchlistRepository.findWatchPairs(afterId, page));
+        loadAll((afterId, page) -> watchlistItemRepository.findWatchPairs(afterId, page));
+        engine.retire(listingRepository.findWatchedIdsByStatusNot(ListingStatus.ACTIVE));
+        log.info("Recommendation graph built: {} watchers in {} ms", engine.userCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void loadAll(BiFunction<Long, PageRequest, List<WatchPair>> source) {
+        long afterId = 0;
+        while (true) {
+            List<WatchPair> batch = source.apply(afterId, PageRequest.of(0, BATCH_SIZE));
+            engine.load(batch);
+            if (batch.size() < BATCH_SIZE) break;
+            afterId = batch.get(batch.size() - 1).id();
+        }
+    }
+}
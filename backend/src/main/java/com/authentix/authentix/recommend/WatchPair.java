@@ -0,0 +1,4 @@
+package com.authentix.authentix.recommend;
+
+/** One watch row (from watchlist or watchlist_items); filled by a projection query. */
+public record WatchPair(Long id, Long userId, Long listingId) {}
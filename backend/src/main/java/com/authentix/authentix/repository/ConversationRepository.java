@@ -0,0 +1,79 @@
+package com.authentix.authentix.repository;
+
+import com.authentix.authentix.dto.ConversationDto;
+import com.authentix.authentix.entity.Conversation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+
+    /** Correlated subquery counting a conversation's unread, unarchived messages; used by the recount updates. */
+    String UNREAD_IN_CONVERSATION = "(select cast(count(m) as Integer) from Message m"
+            + " where m.receiver = c.owner and m.listing = c.listing and m.sender = c.counterpart"
+            + " and m.read = false and m.archived = false and m.deleted = false)";
+
+    Optional<Conversation> findByIdAndOwnerId(Long id, Long ownerId);
+
+    /** The viewer's conversations after the (lastMessageAt, id) cursor, most recent first, in one statement. */
+    @Query("select new com.authentix.authentix.dto.ConversationDto("
+            + "c.id, l.id, l.title, img, u.id, u.displayName, u.profilePhotoUrl, m.id, m.body, m.sender.id, c.lastMessageAt, c.unreadCount) "
+            + "from Conversation c join c.listing l join c.counterpart u join c.lastMessage m "
+            + "left join l.images img on index(img) = 0 "
+            + "where c.owner.id = :ownerId"
+            + " and (c.lastMessageAt < :lastMessageAt or (c.lastMessageAt = :lastMessageAt and c.id < :id))"
+            + " order by c.lastMessageAt desc, c.id desc")
+    Slice<ConversationDto> findPageAfter(@Param("ownerId") Long ownerId,
+                                         @Param("lastMessageAt") Instant lastMessageAt, @Param("id") Long id,
+                                         Pageable pageable);
+
+    @Query("select coalesce(sum(c.unreadCount), 0) from Conversation c where c.owner.id = :ownerId and c.unreadCount > 0")
+    long sumUnreadByOwnerId(@Param("ownerId") Long ownerId);
+
+    /**
+     * Points the owner's thread with counterpart about listing at a new latest message and adds to its unread
+     * count, creating the thread on first contact. One statement against the unique key, so two first messages
+     * racing into the same thread both land on one row instead of one of them failing the insert.
+     */
+    @Modifying
+    @Query(value = "insert into conversations (owner_id, listing_id, counterpart_id, last_message_id, last_message_at,"
+            + " unread_count, created_at, updated_at)"
+            + " values (:ownerId, :listingId, :counterpartId, :messageId, :at, :unreadDelta, :at, :at)"
+            + " on duplicate key update last_message_id = :messageId, last_message_at = :at,"
+            + " unread_count = unread_count + :unreadDelta, updated_at = :at", nativeQuery = true)
+    int recordMessage(@Param("ownerId") Long ownerId, @Param("listingId") Long listingId,
+                      @Param("counterpartId") Long counterpartId, @Param("messageId") Long messageId,
+                      @Param("at") Instant at, @Param("unreadDelta") int unreadDelta);
+
+    @Modifying
+    @Query("update Conversation c set c.unreadCount = c.unreadCount - 1"
+            + " where c.owner.id = :ownerId and c.listing.id = :listingId and c.counterpart.id = :counterpartId"
+            + " and c.unreadCount > 0")
+    int decrementUnread(@Param("ownerId") Long ownerId, @Param("listingId") Long listingId,
+                        @Param("counterpartId") Long counterpartId);
+
+    /** Recomputes the unread count of the conversation from its messages. */
+    @Modifying
+    @Query("update Conversation c set c.unreadCount = " + UNREAD_IN_CONVERSATION + " where c.id = :id")
+    int recountUnread(@Param("id") Long id);
+
+    /** Recomputes the unread counts of every conversation of the owner that has any. */
+    @Modifying
+    @Query("update Conversation c set c.unreadCount = " + UNREAD_IN_CONVERSATION
+            + " where c.owner.id = :ownerId and c.unreadCount > 0")
+    int recountUnreadForOwner(@Param("ownerId") Long ownerId);
+
+    /** Recomputes the owner's unread counts for every conversation one of the given received messages belongs to. */
+    @Modifying
+    @Query("update Conversation c set c.unreadCount = " + UNREAD_IN_CONVERSATION
+            + " where c.owner.id = :ownerId and exists (select 1 from Message t where t.id in :messageIds"
+            + " and t.receiver.id = :ownerId and t.listing = c.listing and t.sender = c.counterpart)")
+    int recountUnreadForMessages(@Param("ownerId") Long ownerId, @Param("messageIds") Collection<Long> messageIds);
+}
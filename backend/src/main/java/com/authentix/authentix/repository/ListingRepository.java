@@ -1,23 +1,159 @@
 package com.authentix.authentix.repository;
 
+import com.authentix.authentix.dto.ListingSummary;
 import com.authentix.authentix.entity.Listing;
+import com.authentix.authentix.geo.ListingLocation;
 import com.authentix.authentix.entity.ListingStatus;
 import com.authentix.authentix.entity.ShippingOption;
+import com.authentix.authentix.search.SearchDocument;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ListingRepository extends JpaRepository<Listing, Long> {
     Page<Listing> findByStatusOrderByCreatedAtDesc(ListingStatus status, Pageable pageable);
     Page<Listing> findByStatusAndCategoryIdOrderByCreatedAtDesc(ListingStatus status, Long categoryId, Pageable pageable);
     Page<Listing> findByStatusAndShippingOptionOrderByCreatedAtDesc(ListingStatus status, ShippingOption shippingOption, Pageable pageable);
     Page<Listing> findByStatusAndCategoryIdAndShippingOptionOrderByCreatedAtDesc(ListingStatus status, Long categoryId, ShippingOption shippingOption, Pageable pageable);
-    List<Listing> findBySellerIdOrderByCreatedAtDesc(Long sellerId);
     Page<Listing> findByStatusAndCategoryIdAndIdNotOrderByCreatedAtDesc(ListingStatus status, Long categoryId, Long excludeId, Pageable pageable);
     Page<Listing> findByStatusAndCategoryIdInOrderByCreatedAtDesc(ListingStatus status, List<Long> categoryIds, Pageable pageable);
     Page<Listing> findByStatusAndCategoryIdInAndShippingOptionOrderByCreatedAtDesc(ListingStatus status, List<Long> categoryIds, ShippingOption shippingOption, Pageable pageable);
 
     Page<Listing> findByStatusAndZipCodeOrderByCreatedAtDesc(ListingStatus status, String zipCode, Pageable pageable);
+
+    // Feed read path: one statement per page, projected straight into ListingSummary (cover image = sort_order 0).
+    // The feed variants return a Slice: one statement fetching a row past the page to tell whether another follows.
+
+    String SUMMARY_SELECT = "select new com.authentix.authentix.dto.ListingSummary("
+            + "l.id, c.id, c.name, l.title, l.price, l.condition, img, l.status, l.shippingOption, l.zipCode, l.city, l.state, "
+            + "s.id, s.displayName, s.profilePhotoUrl, s.stripeConnectAccountId, l.createdAt) "
+            + "from Listing l join l.category c join l.seller s left join l.images img on index(img) = 0 ";
+    String NEWEST_FIRST = " order by l.createdAt desc, l.id desc";
+
+    @Query(SUMMARY_SELECT + "where l.status = :status" + NEWEST_FIRST)
+    Slice<ListingSummary> findSummariesByStatus(@Param("status") ListingStatus status, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where l.status = :status and c.id in :categoryIds" + NEWEST_FIRST)
+    Slice<ListingSummary> findSummariesByStatusAndCategoryIdIn(@Param("status") ListingStatus status,
+                                                               @Param("categoryIds") List<Long> categoryIds, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where l.status = :status and l.shippingOption = :shippingOption" + NEWEST_FIRST)
+    Slice<ListingSummary> findSummariesByStatusAndShippingOption(@Param("status") ListingStatus status,
+                                                                 @Param("shippingOption") ShippingOption shippingOption, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where l.status = :status and c.id in :categoryIds and l.shippingOption = :shippingOption" + NEWEST_FIRST)
+    Slice<ListingSummary> findSummariesByStatusAndCategoryIdInAndShippingOption(@Param("status") ListingStatus status,
+                                                                                @Param("categoryIds") List<Long> categoryIds,
+                                                                                @Param("shippingOption") ShippingOption shippingOption,
+                                                                                Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where l.status = :status and l.zipCode = :zipCode" + NEWEST_FIRST)
+    List<ListingSummary> findSummariesByStatusAndZipCode(@Param("status") ListingStatus status,
+                                                         @Param("zipCode") String zipCode, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where s.id = :sellerId and l.status <> com.authentix.authentix.entity.ListingStatus.REMOVED" + NEWEST_FIRST)
+    List<ListingSummary> findSummariesBySellerIdExcludingRemoved(@Param("sellerId") Long sellerId);
+
+    /** Same category as the given listing, excluding it; resolved with a subquery so it stays one statement. */
+    @Query(SUMMARY_SELECT + "where l.status = :status and l.id <> :listingId"
+            + " and c.id = (select l2.category.id from Listing l2 where l2.id = :listingId)" + NEWEST_FIRST)
+    List<ListingSummary> findSummariesSimilarTo(@Param("status") ListingStatus status,
+                                                @Param("listingId") Long listingId, Pageable pageable);
+
+    /** Listings in any category the user has watched something in. */
+    @Query(SUMMARY_SELECT + "where l.status = :status and c.id in "
+            + "(select wl.category.id from Watchlist w join w.listing wl where w.user.id = :userId)" + NEWEST_FIRST)
+    List<ListingSummary> findSummariesInWatchedCategories(@Param("status") ListingStatus status,
+                                                          @Param("userId") Long userId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where l.id in :ids")
+    List<ListingSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /** Search index source rows, paged by id so the startup rebuild never loads the table in one go. */
+    @Query("select new com.authentix.authentix.search.SearchDocument("
+            + "l.id, l.title, l.description, c.name, l.condition, c.id, l.price, l.shippingOption, l.createdAt) "
+            + "from Listing l join l.category c where l.status = :status and l.id > :afterId order by l.id")
+    List<SearchDocument> findSearchDocuments(@Param("status") ListingStatus status, @Param("afterId") Long afterId, Pageable pageable);
+
+    /** Geo index source rows, paged by id like {@link #findSearchDocuments}. */
+    @Query("select new com.authentix.authentix.geo.ListingLocation(l.id, l.zipCode, l.createdAt) "
+            + "from Listing l where l.status = :status and l.id > :afterId order by l.id")
+    List<ListingLocation> findListingLocations(@Param("status") ListingStatus status, @Param("afterId") Long afterId, Pageable pageable);
+
+    /** Watched listings that are no longer in the given status; the recommendation graph never suggests them. */
+    @Query("select l.id from Listing l where l.status <> :status"
+            + " and (l.id in (select w.listing.id from Watchlist w)"
+            + " or l.id in (select i.listing.id from WatchlistItem i))")
+    List<Long> findWatchedIdsByStatusNot(@Param("status") ListingStatus status);
+
+    @Query(SUMMARY_SELECT + "where l.status = :status" + NEWEST_FIRST)
+    List<ListingSummary> findNewestSummaries(@Param("status") ListingStatus status, Pageable pageable);
+
+    // Keyset (seek) feed: rows strictly after the (createdAt, id) cursor, newest first. Returned as a Slice,
+    // so Spring Data fetches size + 1 rows to detect a next page and never issues a count query.
+    // Backed by idx_listings_status_created_at_id.
+
+    String AFTER_CURSOR = " and (l.createdAt < :createdAt or (l.createdAt = :createdAt and l.id < :id))";
+
+    @Query(SUMMARY_SELECT + "where l.status = :status" + AFTER_CURSOR + NEWEST_FIRST)
+    Slice<ListingSummary> findSummariesByStatusAfter(@Param("status") ListingStatus status,
+                                                     @Param("createdAt") Instant createdAt, @Param("id") Long id,
+                                                     Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where l.status = :status and c.id in :categoryIds" + AFTER_CURSOR + NEWEST_FIRST)
+    Slice<ListingSummary> findSummariesByStatusAndCategoryIdInAfter(@Param("status") ListingStatus status,
+                                                                    @Param("categoryIds") List<Long> categoryIds,
+                                                                    @Param("createdAt") Instant createdAt, @Param("id") Long id,
+                                                                    Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where l.status = :status and l.shippingOption = :shippingOption" + AFTER_CURSOR + NEWEST_FIRST)
+    Slice<ListingSummary> findSummariesByStatusAndShippingOptionAfter(@Param("status") ListingStatus status,
+                                                                      @Param("shippingOption") ShippingOption shippingOption,
+                                                                      @Param("createdAt") Instant createdAt, @Param("id") Long id,
+                                                                      Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where l.status = :status and c.id in :categoryIds and l.shippingOption = :shippingOption" + AFTER_CURSOR + NEWEST_FIRST)
+    Slice<ListingSummary> findSummariesByStatusAndCategoryIdInAndShippingOptionAfter(@Param("status") ListingStatus status,
+                                                                                     @Param("categoryIds") List<Long> categoryIds,
+                                                                                     @Param("shippingOption") ShippingOption shippingOption,
+                                                                                     @Param("createdAt") Instant createdAt, @Param("id") Long id,
+                                                                                     Pageable pageable);
+
+    /**
+     * A listing with its seller, category and images in one statement, for the detail view. Read-write
+     * so it runs on the primary: the detail cache refills right after a change and must not cache a
+     * lagging replica's copy.
+     */
+    @Transactional
+    @EntityGraph(attributePaths = {"seller", "category", "images"})
+    @Query("select l from Listing l where l.id = :id")
+    Optional<Listing> findDetailById(@Param("id") Long id);
+
+    // Purchase holds. Each is one conditional statement committed on its own, so no row lock is held
+    // while the caller talks to Stripe. Both bump the version so stale entity copies fail on save.
+
+    /** Takes or extends the buyer's hold on an ACTIVE listing; 0 if another buyer holds it or it is not ACTIVE. */
+    @Transactional
+    @Modifying
+    @Query("update Listing l set l.heldByUserId = :buyerId, l.heldUntil = :until, l.version = l.version + 1"
+            + " where l.id = :id and l.status = com.authentix.authentix.entity.ListingStatus.ACTIVE"
+            + " and (l.heldUntil is null or l.heldUntil <= :now or l.heldByUserId = :buyerId)")
+    int claimHold(@Param("id") Long id, @Param("buyerId") Long buyerId, @Param("now") Instant now, @Param("until") Instant until);
+
+    @Transactional
+    @Modifying
+    @Query("update Listing l set l.heldByUserId = null, l.heldUntil = null, l.version = l.version + 1"
+            + " where l.id = :id and l.heldByUserId = :buyerId")
+    int releaseHold(@Param("id") Long id, @Param("buyerId") Long buyerId);
 }
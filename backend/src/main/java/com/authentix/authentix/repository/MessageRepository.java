@@ -1,12 +1,82 @@
 package com.authentix.authentix.repository;
 
 import com.authentix.authentix.entity.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
-    List<Message> findByReceiverIdOrderByCreatedAtDesc(Long receiverId);
     List<Message> findByListingIdAndSenderIdOrderByCreatedAtAsc(Long listingId, Long senderId);
     List<Message> findByListingIdAndReceiverIdOrderByCreatedAtAsc(Long listingId, Long receiverId);
+
+    /** Messages received after the given id, oldest first, with listing and sender loaded for the DTO. */
+    @Query("select m from Message m join fetch m.listing join fetch m.sender"
+            + " where m.receiver.id = :receiverId and m.id > :afterId and m.deleted = false order by m.id")
+    List<Message> findReceivedAfter(@Param("receiverId") Long receiverId, @Param("afterId") Long afterId, Pageable pageable);
+
+    /** Newest-first page of the inbox (or the archive) below beforeId, with listing and sender loaded for the DTO. */
+    @Query("select m from Message m join fetch m.listing join fetch m.sender"
+            + " where m.receiver.id = :receiverId and m.id < :beforeId and m.archived = :archived and m.deleted = false"
+            + " order by m.id desc")
+    List<Message> findReceivedBefore(@Param("receiverId") Long receiverId, @Param("beforeId") Long beforeId,
+                                     @Param("archived") boolean archived, Pageable pageable);
+
+    /** Newest-first page of the messages between two users about one listing, below beforeId. */
+    @Query("select m from Message m join fetch m.listing join fetch m.sender"
+            + " where m.listing.id = :listingId and m.id < :beforeId"
+            + " and ((m.sender.id = :userId and m.receiver.id = :counterpartId)"
+            + " or (m.sender.id = :counterpartId and m.receiver.id = :userId and m.deleted = false))"
+            + " order by m.id desc")
+    List<Message> findThreadBefore(@Param("listingId") Long listingId, @Param("userId") Long userId,
+                                   @Param("counterpartId") Long counterpartId, @Param("beforeId") Long beforeId,
+                                   Pageable pageable);
+
+    // Bulk receiver-side updates: one statement each, never touching other users' messages. The
+    // thread variants cover everything the counterpart sent the receiver about the listing.
+
+    @Modifying
+    @Query("update Message m set m.read = true"
+            + " where m.receiver.id = :receiverId and m.id in :ids and m.read = false and m.deleted = false")
+    int markReadByIds(@Param("receiverId") Long receiverId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Message m set m.read = true"
+            + " where m.receiver.id = :receiverId and m.read = false and m.deleted = false")
+    int markAllRead(@Param("receiverId") Long receiverId);
+
+    @Modifying
+    @Query("update Message m set m.read = true"
+            + " where m.receiver.id = :receiverId and m.listing.id = :listingId and m.sender.id = :senderId"
+            + " and m.read = false and m.deleted = false")
+    int markReadInThread(@Param("receiverId") Long receiverId, @Param("listingId") Long listingId,
+                         @Param("senderId") Long senderId);
+
+    @Modifying
+    @Query("update Message m set m.archived = true"
+            + " where m.receiver.id = :receiverId and m.id in :ids and m.archived = false and m.deleted = false")
+    int archiveByIds(@Param("receiverId") Long receiverId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Message m set m.archived = true"
+            + " where m.receiver.id = :receiverId and m.listing.id = :listingId and m.sender.id = :senderId"
+            + " and m.archived = false and m.deleted = false")
+    int archiveInThread(@Param("receiverId") Long receiverId, @Param("listingId") Long listingId,
+                        @Param("senderId") Long senderId);
+
+    @Modifying
+    @Query("update Message m set m.deleted = true"
+            + " where m.receiver.id = :receiverId and m.id in :ids and m.deleted = false")
+    int deleteByIds(@Param("receiverId") Long receiverId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Message m set m.deleted = true"
+            + " where m.receiver.id = :receiverId and m.listing.id = :listingId and m.sender.id = :senderId"
+            + " and m.deleted = false")
+    int deleteInThread(@Param("receiverId") Long receiverId, @Param("listingId") Long listingId,
+                       @Param("senderId") Long senderId);
 }
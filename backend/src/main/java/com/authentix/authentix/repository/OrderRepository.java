@@ -2,10 +2,28 @@ package com.authentix.authentix.repository;
 
 import com.authentix.authentix.entity.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-    Optional<Order> findByStripePaymentIntentId(String stripePaymentIntentId);
+    /** Number of the buyer's orders for one listing that failed. */
+    record FailedCount(Long listingId, long count) {}
+
+    List<Order> findAllByStripePaymentIntentId(String stripePaymentIntentId);
+
+    /** Read-write so it runs on the primary: checkout must see orders recorded or failed moments ago. */
+    @Transactional
+    List<Order> findAllByStripePaymentIntentIdIn(Collection<String> stripePaymentIntentIds);
+
+    /** Failed orders per listing for the buyer, on the primary; listings without any are left out. */
+    @Transactional
+    @Query("select new com.authentix.authentix.repository.OrderRepository$FailedCount(o.listing.id, count(o))"
+            + " from Order o where o.buyer.id = :buyerId and o.listing.id in :listingIds"
+            + " and o.status = com.authentix.authentix.entity.OrderStatus.FAILED group by o.listing.id")
+    List<FailedCount> countFailedByListing(@Param("buyerId") Long buyerId, @Param("listingIds") Collection<Long> listingIds);
 }
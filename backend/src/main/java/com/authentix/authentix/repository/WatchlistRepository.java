@@ -1,7 +1,11 @@
 package com.authentix.authentix.repository;
 
 import com.authentix.authentix.entity.Watchlist;
+import com.authentix.authentix.recommend.WatchPair;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,4 +15,11 @@ public interface WatchlistRepository extends JpaRepository<Watchlist, Long> {
     Optional<Watchlist> findByUserIdAndListingId(Long userId, Long listingId);
     boolean existsByUserIdAndListingId(Long userId, Long listingId);
     void deleteByUser_IdAndListing_Id(Long userId, Long listingId);
+
+    @Query("select w.listing.id from Watchlist w where w.user.id = :userId")
+    List<Long> findListingIdsByUserId(@Param("userId") Long userId);
+
+    @Query("select new com.authentix.authentix.recommend.WatchPair(w.id, w.user.id, w.listing.id) "
+            + "from Watchlist w where w.id > :afterId order by w.id")
+    List<WatchPair> findWatchPairs(@Param("afterId") Long afterId, Pageable pageable);
 }
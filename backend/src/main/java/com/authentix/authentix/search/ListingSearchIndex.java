@@ -0,0 +1,202 @@
+package com.authentix.authentix.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over ACTIVE listings (title, description, category name, condition),
+ * ranked with BM25. Terms live in a sorted map so a query token also matches every term it is a
+ * prefix of ("char" finds "charizard"). Reads share a lock; updates and rebuilds take it exclusively.
+ */
+@Component
+public class ListingSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    /** Field boosts, applied as repeated term occurrences. */
+    private static final int TITLE_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int CONDITION_WEIGHT = 1;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    /** Prefix expansions score lower than an exact term match. */
+    private static final double PREFIX_FACTOR = 0.7;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private Map<Long, Doc> docs = new HashMap<>();
+    private long totalLength;
+
+    private record Doc(SearchDocument source, Map<String, Integer> termFreqs, int length) {}
+
+    /** Adds or replaces a listing. */
+    public void put(SearchDocument document) {
+        Doc doc = analyze(document);
+        lock.writeLock().lock();
+        try {
+            removeInternal(document.id());
+            addInternal(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long listingId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(listingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Replaces the whole index; the new one is built off-lock and swapped in. */
+    public void replaceAll(Collection<SearchDocument> documents) {
+        TreeMap<String, Map<Long, Integer>> newPostings = new TreeMap<>();
+        Map<Long, Doc> newDocs = new HashMap<>();
+        long newLength = 0;
+        for (SearchDocument document : documents) {
+            Doc doc = analyze(document);
+            newDocs.put(document.id(), doc);
+            newLength += doc.length();
+            doc.termFreqs().forEach((term, tf) -> newPostings.computeIfAbsent(term, t -> new HashMap<>()).put(document.id(), tf));
+        }
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            docs = newDocs;
+            totalLength = newLength;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks matching listings. Every query token must match (exactly or as a prefix); a blank query
+     * matches all listings that pass the filters, newest first.
+     */
+    public SearchHits search(SearchQuery query, int offset, int limit) {
+        List<String> tokens = SearchTokenizer.tokenize(query.text());
+        lock.readLock().lock();
+        try {
+            List<Map.Entry<Long, Double>> ranked;
+            if (tokens.isEmpty()) {
+                ranked = new ArrayList<>();
+                for (Doc doc : docs.values()) {
+                    if (passesFilters(doc.source(), query)) {
+                        ranked.add(Map.entry(doc.source().id(), (double) doc.source().createdAt().toEpochMilli()));
+                    }
+                }
+            } else {
+                Map<Long, Double> scores = null;
+                for (String token : new LinkedHashSet<>(tokens)) {
+                    Map<Long, Double> tokenScores = scoreToken(token, query);
+                    if (scores == null) {
+                        scores = tokenScores;
+                    } else {
+                        Map<Long, Double> merged = new HashMap<>();
+                        for (Map.Entry<Long, Double> e : scores.entrySet()) {
+                            Double s = tokenScores.get(e.getKey());
+                            if (s != null) merged.put(e.getKey(), e.getValue() + s);
+                        }
+                        scores = merged;
+                    }
+                    if (scores.isEmpty()) break;
+                }
+                ranked = new ArrayList<>(scores.entrySet());
+            }
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+            int from = Math.min(offset, ranked.size());
+            int to = Math.min(from + limit, ranked.size());
+            return new SearchHits(ranked.subList(from, to).stream().map(Map.Entry::getKey).toList(), ranked.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Best BM25 score per document for one query token across its exact and prefix-matched terms. */
+    private Map<Long, Double> scoreToken(String token, SearchQuery query) {
+        Map<Long, Double> scores = new HashMap<>();
+        int n = docs.size();
+        double avgLength = n == 0 ? 1 : (double) totalLength / n;
+        SortedMap<String, Map<Long, Integer>> candidates = token.length() >= MIN_PREFIX_LENGTH
+                ? postings.subMap(token, token + Character.MAX_VALUE)
+                : postings.subMap(token, true, token, true);
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Integer>> entry : candidates.entrySet()) {
+            boolean exact = entry.getKey().equals(token);
+            // The exact term sorts first, so everything past the cap is another expansion.
+            if (!exact && ++expansions > MAX_PREFIX_EXPANSIONS) break;
+            Map<Long, Integer> docFreqs = entry.getValue();
+            double idf = Math.log(1 + (n - docFreqs.size() + 0.5) / (docFreqs.size() + 0.5));
+            double factor = exact ? 1.0 : PREFIX_FACTOR;
+            for (Map.Entry<Long, Integer> posting : docFreqs.entrySet()) {
+                Doc doc = docs.get(posting.getKey());
+                if (!passesFilters(doc.source(), query)) continue;
+                int tf = posting.getValue();
+                double score = factor * idf * (tf * (K1 + 1)) / (tf + K1 * (1 - B + B * doc.length() / avgLength));
+                scores.merge(posting.getKey(), score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private static boolean passesFilters(SearchDocument doc, SearchQuery query) {
+        if (query.shippingOption() != null && query.shippingOption() != doc.shippingOption()) return false;
+        if (query.categoryIds() != null && !query.categoryIds().contains(doc.categoryId())) return false;
+        if (query.minPrice() != null && (doc.price() == null || doc.price().compareTo(query.minPrice()) < 0)) return false;
+        if (query.maxPrice() != null && (doc.price() == null || doc.price().compareTo(query.maxPrice()) > 0)) return false;
+        return true;
+    }
+
+    private static Doc analyze(SearchDocument document) {
+        Map<String, Integer> tf = new HashMap<>();
+        int length = 0;
+        length += addField(tf, document.title(), TITLE_WEIGHT);
+        length += addField(tf, document.categoryName(), CATEGORY_WEIGHT);
+        length += addField(tf, document.condition(), CONDITION_WEIGHT);
+        length += addField(tf, document.description(), DESCRIPTION_WEIGHT);
+        return new Doc(document, tf, Math.max(length, 1));
+    }
+
+    private static int addField(Map<String, Integer> tf, String text, int weight) {
+        List<String> tokens = SearchTokenizer.tokenize(text);
+        for (String token : tokens) {
+            tf.merge(token, weight, Integer::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    private void addInternal(Doc doc) {
+        Long id = doc.source().id();
+        docs.put(id, doc);
+        totalLength += doc.length();
+        doc.termFreqs().forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, tf));
+    }
+
+    private void removeInternal(Long id) {
+        Doc old = docs.remove(id);
+        if (old == null) return;
+        totalLength -= old.length();
+        for (String term : old.termFreqs().keySet()) {
+            Map<Long, Integer> docFreqs = postings.get(term);
+            if (docFreqs != null) {
+                docFreqs.remove(id);
+                if (docFreqs.isEmpty()) postings.remove(term);
+            }
+        }
+    }
+}
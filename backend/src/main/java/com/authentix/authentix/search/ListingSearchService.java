@@ -0,0 +1,74 @@
+package com.authentix.authentix.search;
+
+import com.authentix.authentix.dto.ListingDto;
+import com.authentix.authentix.dto.ListingSummary;
+import com.authentix.authentix.entity.ListingStatus;
+import com.authentix.authentix.entity.ShippingOption;
+import com.authentix.authentix.repository.ListingRepository;
+import com.authentix.authentix.service.CategoryTree;
+import com.authentix.authentix.service.ListingChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ListingSearchService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ListingSearchIndex index;
+    private final ListingRepository listingRepository;
+    private final CategoryTree categoryTree;
+
+    /**
+     * Ranked search over ACTIVE listings. The index picks the ids for the page; the cards are then
+     * loaded with one projection query and returned in ranking order. size is clamped to 1..100.
+     */
+    public Page<ListingDto> search(String q, BigDecimal minPrice, BigDecimal maxPrice, Long categoryId,
+                                   ShippingOption shippingOption, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        size = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        SearchQuery query = new SearchQuery(q, minPrice, maxPrice,
+                categoryId != null ? new HashSet<>(categoryTree.subtreeIds(categoryId)) : null,
+                shippingOption);
+        SearchHits hits = index.search(query, (int) Math.min((long) page * size, Integer.MAX_VALUE), size);
+        List<ListingDto> content = List.of();
+        if (!hits.ids().isEmpty()) {
+            Map<Long, ListingSummary> byId = listingRepository.findSummariesByIdIn(hits.ids()).stream()
+                    .collect(Collectors.toMap(ListingSummary::id, Function.identity()));
+            content = hits.ids().stream()
+                    .map(byId::get)
+                    .filter(s -> s != null && s.status() == ListingStatus.ACTIVE)
+                    .map(ListingDto::fromSummary)
+                    .toList();
+        }
+        return new PageImpl<>(content, PageRequest.of(page, size), hits.total());
+    }
+
+    /**
+     * Reflects a created/updated listing in the index once the surrounding transaction commits
+     * (immediately if there is none). Only ACTIVE listings are searchable.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        if (event.isActive()) {
+            index.put(new SearchDocument(event.id(), event.title(), event.description(), event.categoryName(),
+                    event.condition(), event.categoryId(), event.price(), event.shippingOption(), event.createdAt()));
+        } else {
+            index.remove(event.id());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.authentix.authentix.search;
+
+import com.authentix.authentix.entity.ShippingOption;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/** The fields of an ACTIVE listing that the search index needs; filled by a projection query or from an entity. */
+public record SearchDocument(
+    Long id,
+    String title,
+    String description,
+    String categoryName,
+    String condition,
+    Long categoryId,
+    BigDecimal price,
+    ShippingOption shippingOption,
+    Instant createdAt
+) {}
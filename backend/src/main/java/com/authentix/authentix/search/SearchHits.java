@@ -0,0 +1,6 @@
+package com.authentix.authentix.search;
+
+import java.util.List;
+
+/** One page of ranked listing ids and the total number of matches. */
+public record SearchHits(List<Long> ids, int total) {}
@@ -0,0 +1,40 @@
+package com.authentix.authentix.search;
+
+import com.authentix.authentix.entity.ListingStatus;
+import com.authentix.authentix.repository.ListingRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Builds the search index from MySQL at startup, reading ACTIVE listings in id-ordered batches. */
+@Component
+@RequiredArgsConstructor
+public class SearchIndexLoader implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexLoader.class);
+    private static final int BATCH_SIZE = 1000;
+
+    private final ListingRepository listingRepository;
+    private final ListingSearchIndex index;
+
+    @Override
+    public void run(String... args) {
+        long start = System.nanoTime();
+        List<SearchDocument> all = new ArrayList<>();
+        long afterId = 0;
+        while (true) {
+            List<SearchDocument> batch = listingRepository.findSearchDocuments(ListingStatus.ACTIVE, afterId, PageRequest.of(0, BATCH_SIZE));
+            all.addAll(batch);
+            if (batch.size() < BATCH_SIZE) break;
+            afterId = batch.get(batch.size() - 1).id();
+        }
+        index.replaceAll(all);
+        log.info("Search index built: {} listings in {} ms", all.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
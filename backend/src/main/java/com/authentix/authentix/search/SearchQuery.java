@@ -0,0 +1,15 @@
+package com.authentix.authentix.search;
+
+import com.authentix.authentix.entity.ShippingOption;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/** Free text plus optional filters; a null filter matches everything. */
+public record SearchQuery(
+    String text,
+    BigDecimal minPrice,
+    BigDecimal maxPrice,
+    Set<Long> categoryIds,
+    ShippingOption shippingOption
+) {}
@@ -21,6 +21,7 @@ import java.util.Collections;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Override
     protected void doFilterInternal(
@@ -33,18 +34,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
         String token = authHeader.substring(7);
-        if (!jwtUtil.validateToken(token)) {
+        AuthenticatedUser user = authenticate(token);
+        if (user == null) {
             filterChain.doFilter(request, response);
             return;
         }
-        Long userId = jwtUtil.getUserIdFromToken(token);
-        String email = jwtUtil.getEmailFromToken(token);
         var auth = new UsernamePasswordAuthenticationToken(
-                new AuthenticatedUser(userId, email),
+                user,
                 null,
                 Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
         auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
         SecurityContextHolder.getContext().setAuthentication(auth);
         filterChain.doFilter(request, response);
     }
+
+    /** Cached user for a recently seen token; otherwise one parse and verification, then cached. */
+    private AuthenticatedUser authenticate(String token) {
+        AuthenticatedUser cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        JwtUtil.VerifiedToken verified = jwtUtil.verify(token).orElse(null);
+        if (verified == null) {
+            return null;
+        }
+        AuthenticatedUser user = new AuthenticatedUser(verified.userId(), verified.email());
+        verifiedTokenCache.put(token, user, verified.expiresAt().toEpochMilli());
+        return user;
+    }
 }
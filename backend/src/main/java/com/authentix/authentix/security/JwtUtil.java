@@ -1,6 +1,7 @@
 package com.authentix.authentix.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,21 +9,29 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 public class JwtUtil {
 
     private final SecretKey key;
     private final long expirationMs;
+    /** Immutable and thread-safe, so it is built once rather than per parse. */
+    private final JwtParser parser;
 
     public JwtUtil(
             @Value("${jwt.secret}") String secret,
             @Value("${jwt.expiration-ms}") long expirationMs) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parser().verifyWith(key).build();
     }
 
+    /** The fields the app reads from a token whose signature and expiry have been checked. */
+    public record VerifiedToken(Long userId, String email, Instant expiresAt) {}
+
     public String generateToken(String email, Long userId) {
         return Jwts.builder()
                 .subject(email)
@@ -34,11 +43,21 @@ public class JwtUtil {
     }
 
     public Claims parseToken(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    /** Parses and verifies the token once; empty if it is malformed, tampered with or expired. */
+    public Optional<VerifiedToken> verify(String token) {
+        try {
+            Claims claims = parseToken(token);
+            Date expiration = claims.getExpiration();
+            return Optional.of(new VerifiedToken(
+                    claims.get("userId", Long.class),
+                    claims.getSubject(),
+                    expiration != null ? expiration.toInstant() : Instant.now().plusMillis(expirationMs)));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
     }
 
     public String getEmailFromToken(String token) {
@@ -50,11 +69,6 @@ public class JwtUtil {
     }
 
     public boolean validateToken(String token) {
-        try {
-            parseToken(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return verify(token).isPresent();
     }
 }
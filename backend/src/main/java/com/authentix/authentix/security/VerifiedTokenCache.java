@@ -0,0 +1,73 @@
+package com.authentix.authentix.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recently verified bearer tokens, so repeat requests from the same session skip JWT parsing and
+ * HMAC verification. Keyed by the token's SHA-256 digest (raw tokens are never held) and bounded in
+ * size; an entry is only served until the token's own expiry.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private record Entry(AuthenticatedUser user, long expiresAtMillis) {}
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public VerifiedTokenCache(@Value("${app.jwt.verified-cache-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /** The cached user for this token, or null if it was not verified recently or has expired since. */
+    public AuthenticatedUser get(String token) {
+        if (maxSize <= 0) return null;
+        String digest = digest(token);
+        Entry entry = entries.get(digest);
+        if (entry == null) return null;
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(digest, entry);
+            return null;
+        }
+        return entry.user();
+    }
+
+    public void put(String token, AuthenticatedUser user, long expiresAtMillis) {
+        if (maxSize <= 0) return;
+        if (entries.size() >= maxSize) evict();
+        entries.put(digest(token), new Entry(user, expiresAtMillis));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Drops expired entries; if that frees too little, drops arbitrary ones down to 3/4 capacity. */
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(e -> e.expiresAtMillis() <= now);
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() > maxSize * 3 / 4 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
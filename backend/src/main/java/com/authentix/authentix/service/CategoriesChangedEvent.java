@@ -0,0 +1,4 @@
+package com.authentix.authentix.service;
+
+/** Published after the categories table changed and {@link CategoryTree} was reloaded. */
+public record CategoriesChangedEvent() {}
@@ -0,0 +1,125 @@
+package com.authentix.authentix.service;
+
+import com.authentix.authentix.entity.Category;
+import com.authentix.authentix.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * In-memory copy of the categories table. The whole tree is built into an immutable snapshot and
+ * swapped atomically, so reads never touch MySQL or take a lock. Each node carries the ids of its
+ * entire subtree (any depth), so filtering a feed by a parent category is a single map lookup.
+ *
+ * The table is only written by {@link com.authentix.authentix.config.CategoryDataLoader} and migrations;
+ * call {@link #invalidate()} after changing it.
+ */
+@Service
+@RequiredArgsConstructor
+public class CategoryTree {
+
+    private final CategoryRepository categoryRepository;
+
+    private volatile Snapshot snapshot;
+
+    /** Root categories ordered by name, in the shape returned by /api/categories. */
+    public List<Map<String, Object>> roots() {
+        return current().roots;
+    }
+
+    /** Direct children of a category ordered by name; empty for leaves and unknown ids. */
+    public List<Map<String, Object>> children(Long parentId) {
+        Node node = current().byId.get(parentId);
+        return node != null ? node.childViews : List.of();
+    }
+
+    public Optional<Map<String, Object>> get(Long id) {
+        Node node = current().byId.get(id);
+        return node != null ? Optional.of(node.view) : Optional.empty();
+    }
+
+    /** The category id plus all of its descendants. Unknown ids resolve to themselves. */
+    public List<Long> subtreeIds(Long id) {
+        Node node = current().byId.get(id);
+        return node != null ? node.subtreeIds : List.of(id);
+    }
+
+    /** Reloads the tree from the database and publishes it as the new snapshot. */
+    public synchronized void invalidate() {
+        snapshot = Snapshot.build(categoryRepository.findAll());
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    invalidate();
+                }
+                s = snapshot;
+            }
+        }
+        return s;
+    }
+
+    private static final class Node {
+        final Category category;
+        final List<Node> children = new ArrayList<>();
+        Map<String, Object> view;
+        List<Map<String, Object>> childViews;
+        List<Long> subtreeIds;
+
+        Node(Category category) {
+            this.category = category;
+        }
+    }
+
+    private record Snapshot(Map<Long, Node> byId, List<Map<String, Object>> roots) {
+
+        static Snapshot build(List<Category> categories) {
+            Map<Long, Node> byId = new HashMap<>();
+            for (Category c : categories) {
+                Node node = new Node(c);
+                Map<String, Object> view = new LinkedHashMap<>();
+                view.put("id", c.getId());
+                view.put("name", c.getName());
+                view.put("slug", c.getSlug());
+                view.put("parentId", c.getParentId());
+                node.view = Collections.unmodifiableMap(view);
+                byId.put(c.getId(), node);
+            }
+            List<Node> roots = new ArrayList<>();
+            for (Node node : byId.values()) {
+                Node parent = node.category.getParentId() != null ? byId.get(node.category.getParentId()) : null;
+                if (parent != null) {
+                    parent.children.add(node);
+                } else if (node.category.getParentId() == null) {
+                    roots.add(node);
+                }
+            }
+            Comparator<Node> byName = Comparator.comparing(n -> n.category.getName());
+            roots.sort(byName);
+            for (Node node : byId.values()) {
+                node.children.sort(byName);
+                node.childViews = node.children.stream().map(n -> n.view).toList();
+                node.subtreeIds = collectSubtree(node);
+            }
+            return new Snapshot(Map.copyOf(byId), roots.stream().map(n -> n.view).toList());
+        }
+
+        private static List<Long> collectSubtree(Node root) {
+            List<Long> ids = new ArrayList<>();
+            Set<Long> visited = new HashSet<>();
+            Deque<Node> stack = new ArrayDeque<>();
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                Node node = stack.pop();
+                if (!visited.add(node.category.getId())) continue;
+                ids.add(node.category.getId());
+                node.children.forEach(stack::push);
+            }
+            return List.copyOf(ids);
+        }
+    }
+}
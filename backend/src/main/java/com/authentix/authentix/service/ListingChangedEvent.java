@@ -0,0 +1,48 @@
+package com.authentix.authentix.service;
+
+import com.authentix.authentix.entity.Listing;
+import com.authentix.authentix.entity.ListingStatus;
+import com.authentix.authentix.entity.ShippingOption;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Published whenever a listing is created or its fields or status change. Carries a snapshot taken
+ * inside the transaction, so after-commit listeners (the in-memory indexes) never touch lazy associations.
+ */
+public record ListingChangedEvent(
+    Long id,
+    ListingStatus status,
+    String title,
+    String description,
+    Long categoryId,
+    String categoryName,
+    String condition,
+    BigDecimal price,
+    ShippingOption shippingOption,
+    String zipCode,
+    Long sellerId,
+    Instant createdAt
+) {
+
+    public static ListingChangedEvent of(Listing listing) {
+        return new ListingChangedEvent(
+                listing.getId(),
+                listing.getStatus(),
+                listing.getTitle(),
+                listing.getDescription(),
+                listing.getCategory().getId(),
+                listing.getCategory().getName(),
+                listing.getCondition(),
+                listing.getPrice(),
+                listing.getShippingOption(),
+                listing.getZipCode(),
+                listing.getSeller().getId(),
+                listing.getCreatedAt());
+    }
+
+    public boolean isActive() {
+        return status == ListingStatus.ACTIVE;
+    }
+}
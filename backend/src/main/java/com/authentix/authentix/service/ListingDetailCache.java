@@ -0,0 +1,143 @@
+package com.authentix.authentix.service;
+
+import com.authentix.authentix.dto.ListingDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Listing detail DTOs by id. A miss is loaded once: requests for the same listing that arrive while
+ * it loads wait for that load instead of starting their own, so a burst of views on a listing that
+ * was just shared costs one query. Failed loads (e.g. not found) are not cached.
+ *
+ * Entries are dropped after any committed change to the listing ({@link ListingChangedEvent}) or to
+ * its seller's profile, and expire after {@code ttl} to bound staleness from other instances. A load
+ * that was running when its entry was dropped still answers its waiters but is not kept. Returned DTOs
+ * are shared; callers must not modify them.
+ */
+@Component
+public class ListingDetailCache {
+
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter waits;
+    private final Timer loads;
+
+    /** One listing's detail; created by the request that loads it and completed when the load ends. */
+    private static final class Slot {
+        final CompletableFuture<ListingDto> detail = new CompletableFuture<>();
+        volatile ListingDto loaded;
+        volatile long expiresAtMillis = Long.MAX_VALUE;
+    }
+
+    public ListingDetailCache(ObjectProvider<MeterRegistry> meterRegistry,
+                              @Value("${app.listing-cache.max-size:10000}") int maxSize,
+                              @Value("${app.listing-cache.ttl:60s}") Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.hits = result(registry, "hit");
+        this.misses = result(registry, "miss");
+        this.waits = result(registry, "wait");
+        this.loads = Timer.builder("app.listing.detail.cache.load")
+                .description("Time to load a listing detail on a cache miss")
+                .register(registry);
+        Gauge.builder("app.listing.detail.cache.size", slots, Map::size).register(registry);
+    }
+
+    /** The cached detail for id, or the result of loader, run at most once per id at a time. */
+    public ListingDto get(Long id, Function<Long, ListingDto> loader) {
+        while (true) {
+            Slot slot = slots.get(id);
+            if (slot != null && slot.expiresAtMillis <= System.currentTimeMillis()) {
+                slots.remove(id, slot);
+                continue;
+            }
+            if (slot == null) {
+                Slot created = new Slot();
+                if (slots.putIfAbsent(id, created) != null) continue;
+                return load(id, created, loader);
+            }
+            (slot.detail.isDone() ? hits : waits).increment();
+            try {
+                return slot.detail.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                throw e;
+            }
+        }
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        slots.remove(event.id());
+    }
+
+    /** Details embed the seller's name, photo and payout status; loads still running are dropped too. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        slots.values().removeIf(slot -> {
+            ListingDto loaded = slot.loaded;
+            return loaded == null || event.userId().equals(loaded.getSellerId());
+        });
+    }
+
+    private ListingDto load(Long id, Slot slot, Function<Long, ListingDto> loader) {
+        misses.increment();
+        long start = System.nanoTime();
+        ListingDto detail;
+        try {
+            detail = loader.apply(id);
+        } catch (RuntimeException e) {
+            slots.remove(id, slot);
+            slot.detail.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+        slot.loaded = detail;
+        slot.expiresAtMillis = System.currentTimeMillis() + ttlMillis;
+        slot.detail.complete(detail);
+        if (slots.size() > maxSize) evict();
+        return detail;
+    }
+
+    /** Drops expired entries; if that frees too little, drops arbitrary ones down to 3/4 capacity. */
+    private void evict() {
+        long now = System.currentTimeMillis();
+        slots.values().removeIf(slot -> slot.expiresAtMillis <= now);
+        Iterator<Slot> it = slots.values().iterator();
+        while (slots.size() > maxSize * 3 / 4 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static Counter result(MeterRegistry registry, String result) {
+        return Counter.builder("app.listing.detail.cache.requests")
+                .tag("result", result)
+                .description("Listing detail lookups: hit, miss (loaded) or wait (joined a load in progress)")
+                .register(registry);
+    }
+}
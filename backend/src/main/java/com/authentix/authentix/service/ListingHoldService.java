@@ -0,0 +1,62 @@
+package com.authentix.authentix.service;
+
+import com.authentix.authentix.repository.ListingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Short purchase holds on listings. A checkout claims the hold before creating its PaymentIntent, so
+ * of several buyers racing for one listing exactly one proceeds; the others are told it is reserved.
+ * The hold lapses on its own after {@code app.purchase.hold-ttl}, so an abandoned checkout frees the
+ * listing without any cleanup job.
+ */
+@Service
+public class ListingHoldService {
+
+    private final ListingRepository listingRepository;
+    private final Duration ttl;
+
+    public ListingHoldService(ListingRepository listingRepository,
+                              @Value("${app.purchase.hold-ttl:10m}") Duration ttl) {
+        this.listingRepository = listingRepository;
+        this.ttl = ttl;
+    }
+
+    /** Claims (or renews) the buyer's hold; throws if another buyer holds the listing or it is not ACTIVE. */
+    public void claim(Long listingId, Long buyerId) {
+        Instant now = Instant.now();
+        if (listingRepository.claimHold(listingId, buyerId, now, now.plus(ttl)) == 0) {
+            throw new IllegalArgumentException("Listing is reserved by another buyer or no longer available");
+        }
+    }
+
+    /** Claims every listing or none: on the first failure the holds taken so far are released. */
+    public void claimAll(Collection<Long> listingIds, Long buyerId) {
+        List<Long> claimed = new ArrayList<>(listingIds.size());
+        try {
+            for (Long listingId : listingIds) {
+                claim(listingId, buyerId);
+                claimed.add(listingId);
+            }
+        } catch (RuntimeException e) {
+            releaseAll(claimed, buyerId);
+            throw e;
+        }
+    }
+
+    public void release(Long listingId, Long buyerId) {
+        listingRepository.releaseHold(listingId, buyerId);
+    }
+
+    public void releaseAll(Collection<Long> listingIds, Long buyerId) {
+        for (Long listingId : listingIds) {
+            release(listingId, buyerId);
+        }
+    }
+}
@@ -1,25 +1,33 @@
 package com.authentix.authentix.service;
 
 import com.authentix.authentix.dto.CreateListingRequest;
+import com.authentix.authentix.dto.ListingCursor;
+import com.authentix.authentix.dto.ListingCursorPage;
 import com.authentix.authentix.dto.ListingDto;
+import com.authentix.authentix.dto.ListingSummary;
 import com.authentix.authentix.dto.UpdateListingRequest;
 import com.authentix.authentix.entity.*;
+import com.authentix.authentix.geo.NearbyListingService;
+import com.authentix.authentix.image.ImageService;
+import com.authentix.authentix.outbox.DomainEvent;
+import com.authentix.authentix.outbox.DomainEventOutbox;
 import com.authentix.authentix.repository.CategoryRepository;
 import com.authentix.authentix.repository.ListingRepository;
 import com.authentix.authentix.repository.UserRepository;
 import com.authentix.authentix.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -28,45 +36,96 @@ public class ListingService {
     private final ListingRepository listingRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
+    private final ImageService imageService;
+    private final CategoryTree categoryTree;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NearbyListingService nearbyListingService;
+    private final ListingDetailCache listingDetailCache;
+    private final DomainEventOutbox outbox;
 
     @Value("${app.admin-email:}")
     private String adminEmail;
 
+    @Value("${app.geo.default-radius-miles:25}")
+    private double defaultRadiusMiles;
+
+    @Value("${app.geo.max-radius-miles:250}")
+    private double maxRadiusMiles;
+
     private User getCurrentUser() {
         AuthenticatedUser auth = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         return userRepository.findById(auth.getUserId())
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
     }
 
-    public Page<ListingDto> getActiveListings(Long categoryId, ShippingOption shippingOption, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Listing> listings;
+    /**
+     * One offset page of the feed, newest first, in a single statement: the slice says whether another
+     * page follows but not how many there are.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ListingDto> getActiveListings(Long categoryId, ShippingOption shippingOption, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        Slice<ListingSummary> listings;
+        if (categoryId != null) {
+            List<Long> categoryIds = resolveCategoryIdsForFilter(categoryId);
+            if (shippingOption != null) {
+                listings = listingRepository.findSummariesByStatusAndCategoryIdInAndShippingOption(ListingStatus.ACTIVE, categoryIds, shippingOption, pageable);
+            } else {
+                listings = listingRepository.findSummariesByStatusAndCategoryIdIn(ListingStatus.ACTIVE, categoryIds, pageable);
+            }
+        } else if (shippingOption != null) {
+            listings = listingRepository.findSummariesByStatusAndShippingOption(ListingStatus.ACTIVE, shippingOption, pageable);
+        } else {
+            listings = listingRepository.findSummariesByStatus(ListingStatus.ACTIVE, pageable);
+        }
+        return listings.map(ListingDto::fromSummary);
+    }
+
+    /**
+     * Keyset variant of {@link #getActiveListings}: seeks past the cursor on (status, created_at, id)
+     * instead of skipping rows with OFFSET, so every page costs the same however deep it is.
+     */
+    @Transactional(readOnly = true)
+    public ListingCursorPage getActiveListingsAfter(Long categoryId, ShippingOption shippingOption, String cursor, int size) {
+        ListingCursor after = ListingCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, size);
+        Slice<ListingSummary> slice;
         if (categoryId != null) {
             List<Long> categoryIds = resolveCategoryIdsForFilter(categoryId);
             if (shippingOption != null) {
-                listings = listingRepository.findByStatusAndCategoryIdInAndShippingOptionOrderByCreatedAtDesc(ListingStatus.ACTIVE, categoryIds, shippingOption, pageable);
+                slice = listingRepository.findSummariesByStatusAndCategoryIdInAndShippingOptionAfter(
+                        ListingStatus.ACTIVE, categoryIds, shippingOption, after.createdAt(), after.id(), pageable);
             } else {
-                listings = listingRepository.findByStatusAndCategoryIdInOrderByCreatedAtDesc(ListingStatus.ACTIVE, categoryIds, pageable);
+                slice = listingRepository.findSummariesByStatusAndCategoryIdInAfter(
+                        ListingStatus.ACTIVE, categoryIds, after.createdAt(), after.id(), pageable);
             }
         } else if (shippingOption != null) {
-            listings = listingRepository.findByStatusAndShippingOptionOrderByCreatedAtDesc(ListingStatus.ACTIVE, shippingOption, pageable);
+            slice = listingRepository.findSummariesByStatusAndShippingOptionAfter(
+                    ListingStatus.ACTIVE, shippingOption, after.createdAt(), after.id(), pageable);
         } else {
-            listings = listingRepository.findByStatusOrderByCreatedAtDesc(ListingStatus.ACTIVE, pageable);
+            slice = listingRepository.findSummariesByStatusAfter(ListingStatus.ACTIVE, after.createdAt(), after.id(), pageable);
         }
-        return listings.map(ListingDto::fromEntity);
+        List<ListingSummary> rows = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !rows.isEmpty()) {
+            ListingSummary last = rows.get(rows.size() - 1);
+            nextCursor = new ListingCursor(last.createdAt(), last.id()).encode();
+        }
+        return new ListingCursorPage(rows.stream().map(ListingDto::fromSummary).toList(), nextCursor, slice.hasNext());
     }
 
-    /** Resolve category id to list containing this category and all its subcategory ids (for filtering by parent). */
+    /** Resolve category id to this category and all of its descendants (for filtering by parent). */
     private List<Long> resolveCategoryIdsForFilter(Long categoryId) {
-        List<Long> ids = new ArrayList<>();
-        ids.add(categoryId);
-        List<Category> children = categoryRepository.findByParentIdOrderByName(categoryId);
-        children.stream().map(Category::getId).forEach(ids::add);
-        return ids;
+        return categoryTree.subtreeIds(categoryId);
     }
 
+    /** Served from {@link ListingDetailCache}; misses load from the primary so sellers see their own changes. */
     public ListingDto getById(Long id) {
-        Listing listing = listingRepository.findById(id)
+        return listingDetailCache.get(id, this::loadDetail);
+    }
+
+    private ListingDto loadDetail(Long id) {
+        Listing listing = listingRepository.findDetailById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Listing not found"));
         if (listing.getStatus() == ListingStatus.REMOVED) {
             throw new IllegalArgumentException("Listing not found");
@@ -75,18 +134,25 @@ public class ListingService {
     }
 
     /**
-     * Nearby listings by ZIP (v1: same ZIP only). Returns up to limit ACTIVE listings.
+     * Nearby ACTIVE listings: everything within radiusMiles of the ZIP's centroid, nearest first. ZIPs
+     * missing from the centroid dataset fall back to an exact ZIP match. Returns up to limit listings.
      */
-    public List<ListingDto> getNearby(String zipCode, int limit) {
+    @Transactional(readOnly = true)
+    public List<ListingDto> getNearby(String zipCode, Double radiusMiles, int limit) {
         if (zipCode == null || zipCode.isBlank()) {
             return List.of();
         }
         String zip = zipCode.trim();
-        Pageable pageable = PageRequest.of(0, Math.min(limit, 50), Sort.by(Sort.Direction.DESC, "createdAt"));
-        return listingRepository.findByStatusAndZipCodeOrderByCreatedAtDesc(ListingStatus.ACTIVE, zip, pageable)
-                .getContent().stream()
-                .map(ListingDto::fromEntity)
-                .toList();
+        int capped = Math.min(limit, 50);
+        double radius = radiusMiles != null ? radiusMiles : defaultRadiusMiles;
+        if (radius <= 0 || radius > maxRadiusMiles) {
+            throw new IllegalArgumentException("radiusMiles must be between 0 and " + maxRadiusMiles);
+        }
+        return nearbyListingService.within(zip, radius, capped)
+                .orElseGet(() -> listingRepository.findSummariesByStatusAndZipCode(ListingStatus.ACTIVE, zip, PageRequest.of(0, capped))
+                        .stream()
+                        .map(ListingDto::fromSummary)
+                        .toList());
     }
 
     @Transactional
@@ -101,7 +167,7 @@ public class ListingService {
                 .description(request.getDescription())
                 .price(request.getPrice())
                 .condition(request.getCondition())
-                .images(request.getImages() != null ? request.getImages() : List.of())
+                .images(request.getImages() != null ? imageService.toStoredRefs(request.getImages()) : List.of())
                 .status(ListingStatus.DRAFT)
                 .shippingOption(request.getShippingOption() != null ? request.getShippingOption() : ShippingOption.SHIP)
                 .zipCode(request.getZipCode())
@@ -109,6 +175,8 @@ public class ListingService {
                 .state(request.getState())
                 .build();
         listing = listingRepository.save(listing);
+        recordStatusChange(listing, null);
+        eventPublisher.publishEvent(ListingChangedEvent.of(listing));
         return ListingDto.fromEntity(listing);
     }
 
@@ -129,12 +197,13 @@ public class ListingService {
         if (request.getDescription() != null) listing.setDescription(request.getDescription());
         if (request.getPrice() != null) listing.setPrice(request.getPrice());
         if (request.getCondition() != null) listing.setCondition(request.getCondition());
-        if (request.getImages() != null) listing.setImages(request.getImages());
+        if (request.getImages() != null) listing.setImages(imageService.toStoredRefs(request.getImages()));
         if (request.getShippingOption() != null) listing.setShippingOption(request.getShippingOption());
         if (request.getZipCode() != null) listing.setZipCode(request.getZipCode());
         if (request.getCity() != null) listing.setCity(request.getCity());
         if (request.getState() != null) listing.setState(request.getState());
         listing = listingRepository.save(listing);
+        eventPublisher.publishEvent(ListingChangedEvent.of(listing));
         return ListingDto.fromEntity(listing);
     }
 
@@ -146,15 +215,17 @@ public class ListingService {
         if (!listing.getSeller().getId().equals(current.getId())) {
             throw new IllegalArgumentException("Not authorized to delete this listing");
         }
+        ListingStatus from = listing.getStatus();
         listing.setStatus(ListingStatus.REMOVED);
         listingRepository.save(listing);
+        recordStatusChange(listing, from);
+        eventPublisher.publishEvent(ListingChangedEvent.of(listing));
     }
 
     public java.util.List<ListingDto> getMyListings() {
-        User current = getCurrentUser();
-        return listingRepository.findBySellerIdOrderByCreatedAtDesc(current.getId()).stream()
-                .filter(l -> l.getStatus() != ListingStatus.REMOVED)
-                .map(ListingDto::fromEntity)
+        AuthenticatedUser auth = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return listingRepository.findSummariesBySellerIdExcludingRemoved(auth.getUserId()).stream()
+                .map(ListingDto::fromSummary)
                 .toList();
     }
 
@@ -166,9 +237,27 @@ public class ListingService {
         if (!listing.getSeller().getId().equals(current.getId())) {
             throw new IllegalArgumentException("Not authorized");
         }
+        ListingStatus from = listing.getStatus();
         listing.setStatus(status);
         listing = listingRepository.save(listing);
+        recordStatusChange(listing, from);
+        eventPublisher.publishEvent(ListingChangedEvent.of(listing));
         return ListingDto.fromEntity(listing);
     }
 
+    /** Appends a status change to the outbox in the caller's transaction; no-op if the status is unchanged. */
+    static void recordStatusChange(DomainEventOutbox outbox, Listing listing, ListingStatus from) {
+        if (from == listing.getStatus()) return;
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("listingId", listing.getId());
+        payload.put("sellerId", listing.getSeller().getId());
+        payload.put("from", from);
+        payload.put("to", listing.getStatus());
+        outbox.append(DomainEvent.LISTING, listing.getId(), DomainEvent.LISTING_STATUS_CHANGED, payload);
+    }
+
+    private void recordStatusChange(Listing listing, ListingStatus from) {
+        recordStatusChange(outbox, listing, from);
+    }
+
 }
@@ -0,0 +1,6 @@
+package com.authentix.authentix.service;
+
+import com.authentix.authentix.dto.MessageDto;
+
+/** Published when a message is sent; pushed to the receiver's open inbox streams after commit. */
+public record MessageSentEvent(MessageDto message) {}
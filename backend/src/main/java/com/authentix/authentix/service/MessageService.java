@@ -1,28 +1,46 @@
 package com.authentix.authentix.service;
 
+import com.authentix.authentix.dto.ConversationDto;
+import com.authentix.authentix.dto.ConversationPage;
+import com.authentix.authentix.dto.ListingCursor;
 import com.authentix.authentix.dto.MessageDto;
+import com.authentix.authentix.entity.Conversation;
 import com.authentix.authentix.entity.Listing;
 import com.authentix.authentix.entity.Message;
 import com.authentix.authentix.entity.User;
+import com.authentix.authentix.repository.ConversationRepository;
 import com.authentix.authentix.repository.ListingRepository;
 import com.authentix.authentix.repository.MessageRepository;
 import com.authentix.authentix.repository.UserRepository;
 import com.authentix.authentix.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * Sending, reading and managing messages. The read methods are read-write transactions on purpose, so
+ * they run on the primary: a replica may lag behind a message sent or marked read moments ago, and the
+ * inbox stream's resume query must never skip past messages a replica has not seen yet.
+ */
 @Service
 @RequiredArgsConstructor
 public class MessageService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final MessageRepository messageRepository;
+    private final ConversationRepository conversationRepository;
     private final ListingRepository listingRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     private Long getCurrentUserId() {
         AuthenticatedUser auth = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -47,12 +65,61 @@ public class MessageService {
                 .read(false)
                 .build();
         messageRepository.save(msg);
-        return MessageDto.fromEntity(msg);
+        recordInConversation(seller, sender, listing, msg, 1);
+        recordInConversation(sender, seller, listing, msg, 0);
+        MessageDto dto = MessageDto.fromEntity(msg);
+        eventPublisher.publishEvent(new MessageSentEvent(dto));
+        return dto;
+    }
+
+    /** Received messages (or archived ones) newest first, one bounded page below beforeId (the start when null). */
+    @Transactional
+    public List<MessageDto> getMyInbox(Long beforeId, int size, boolean archived) {
+        Long userId = getCurrentUserId();
+        return messageRepository.findReceivedBefore(userId, beforeId != null ? beforeId : Long.MAX_VALUE, archived,
+                        PageRequest.of(0, clampSize(size))).stream()
+                .map(MessageDto::fromEntity)
+                .collect(Collectors.toList());
     }
 
-    public List<MessageDto> getMyInbox() {
+    /** The user's threads, most recently active first, continuing after cursor (the start when blank). */
+    @Transactional
+    public ConversationPage getConversations(String cursor, int size) {
         Long userId = getCurrentUserId();
-        return messageRepository.findByReceiverIdOrderByCreatedAtDesc(userId).stream()
+        ListingCursor after = ListingCursor.decode(cursor);
+        Slice<ConversationDto> slice = conversationRepository.findPageAfter(userId, after.createdAt(), after.id(),
+                PageRequest.of(0, clampSize(size)));
+        List<ConversationDto> content = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !content.isEmpty()) {
+            ConversationDto last = content.get(content.size() - 1);
+            nextCursor = new ListingCursor(last.lastMessageAt(), last.id()).encode();
+        }
+        return new ConversationPage(content, nextCursor, slice.hasNext());
+    }
+
+    /** Messages in one of the user's threads, newest first, one page below beforeId (the start when null). */
+    @Transactional
+    public List<MessageDto> getConversationMessages(Long conversationId, Long beforeId, int size) {
+        Long userId = getCurrentUserId();
+        Conversation conversation = getOwnConversation(conversationId);
+        return messageRepository.findThreadBefore(conversation.getListing().getId(), userId,
+                        conversation.getCounterpart().getId(), beforeId != null ? beforeId : Long.MAX_VALUE,
+                        PageRequest.of(0, clampSize(size))).stream()
+                .map(MessageDto::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    /** Total unread messages across the user's threads (archived ones excluded), read from the denormalized counters. */
+    @Transactional
+    public long getUnreadCount() {
+        return conversationRepository.sumUnreadByOwnerId(getCurrentUserId());
+    }
+
+    /** One page of messages the user received after afterId, oldest first; used to resume inbox streams. */
+    @Transactional
+    public List<MessageDto> getReceivedAfter(Long userId, long afterId, int limit) {
+        return messageRepository.findReceivedAfter(userId, afterId, PageRequest.of(0, limit)).stream()
                 .map(MessageDto::fromEntity)
                 .collect(Collectors.toList());
     }
@@ -64,7 +131,92 @@ public class MessageService {
         if (!msg.getReceiver().getId().equals(getCurrentUserId())) {
             throw new IllegalArgumentException("Not your message");
         }
+        if (msg.isDeleted()) {
+            throw new IllegalArgumentException("Message not found");
+        }
+        if (msg.isRead()) {
+            return;
+        }
         msg.setRead(true);
         messageRepository.save(msg);
+        if (msg.isArchived()) {
+            return;
+        }
+        conversationRepository.decrementUnread(msg.getReceiver().getId(), msg.getListing().getId(), msg.getSender().getId());
+    }
+
+    // Bulk operations: one UPDATE on messages scoped to the current user as receiver (ids that are not
+    // theirs are skipped), plus at most one UPDATE recounting the affected conversations' unread counts.
+
+    @Transactional
+    public int markRead(Collection<Long> messageIds) {
+        Long userId = getCurrentUserId();
+        int updated = messageRepository.markReadByIds(userId, messageIds);
+        if (updated > 0) conversationRepository.recountUnreadForMessages(userId, messageIds);
+        return updated;
+    }
+
+    /** Marks everything the current user has received read, however much of the inbox is paged in. */
+    @Transactional
+    public int markAllRead() {
+        Long userId = getCurrentUserId();
+        int updated = messageRepository.markAllRead(userId);
+        if (updated > 0) conversationRepository.recountUnreadForOwner(userId);
+        return updated;
+    }
+
+    @Transactional
+    public int archive(Collection<Long> messageIds) {
+        Long userId = getCurrentUserId();
+        int updated = messageRepository.archiveByIds(userId, messageIds);
+        if (updated > 0) conversationRepository.recountUnreadForMessages(userId, messageIds);
+        return updated;
+    }
+
+    @Transactional
+    public int delete(Collection<Long> messageIds) {
+        Long userId = getCurrentUserId();
+        int updated = messageRepository.deleteByIds(userId, messageIds);
+        if (updated > 0) conversationRepository.recountUnreadForMessages(userId, messageIds);
+        return updated;
+    }
+
+    @Transactional
+    public int markConversationRead(Long conversationId) {
+        Conversation c = getOwnConversation(conversationId);
+        int updated = messageRepository.markReadInThread(c.getOwner().getId(), c.getListing().getId(), c.getCounterpart().getId());
+        if (updated > 0) conversationRepository.recountUnread(c.getId());
+        return updated;
+    }
+
+    @Transactional
+    public int archiveConversation(Long conversationId) {
+        Conversation c = getOwnConversation(conversationId);
+        int updated = messageRepository.archiveInThread(c.getOwner().getId(), c.getListing().getId(), c.getCounterpart().getId());
+        if (updated > 0) conversationRepository.recountUnread(c.getId());
+        return updated;
+    }
+
+    @Transactional
+    public int deleteConversation(Long conversationId) {
+        Conversation c = getOwnConversation(conversationId);
+        int updated = messageRepository.deleteInThread(c.getOwner().getId(), c.getListing().getId(), c.getCounterpart().getId());
+        if (updated > 0) conversationRepository.recountUnread(c.getId());
+        return updated;
+    }
+
+    private Conversation getOwnConversation(Long conversationId) {
+        return conversationRepository.findByIdAndOwnerId(conversationId, getCurrentUserId())
+                .orElseThrow(() -> new IllegalArgumentException("Conversation not found"));
+    }
+
+    /** Moves the owner's thread with counterpart about listing to msg, creating the thread on first contact. */
+    private void recordInConversation(User owner, User counterpart, Listing listing, Message msg, int unreadDelta) {
+        conversationRepository.recordMessage(owner.getId(), listing.getId(), counterpart.getId(),
+                msg.getId(), msg.getCreatedAt(), unreadDelta);
+    }
+
+    private static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
     }
 }
@@ -1,33 +1,120 @@
 package com.authentix.authentix.service;
 
+import com.authentix.authentix.entity.Listing;
 import com.authentix.authentix.entity.ListingStatus;
 import com.authentix.authentix.entity.Order;
 import com.authentix.authentix.entity.OrderStatus;
+import com.authentix.authentix.outbox.DomainEvent;
+import com.authentix.authentix.outbox.DomainEventOutbox;
 import com.authentix.authentix.repository.ListingRepository;
 import com.authentix.authentix.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
     private final OrderRepository orderRepository;
     private final ListingRepository listingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DomainEventOutbox outbox;
 
+    /**
+     * Marks every order paid with the PaymentIntent as PAID and its listing SOLD (clearing the purchase
+     * hold); repeat calls are no-ops. A concurrent hold claim or sale of the listing makes the save fail
+     * on its version, and the webhook is retried.
+     *
+     * An order only wins its listing while the listing is ACTIVE and not held by another buyer. A payment
+     * that lands after its hold lapsed and someone else claimed or bought the listing becomes OVERSOLD
+     * instead, leaving the listing to the other buyer; its refund shows up as charge.refunded.
+     */
     @Transactional
     public void markOrderPaidByPaymentIntentId(String stripePaymentIntentId) {
-        Order order = orderRepository.findByStripePaymentIntentId(stripePaymentIntentId)
-                .orElse(null);
-        if (order == null) return;
-        if (order.getStatus() == OrderStatus.PAID) return;
+        Instant now = Instant.now();
+        for (Order order : orderRepository.findAllByStripePaymentIntentId(stripePaymentIntentId)) {
+            if (order.getStatus() == OrderStatus.PAID || order.getStatus() == OrderStatus.OVERSOLD) continue;
+
+            var listing = order.getListing();
+            if (!availableTo(listing, order.getBuyer().getId(), now)) {
+                log.warn("Order {} was paid after listing {} went to another buyer; it needs a refund",
+                        order.getId(), listing.getId());
+                order.setStatus(OrderStatus.OVERSOLD);
+                orderRepository.save(order);
+                continue;
+            }
+            order.setStatus(OrderStatus.PAID);
+            orderRepository.save(order);
+
+            ListingStatus from = listing.getStatus();
+            listing.setStatus(ListingStatus.SOLD);
+            listing.setHeldByUserId(null);
+            listing.setHeldUntil(null);
+            listingRepository.save(listing);
+            outbox.append(DomainEvent.ORDER, order.getId(), DomainEvent.ORDER_PAID, orderPayload(order));
+            ListingService.recordStatusChange(outbox, listing, from);
+            eventPublisher.publishEvent(ListingChangedEvent.of(listing));
+        }
+    }
+
+    /**
+     * The PaymentIntent was canceled and can no longer be paid: its PENDING orders become FAILED and the
+     * buyer's hold on each listing is dropped so others can buy it. Failed payment attempts do not come
+     * here; the buyer may still retry those on the same intent.
+     */
+    @Transactional
+    public void markOrderCanceledByPaymentIntentId(String stripePaymentIntentId) {
+        for (Order order : orderRepository.findAllByStripePaymentIntentId(stripePaymentIntentId)) {
+            if (order.getStatus() != OrderStatus.PENDING) continue;
+            order.setStatus(OrderStatus.FAILED);
+            orderRepository.save(order);
+            listingRepository.releaseHold(order.getListing().getId(), order.getBuyer().getId());
+        }
+    }
+
+    /**
+     * PAID and OVERSOLD orders on the PaymentIntent become REFUNDED. The listings stay SOLD; sellers relist
+     * by hand. OVERSOLD orders never counted as a sale, so their refund publishes no event.
+     */
+    @Transactional
+    public void markOrderRefundedByPaymentIntentId(String stripePaymentIntentId) {
+        for (Order order : orderRepository.findAllByStripePaymentIntentId(stripePaymentIntentId)) {
+            OrderStatus status = order.getStatus();
+            if (status != OrderStatus.PAID && status != OrderStatus.OVERSOLD) continue;
+            order.setStatus(OrderStatus.REFUNDED);
+            orderRepository.save(order);
+            if (status == OrderStatus.PAID) {
+                outbox.append(DomainEvent.ORDER, order.getId(), DomainEvent.ORDER_REFUNDED, orderPayload(order));
+            }
+        }
+    }
 
-        order.setStatus(OrderStatus.PAID);
-        orderRepository.save(order);
+    /** ACTIVE and either unheld, held by this buyer, or held by someone whose hold has lapsed. */
+    private static boolean availableTo(Listing listing, Long buyerId, Instant now) {
+        if (listing.getStatus() != ListingStatus.ACTIVE) return false;
+        return listing.getHeldByUserId() == null || listing.getHeldByUserId().equals(buyerId)
+                || listing.getHeldUntil() == null || !listing.getHeldUntil().isAfter(now);
+    }
 
-        var listing = order.getListing();
-        listing.setStatus(ListingStatus.SOLD);
-        listingRepository.save(listing);
+    private static Map<String, Object> orderPayload(Order order) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", order.getId());
+        payload.put("listingId", order.getListing().getId());
+        payload.put("sellerId", order.getListing().getSeller().getId());
+        payload.put("buyerId", order.getBuyer().getId());
+        payload.put("amount", order.getAmount().toPlainString());
+        payload.put("platformFee", order.getPlatformFee().toPlainString());
+        payload.put("sellerPayout", order.getSellerPayout().toPlainString());
+        return payload;
     }
 }
@@ -1,19 +1,22 @@
 package com.authentix.authentix.service;
 
 import com.authentix.authentix.dto.ListingDto;
-import com.authentix.authentix.entity.Listing;
+import com.authentix.authentix.dto.ListingSummary;
 import com.authentix.authentix.entity.ListingStatus;
+import com.authentix.authentix.recommend.RecommendationEngine;
 import com.authentix.authentix.repository.ListingRepository;
-import com.authentix.authentix.repository.WatchlistRepository;
 import com.authentix.authentix.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,39 +26,55 @@ public class RecommendationService {
     private static final int RECOMMENDED_SIZE = 8;
 
     private final ListingRepository listingRepository;
-    private final WatchlistRepository watchlistRepository;
+    private final RecommendationEngine recommendationEngine;
 
     /**
-     * If listingId is set: similar listings (same category, exclude this one).
-     * If no listingId: for you (from watchlist categories) or recent/popular.
+     * If listingId is set: listings most often co-watched with it, else same category (excluding it).
+     * If no listingId: for you (co-watch recommendations for the user's watches, else their watched
+     * categories) or recent. Co-watch ids come from memory, so every branch is one projection query
+     * unless it comes back empty and falls through to the next.
      */
+    @Transactional(readOnly = true)
     public List<ListingDto> getRecommended(Long listingId) {
-        Pageable limit = PageRequest.of(0, RECOMMENDED_SIZE, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Pageable limit = PageRequest.of(0, RECOMMENDED_SIZE);
         if (listingId != null) {
-            Listing listing = listingRepository.findById(listingId).orElse(null);
-            if (listing == null) return List.of();
-            var page = listingRepository.findByStatusAndCategoryIdAndIdNotOrderByCreatedAtDesc(
-                    ListingStatus.ACTIVE, listing.getCategory().getId(), listingId, limit);
-            return page.getContent().stream().map(ListingDto::fromEntity).collect(Collectors.toList());
+            List<ListingDto> coWatched = hydrate(recommendationEngine.similarTo(listingId, RECOMMENDED_SIZE));
+            if (!coWatched.isEmpty()) {
+                return coWatched;
+            }
+            return toDtos(listingRepository.findSummariesSimilarTo(ListingStatus.ACTIVE, listingId, limit));
         }
         Long userId = getCurrentUserIdOrNull();
         if (userId != null) {
-            var watchlist = watchlistRepository.findByUserIdOrderByCreatedAtDesc(userId);
-            if (!watchlist.isEmpty()) {
-                List<Long> categoryIds = watchlist.stream()
-                        .map(w -> w.getListing().getCategory().getId())
-                        .distinct()
-                        .limit(5)
-                        .toList();
-                if (!categoryIds.isEmpty()) {
-                    var page = listingRepository.findByStatusAndCategoryIdInOrderByCreatedAtDesc(
-                            ListingStatus.ACTIVE, categoryIds, limit);
-                    return page.getContent().stream().map(ListingDto::fromEntity).collect(Collectors.toList());
-                }
+            List<ListingDto> coWatched = hydrate(recommendationEngine.forUser(userId, RECOMMENDED_SIZE));
+            if (!coWatched.isEmpty()) {
+                return coWatched;
+            }
+            List<ListingSummary> forYou = listingRepository.findSummariesInWatchedCategories(ListingStatus.ACTIVE, userId, limit);
+            if (!forYou.isEmpty()) {
+                return toDtos(forYou);
             }
         }
-        var page = listingRepository.findByStatusOrderByCreatedAtDesc(ListingStatus.ACTIVE, limit);
-        return page.getContent().stream().map(ListingDto::fromEntity).collect(Collectors.toList());
+        return toDtos(listingRepository.findNewestSummaries(ListingStatus.ACTIVE, limit));
+    }
+
+    /** Loads cards for ranked ids in one query, keeping the ranking and dropping listings no longer ACTIVE. */
+    private List<ListingDto> hydrate(long[] ids) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        List<Long> ranked = Arrays.stream(ids).boxed().toList();
+        Map<Long, ListingSummary> byId = listingRepository.findSummariesByIdIn(ranked).stream()
+                .collect(Collectors.toMap(ListingSummary::id, Function.identity()));
+        return ranked.stream()
+                .map(byId::get)
+                .filter(s -> s != null && s.status() == ListingStatus.ACTIVE)
+                .map(ListingDto::fromSummary)
+                .toList();
+    }
+
+    private static List<ListingDto> toDtos(List<ListingSummary> summaries) {
+        return summaries.stream().map(ListingDto::fromSummary).collect(Collectors.toList());
     }
 
     private Long getCurrentUserIdOrNull() {
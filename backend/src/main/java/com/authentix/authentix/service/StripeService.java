@@ -1,7 +1,7 @@
 package com.authentix.authentix.service;
 
+import com.authentix.authentix.dto.ListingSummary;
 import com.authentix.authentix.entity.Address;
-import com.authentix.authentix.entity.Listing;
 import com.authentix.authentix.entity.ListingStatus;
 import com.authentix.authentix.entity.Order;
 import com.authentix.authentix.entity.OrderStatus;
@@ -17,23 +17,27 @@ import com.stripe.param.AccountLinkCreateParams;
 import com.stripe.param.PaymentIntentCreateParams;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class StripeService {
 
-    private static final String CURRENCY = "usd";
-    private static final int PLATFORM_FEE_PERCENT = 6;
+    public static final String CURRENCY = "usd";
+    public static final int PLATFORM_FEE_PERCENT = 6;
 
     private final UserRepository userRepository;
     private final ListingRepository listingRepository;
     private final OrderRepository orderRepository;
     private final AddressService addressService;
+    private final ListingHoldService listingHoldService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${stripe.secret-key:}")
     private String secretKey;
@@ -67,6 +71,7 @@ public class StripeService {
             accountId = account.getId();
             user.setStripeConnectAccountId(accountId);
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserProfileChangedEvent(userId));
         }
 
         AccountLinkCreateParams params = AccountLinkCreateParams.builder()
@@ -82,29 +87,44 @@ public class StripeService {
     /**
      * Creates a PaymentIntent for buying a listing (destination charge with 6% platform fee)
      * and an Order in PENDING status with shipping address snapshot. Returns client secret for frontend confirmation.
+     *
+     * Not transactional: the buyer first claims a short hold on the listing (one committed conditional
+     * UPDATE), so concurrent buyers are turned away without a row lock held across the Stripe call.
+     * The hold is released if the PaymentIntent or order cannot be created.
      */
-    @Transactional
     public CreatePaymentResult createPaymentIntentForPurchase(Long listingId, Long buyerId, Long addressId) throws StripeException {
-        Listing listing = listingRepository.findById(listingId)
+        ListingSummary listing = listingRepository.findSummariesByIdIn(List.of(listingId)).stream().findFirst()
                 .orElseThrow(() -> new IllegalArgumentException("Listing not found"));
-        if (listing.getStatus() != ListingStatus.ACTIVE) {
+        if (listing.status() != ListingStatus.ACTIVE) {
             throw new IllegalArgumentException("Listing is not available for purchase");
         }
 
-        User seller = listing.getSeller();
-        if (seller.getStripeConnectAccountId() == null || seller.getStripeConnectAccountId().isBlank()) {
+        String sellerAccountId = listing.sellerStripeConnectAccountId();
+        if (sellerAccountId == null || sellerAccountId.isBlank()) {
             throw new IllegalArgumentException("Seller has not set up payouts");
         }
 
         User buyer = userRepository.findById(buyerId)
                 .orElseThrow(() -> new IllegalArgumentException("Buyer not found"));
-        if (buyer.getId().equals(seller.getId())) {
+        if (buyer.getId().equals(listing.sellerId())) {
             throw new IllegalArgumentException("Cannot buy your own listing");
         }
 
         Address address = addressService.getAddressForUser(addressId, buyerId);
 
-        BigDecimal amount = listing.getPrice();
+        listingHoldService.claim(listingId, buyerId);
+        try {
+            return createPaymentAndOrder(listingId, listing, sellerAccountId, buyer, address);
+        } catch (StripeException | RuntimeException e) {
+            listingHoldService.release(listingId, buyerId);
+            throw e;
+        }
+    }
+
+    private CreatePaymentResult createPaymentAndOrder(Long listingId, ListingSummary listing, String sellerAccountId,
+                                                      User buyer, Address address) throws StripeException {
+        Long buyerId = buyer.getId();
+        BigDecimal amount = listing.price();
         long amountCents = amount.multiply(BigDecimal.valueOf(100)).setScale(0, RoundingMode.HALF_UP).longValue();
         long feeCents = (amountCents * PLATFORM_FEE_PERCENT) / 100;
         long transferCents = amountCents - feeCents;
@@ -122,7 +142,7 @@ public class StripeService {
                 .setApplicationFeeAmount(feeCents)
                 .setTransferData(
                         PaymentIntentCreateParams.TransferData.builder()
-                                .setDestination(seller.getStripeConnectAccountId())
+                                .setDestination(sellerAccountId)
                                 .build())
                 .putMetadata("listingId", listingId.toString())
                 .putMetadata("buyerId", buyerId.toString())
@@ -134,7 +154,7 @@ public class StripeService {
 
         Order order = Order.builder()
                 .buyer(buyer)
-                .listing(listing)
+                .listing(listingRepository.getReferenceById(listingId))
                 .stripePaymentIntentId(piId)
                 .amount(amount)
                 .platformFee(feeAmount)
@@ -0,0 +1,7 @@
+package com.authentix.authentix.service;
+
+/**
+ * Published when a user's public profile changes (name, photo, bio, contact, payout account), which
+ * also changes how their listings render.
+ */
+public record UserProfileChangedEvent(Long userId) {}
@@ -4,11 +4,13 @@ import com.authentix.authentix.dto.DiscoveryLocationDto;
 import com.authentix.authentix.dto.UpdateProfileRequest;
 import com.authentix.authentix.dto.UserDto;
 import com.authentix.authentix.entity.User;
+import com.authentix.authentix.image.ImageService;
 import com.authentix.authentix.repository.UserRepository;
 
 import java.time.Instant;
 import com.authentix.authentix.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,6 +20,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final ImageService imageService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public User getCurrentUser() {
         AuthenticatedUser auth = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -33,14 +37,16 @@ public class UserService {
     public UserDto updateMe(UpdateProfileRequest request) {
         User user = getCurrentUser();
         if (request.getDisplayName() != null) user.setDisplayName(request.getDisplayName());
-        if (request.getProfilePhotoUrl() != null) user.setProfilePhotoUrl(request.getProfilePhotoUrl());
+        if (request.getProfilePhotoUrl() != null) user.setProfilePhotoUrl(imageService.toStoredRef(request.getProfilePhotoUrl()));
         if (request.getBio() != null) user.setBio(request.getBio());
         if (request.getContactInfo() != null) user.setContactInfo(request.getContactInfo());
         if (request.getContactVisible() != null) user.setContactVisible(request.getContactVisible());
         user = userRepository.save(user);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(user.getId()));
         return UserDto.fromEntity(user);
     }
 
+    @Transactional(readOnly = true)
     public UserDto getPublicProfile(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
@@ -63,6 +69,7 @@ public class UserService {
         user.setDiscoveryCountry(country != null && country.length() == 2 ? country.toUpperCase() : null);
         user.setDiscoveryUpdatedAt(Instant.now());
         user = userRepository.save(user);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(user.getId()));
         DiscoveryLocationDto dto = new DiscoveryLocationDto();
         dto.setZipCode(user.getDiscoveryZipCode());
         dto.setCountry(user.getDiscoveryCountry());
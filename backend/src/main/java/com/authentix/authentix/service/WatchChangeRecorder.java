@@ -0,0 +1,24 @@
+package com.authentix.authentix.service;
+
+import com.authentix.authentix.outbox.DomainEvent;
+import com.authentix.authentix.outbox.DomainEventOutbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+
+/** Records every {@link WatchChangedEvent} in the outbox, inside the transaction that changed the watch. */
+@Component
+@RequiredArgsConstructor
+public class WatchChangeRecorder {
+
+    private final DomainEventOutbox outbox;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onWatchChanged(WatchChangedEvent event) {
+        outbox.append(DomainEvent.LISTING, event.listingId(), DomainEvent.LISTING_WATCHERS_CHANGED,
+                Map.of("listingId", event.listingId(), "userId", event.userId()));
+    }
+}
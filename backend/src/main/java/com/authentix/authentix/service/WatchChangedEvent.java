@@ -0,0 +1,7 @@
+package com.authentix.authentix.service;
+
+/**
+ * Published when a user adds or removes a listing from their watchlist or a watchlist folder.
+ * Listeners re-read whether the listing is still watched anywhere, since it can sit in several folders.
+ */
+public record WatchChangedEvent(Long userId, Long listingId) {}
@@ -10,6 +10,7 @@ import com.authentix.authentix.repository.UserRepository;
 import com.authentix.authentix.repository.WatchlistRepository;
 import com.authentix.authentix.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,6 +31,7 @@ public class WatchlistService {
     private final UserRepository userRepository;
     private final WatchlistItemRepository watchlistItemRepository;
     private final WatchlistFolderRepository folderRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     private Long getCurrentUserId() {
         AuthenticatedUser auth = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -72,6 +74,7 @@ public class WatchlistService {
             item.setListing(listing);
             watchlistItemRepository.save(item);
         }
+        eventPublisher.publishEvent(new WatchChangedEvent(userId, listingId));
     }
 
     @Transactional
@@ -79,8 +82,10 @@ public class WatchlistService {
         Long userId = getCurrentUserId();
         watchlistRepository.deleteByUser_IdAndListing_Id(userId, listingId);
         watchlistItemRepository.deleteByUser_IdAndListing_Id(userId, listingId);
+        eventPublisher.publishEvent(new WatchChangedEvent(userId, listingId));
     }
 
+    @Transactional
     public List<ListingDto> getMyWatchlist() {
         Long userId = getCurrentUserId();
         return watchlistRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
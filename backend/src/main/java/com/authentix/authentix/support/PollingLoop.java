@@ -0,0 +1,78 @@
+package com.authentix.authentix.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A background thread that runs rounds of work: again at once while a round reports progress,
+ * otherwise after {@link #wake()} or {@code pollInterval}, whichever comes first. A round that throws
+ * is logged and retried after the interval. Used by the outbox relay and the webhook dispatcher.
+ */
+public final class PollingLoop {
+
+    private static final Logger log = LoggerFactory.getLogger(PollingLoop.class);
+
+    /** One round of work; true to run the next one at once. */
+    @FunctionalInterface
+    public interface Round {
+        boolean run() throws InterruptedException;
+    }
+
+    private final String name;
+    private final Duration pollInterval;
+    private final Round round;
+    private final Semaphore wakeups = new Semaphore(0);
+    private Thread thread;
+    private volatile boolean running;
+
+    public PollingLoop(String name, Duration pollInterval, Round round) {
+        this.name = name;
+        this.pollInterval = pollInterval;
+        this.round = round;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = Thread.ofPlatform().name(name).daemon().start(this::run);
+    }
+
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        thread.interrupt();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Asks for a round now instead of at the next poll. */
+    public void wake() {
+        wakeups.release();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (!round.run()) {
+                    wakeups.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    wakeups.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Round of {} failed", name, e);
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.authentix.authentix.support;
+
+import java.time.Duration;
+
+/**
+ * Exponential backoff for events retried from a table (outbox, webhook inbox): {@code initial} doubled
+ * per attempt, capped at {@code max}.
+ */
+public record RetryBackoff(Duration initial, Duration max) {
+
+    /** Longest error text kept in an event's last_error column. */
+    public static final int MAX_ERROR_LENGTH = 2000;
+
+    /** How long to wait before the next attempt, after {@code attempts} failed ones. */
+    public Duration after(int attempts) {
+        Duration delay = initial.multipliedBy(1L << Math.min(Math.max(attempts, 1) - 1, 20));
+        return delay.compareTo(max) > 0 ? max : delay;
+    }
+
+    /** The error as stored with a failed event: its toString, truncated to {@link #MAX_ERROR_LENGTH}. */
+    public static String describe(Throwable error) {
+        String message = error.toString();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -0,0 +1,52 @@
+package com.authentix.authentix.support;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A resume point over AUTO_INCREMENT ids, which can commit out of order: id 11 may be seen before id
+ * 10. The watermark only passes an id once it has been seen for {@code settle}; ids above it are
+ * remembered so each is accepted once. Not thread-safe; each reader keeps its own.
+ */
+public final class SettlingWatermark {
+
+    private final Duration settle;
+    /** Accepted ids above the watermark, with when they were first seen. */
+    private final TreeMap<Long, Long> unsettled = new TreeMap<>();
+    private long watermark;
+
+    public SettlingWatermark(long start, Duration settle) {
+        this.watermark = start;
+        this.settle = settle;
+    }
+
+    /** Every id at or below this has been accepted or is given up on. */
+    public long value() {
+        return watermark;
+    }
+
+    /** The oldest accepted id still settling, or null if there is none. */
+    public Long oldestUnsettled() {
+        return unsettled.isEmpty() ? null : unsettled.firstKey();
+    }
+
+    /** Records id as seen at nowMillis; false if it is at or below the watermark or was seen before. */
+    public boolean accept(long id, long nowMillis) {
+        return id > watermark && unsettled.putIfAbsent(id, nowMillis) == null;
+    }
+
+    /**
+     * Moves the watermark past the ids seen at least {@code settle} before nowMillis, oldest first, up
+     * to the first one still settling; with {@code all}, past every accepted id.
+     */
+    public void advance(long nowMillis, boolean all) {
+        for (Iterator<Map.Entry<Long, Long>> it = unsettled.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, Long> seen = it.next();
+            if (!all && seen.getValue() > nowMillis - settle.toMillis()) break;
+            watermark = seen.getKey();
+            it.remove();
+        }
+    }
+}
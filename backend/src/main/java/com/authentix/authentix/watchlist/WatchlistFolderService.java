@@ -5,6 +5,7 @@ import com.authentix.authentix.entity.User;
 import com.authentix.authentix.repository.ListingRepository;
 import com.authentix.authentix.repository.UserRepository;
 import com.authentix.authentix.security.AuthenticatedUser;
+import com.authentix.authentix.service.WatchChangedEvent;
 import com.authentix.authentix.watchlist.WatchlistDtos.AddItemRequest;
 import com.authentix.authentix.watchlist.WatchlistDtos.CreateFolderRequest;
 import com.authentix.authentix.watchlist.WatchlistDtos.RenameFolderRequest;
@@ -14,6 +15,7 @@ import jakarta.transaction.Transactional;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -26,17 +28,20 @@ public class WatchlistFolderService {
     private final WatchlistItemRepository itemRepository;
     private final ListingRepository listingRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public WatchlistFolderService(
         WatchlistFolderRepository folderRepository,
         WatchlistItemRepository itemRepository,
         ListingRepository listingRepository,
-        UserRepository userRepository
+        UserRepository userRepository,
+        ApplicationEventPublisher eventPublisher
     ) {
         this.folderRepository = folderRepository;
         this.itemRepository = itemRepository;
         this.listingRepository = listingRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<WatchlistFolderDto> listFolders(AuthenticatedUser auth) {
@@ -84,6 +89,7 @@ public class WatchlistFolderService {
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Folder not found"));
 
         folderRepository.delete(folder);
+        folder.getItems().forEach(i -> eventPublisher.publishEvent(new WatchChangedEvent(user.getId(), i.getListing().getId())));
     }
 
     public WatchlistFolderDto addItem(AuthenticatedUser auth, Long folderId, AddItemRequest req) {
@@ -105,6 +111,7 @@ public class WatchlistFolderService {
         item.setFolder(folder);
         item.setListing(listing);
         itemRepository.save(item);
+        eventPublisher.publishEvent(new WatchChangedEvent(user.getId(), listing.getId()));
 
         return toDto(folder);
     }
@@ -119,6 +126,7 @@ public class WatchlistFolderService {
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Item not found"));
 
         itemRepository.delete(item);
+        eventPublisher.publishEvent(new WatchChangedEvent(user.getId(), listingId));
         return toDto(folder);
     }
 
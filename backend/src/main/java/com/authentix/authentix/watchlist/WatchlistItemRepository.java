@@ -1,13 +1,26 @@
 package com.authentix.authentix.watchlist;
 
+import com.authentix.authentix.recommend.WatchPair;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface WatchlistItemRepository extends JpaRepository<WatchlistItem, Long> {
     Optional<WatchlistItem> findByFolderIdAndListingId(Long folderId, Long listingId);
 
     List<WatchlistItem> findByUser_IdAndListing_Id(Long userId, Long listingId);
 
+    boolean existsByUser_IdAndListing_Id(Long userId, Long listingId);
+
     void deleteByUser_IdAndListing_Id(Long userId, Long listingId);
-}
\ No newline at end of file
+
+    @Query("select i.listing.id from WatchlistItem i where i.user.id = :userId")
+    List<Long> findListingIdsByUserId(@Param("userId") Long userId);
+
+    @Query("select new com.authentix.authentix.recommend.WatchPair(i.id, i.user.id, i.listing.id) "
+        + "from WatchlistItem i where i.id > :afterId order by i.id")
+    List<WatchPair> findWatchPairs(@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -0,0 +1,146 @@
+package com.authentix.authentix.webhook;
+
+import com.authentix.authentix.support.PollingLoop;
+import com.authentix.authentix.support.RetryBackoff;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the webhook inbox on a bounded worker pool. Events that share a PaymentIntent run one at a
+ * time in arrival order: only the oldest unfinished event per intent is dispatched, so a retrying
+ * event holds back the ones behind it. Unrelated intents proceed in parallel. The due check and the
+ * per-intent ordering are part of the query, so a backlog of events waiting on retries never crowds
+ * out the ones that can run.
+ *
+ * A worker claims its event with a conditional update that also sets a lease; if the process dies
+ * mid-event the lease runs out and the event is picked up again. Failures are retried with
+ * exponential backoff until {@code app.webhooks.max-attempts}, after which the event is FAILED and
+ * its intent's later events go ahead.
+ */
+@Component
+public class WebhookDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookDispatcher.class);
+    /** Due events fetched per round. */
+    private static final int SCAN_LIMIT = 500;
+    /** Stands in for an empty set of busy intents; no PaymentIntent id looks like this. */
+    private static final String NO_INTENT = "";
+
+    private final WebhookEventRepository repository;
+    private final WebhookEventHandler handler;
+    private final int workers;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final RetryBackoff backoff;
+    private final PollingLoop loop;
+    /** Ordering keys with an event on a worker right now. */
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor pool;
+
+    public WebhookDispatcher(WebhookEventRepository repository, WebhookEventHandler handler,
+                             @Value("${app.webhooks.workers:4}") int workers,
+                             @Value("${app.webhooks.max-attempts:10}") int maxAttempts,
+                             @Value("${app.webhooks.poll-interval:5s}") Duration pollInterval,
+                             @Value("${app.webhooks.lease:2m}") Duration lease,
+                             @Value("${app.webhooks.retry-backoff:5s}") Duration retryBackoff,
+                             @Value("${app.webhooks.max-retry-backoff:1h}") Duration maxRetryBackoff) {
+        this.repository = repository;
+        this.handler = handler;
+        this.workers = Math.max(1, workers);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.lease = lease;
+        this.backoff = new RetryBackoff(retryBackoff, maxRetryBackoff);
+        this.loop = new PollingLoop("webhook-dispatcher", pollInterval, () -> {
+            dispatchDue();
+            return false;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (loop.isRunning()) return;
+        pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers * 4), Thread.ofPlatform().name("webhook-worker-", 0).factory());
+        loop.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (!loop.isRunning()) return;
+        loop.stop();
+        pool.shutdown();
+        if (!pool.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Webhook workers still busy at shutdown; their events will be retried after the lease");
+        }
+    }
+
+    /** Called once new events are stored, so they are dispatched without waiting for the poll. */
+    public void wake() {
+        loop.wake();
+    }
+
+    void dispatchDue() {
+        List<String> busy = new ArrayList<>(inFlight);
+        busy.add(NO_INTENT);
+        List<WebhookEventRepository.OpenEvent> due = repository.findDue(Instant.now(), busy, PageRequest.of(0, SCAN_LIMIT));
+        for (WebhookEventRepository.OpenEvent event : due) {
+            String key = event.paymentIntentId() != null ? event.paymentIntentId() : "event-" + event.id();
+            if (!inFlight.add(key)) continue;
+            try {
+                pool.execute(() -> process(event.id(), key));
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(key);
+                return;  // workers are saturated; the rest waits for the next round
+            }
+        }
+    }
+
+    private void process(Long id, String key) {
+        try {
+            Instant now = Instant.now();
+            if (repository.claim(id, now, now.plus(lease)) == 0) return;
+            WebhookEvent event = repository.findById(id).orElseThrow();
+            try {
+                boolean handled = handler.handle(event);
+                repository.finish(id, handled ? WebhookEventStatus.PROCESSED : WebhookEventStatus.IGNORED, Instant.now(), null);
+            } catch (RuntimeException e) {
+                fail(event, e);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not process webhook event {}; it will be retried", id, e);
+        } finally {
+            inFlight.remove(key);
+            // The intent's next event, if any, can go now.
+            wake();
+        }
+    }
+
+    private void fail(WebhookEvent event, RuntimeException error) {
+        String message = RetryBackoff.describe(error);
+        if (event.getAttempts() >= maxAttempts) {
+            log.error("Webhook event {} ({}) failed {} times; giving up", event.getEventId(), event.getType(), event.getAttempts(), error);
+            repository.finish(event.getId(), WebhookEventStatus.FAILED, Instant.now(), message);
+            return;
+        }
+        log.warn("Webhook event {} ({}) failed on attempt {}; retrying", event.getEventId(), event.getType(), event.getAttempts(), error);
+        repository.retryAt(event.getId(), Instant.now().plus(backoff.after(event.getAttempts())), message);
+    }
+
+}
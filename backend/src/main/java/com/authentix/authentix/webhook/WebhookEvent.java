@@ -0,0 +1,58 @@
+package com.authentix.authentix.webhook;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "stripe_webhook_events",
+    uniqueConstraints = @UniqueConstraint(name = "uk_stripe_webhook_events_event_id", columnNames = "event_id"),
+    indexes = {
+        @Index(name = "idx_stripe_webhook_events_status_id", columnList = "status, id"),
+        @Index(name = "idx_stripe_webhook_events_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_stripe_webhook_events_payment_intent", columnList = "payment_intent_id, id")
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+public class WebhookEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private String eventId;
+
+    @Column(nullable = false, length = 100)
+    private String type;
+
+    /** Ordering key: events for the same PaymentIntent are processed one at a time, oldest first. */
+    @Column(name = "payment_intent_id")
+    private String paymentIntentId;
+
+    @Column(columnDefinition = "MEDIUMTEXT", nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WebhookEventStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "received_at", nullable = false)
+    private Instant receivedAt;
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+}
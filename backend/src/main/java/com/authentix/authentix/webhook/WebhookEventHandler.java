@@ -0,0 +1,48 @@
+package com.authentix.authentix.webhook;
+
+import com.authentix.authentix.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/** Applies one stored Stripe event to orders. Every action is idempotent, so a retried event is harmless. */
+@Component
+@RequiredArgsConstructor
+public class WebhookEventHandler {
+
+    private final OrderService orderService;
+
+    /** Returns false for event types we do not act on. Throws to have the event retried. */
+    public boolean handle(WebhookEvent stored) {
+        String paymentIntentId = stored.getPaymentIntentId();
+        if (paymentIntentId == null) {
+            return false;  // nothing we handle happens outside a PaymentIntent
+        }
+        switch (stored.getType()) {
+            case "payment_intent.succeeded" -> orderService.markOrderPaidByPaymentIntentId(paymentIntentId);
+            // A failed attempt does not end the PaymentIntent: the buyer may retry on the same client
+            // secret, so the orders stay PENDING and the hold stays. Only cancellation ends it.
+            case "payment_intent.payment_failed" -> {
+                return true;
+            }
+            case "payment_intent.canceled" -> orderService.markOrderCanceledByPaymentIntentId(paymentIntentId);
+            case "charge.refunded" -> {
+                // Fires for partial refunds too; only a full refund changes the order.
+                if (!dataObject(stored.getPayload()).path("refunded").asBoolean(false)) {
+                    return true;
+                }
+                orderService.markOrderRefundedByPaymentIntentId(paymentIntentId);
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** data.object of a raw event payload; a missing node if there is none. */
+    static JsonNode dataObject(String payload) {
+        return JsonMapper.shared().readTree(payload).path("data").path("object");
+    }
+}
@@ -0,0 +1,52 @@
+package com.authentix.authentix.webhook;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface WebhookEventRepository extends JpaRepository<WebhookEvent, Long> {
+
+    /** Unfinished event as seen by the dispatcher. */
+    record OpenEvent(Long id, String paymentIntentId, Instant nextAttemptAt) {}
+
+    /**
+     * Unfinished events that can run now: due, the oldest unfinished event of their PaymentIntent, and
+     * not of an intent in {@code busy} (pass a placeholder rather than an empty collection).
+     */
+    @Query("select new com.authentix.authentix.webhook.WebhookEventRepository$OpenEvent(e.id, e.paymentIntentId, e.nextAttemptAt)"
+            + " from WebhookEvent e where e.status in (com.authentix.authentix.webhook.WebhookEventStatus.PENDING,"
+            + " com.authentix.authentix.webhook.WebhookEventStatus.PROCESSING) and e.nextAttemptAt <= :now"
+            + " and (e.paymentIntentId is null or (e.paymentIntentId not in :busy and not exists (select 1 from WebhookEvent f"
+            + " where f.paymentIntentId = e.paymentIntentId and f.id < e.id and f.status in"
+            + " (com.authentix.authentix.webhook.WebhookEventStatus.PENDING, com.authentix.authentix.webhook.WebhookEventStatus.PROCESSING))))"
+            + " order by e.id")
+    List<OpenEvent> findDue(@Param("now") Instant now, @Param("busy") Collection<String> busy, Pageable pageable);
+
+    /** Takes the event for one attempt if it is due; 0 if another worker got it first or it is not due. */
+    @Transactional
+    @Modifying
+    @Query("update WebhookEvent e set e.status = com.authentix.authentix.webhook.WebhookEventStatus.PROCESSING,"
+            + " e.attempts = e.attempts + 1, e.nextAttemptAt = :leaseUntil"
+            + " where e.id = :id and e.nextAttemptAt <= :now and e.status in"
+            + " (com.authentix.authentix.webhook.WebhookEventStatus.PENDING, com.authentix.authentix.webhook.WebhookEventStatus.PROCESSING)")
+    int claim(@Param("id") Long id, @Param("now") Instant now, @Param("leaseUntil") Instant leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("update WebhookEvent e set e.status = :status, e.processedAt = :at, e.lastError = :error where e.id = :id")
+    int finish(@Param("id") Long id, @Param("status") WebhookEventStatus status, @Param("at") Instant at,
+               @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("update WebhookEvent e set e.status = com.authentix.authentix.webhook.WebhookEventStatus.PENDING,"
+            + " e.nextAttemptAt = :nextAttemptAt, e.lastError = :error where e.id = :id")
+    int retryAt(@Param("id") Long id, @Param("nextAttemptAt") Instant nextAttemptAt, @Param("error") String error);
+}
@@ -0,0 +1,9 @@
+package com.authentix.authentix.webhook;
+
+public enum WebhookEventStatus {
+    PENDING,     // received, waiting for a worker (or for its retry time)
+    PROCESSING,  // claimed by a worker until next_attempt_at; reclaimable after that
+    PROCESSED,
+    IGNORED,     // event type we do not act on
+    FAILED       // gave up after the maximum number of attempts
+}
@@ -0,0 +1,46 @@
+package com.authentix.authentix.webhook;
+
+import com.stripe.model.Event;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.JsonNode;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Durable record of verified Stripe events. Recording is a single insert keyed by the Stripe event
+ * id, so redeliveries are dropped; the actual work happens later in {@link WebhookDispatcher}.
+ */
+@Service
+@RequiredArgsConstructor
+public class WebhookInbox {
+
+    private static final String INSERT = "INSERT IGNORE INTO stripe_webhook_events"
+            + " (event_id, type, payment_intent_id, payload, status, attempts, next_attempt_at, received_at)"
+            + " VALUES (?, ?, ?, ?, 'PENDING', 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WebhookDispatcher dispatcher;
+
+    /** Stores the event for processing; false if it was already recorded. */
+    public boolean record(Event event, String payload) {
+        Timestamp now = Timestamp.from(Instant.now());
+        int inserted = jdbcTemplate.update(INSERT, event.getId(), event.getType(),
+                paymentIntentId(payload), payload, now, now);
+        if (inserted > 0) {
+            dispatcher.wake();
+        }
+        return inserted > 0;
+    }
+
+    /** The PaymentIntent the event is about: the object itself, or the intent a charge or refund belongs to. */
+    static String paymentIntentId(String payload) {
+        JsonNode object = WebhookEventHandler.dataObject(payload);
+        if ("payment_intent".equals(object.path("object").asString(null))) {
+            return object.path("id").asString(null);
+        }
+        return object.path("payment_intent").asString(null);
+    }
+}
@@ -0,0 +1,4 @@
+-- Composite index for the newest-first listing feed: equality on status, then ordered by (created_at, id).
+-- Serves keyset pagination (WHERE status = ? AND (created_at, id) < cursor ORDER BY created_at DESC, id DESC)
+-- without a filesort or OFFSET scan.
+CREATE INDEX idx_listings_status_created_at_id ON listings (status, created_at, id);
@@ -0,0 +1,36 @@
+-- One row per participant per thread, where a thread is (listing, counterpart). Each row holds that
+-- participant's unread count and a pointer to the thread's latest message, so the inbox pages over
+-- conversations without scanning messages.
+CREATE TABLE conversations (
+  id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  owner_id BIGINT NOT NULL,
+  listing_id BIGINT NOT NULL,
+  counterpart_id BIGINT NOT NULL,
+  last_message_id BIGINT NOT NULL,
+  last_message_at DATETIME(6) NOT NULL,
+  unread_count INT NOT NULL DEFAULT 0,
+  created_at DATETIME(6) NOT NULL,
+  updated_at DATETIME(6) NOT NULL,
+  CONSTRAINT uq_conversations_owner_listing_counterpart UNIQUE (owner_id, listing_id, counterpart_id),
+  KEY idx_conversations_owner_last_message (owner_id, last_message_at, id),
+  KEY idx_conversations_owner_unread (owner_id, unread_count),
+  CONSTRAINT fk_conversations_owner FOREIGN KEY (owner_id) REFERENCES users (id),
+  CONSTRAINT fk_conversations_listing FOREIGN KEY (listing_id) REFERENCES listings (id),
+  CONSTRAINT fk_conversations_counterpart FOREIGN KEY (counterpart_id) REFERENCES users (id),
+  CONSTRAINT fk_conversations_last_message FOREIGN KEY (last_message_id) REFERENCES messages (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Backfill from existing messages: each message belongs to the receiver's and the sender's conversation.
+INSERT INTO conversations (owner_id, listing_id, counterpart_id, last_message_id, last_message_at, unread_count, created_at, updated_at)
+SELECT t.owner_id, t.listing_id, t.counterpart_id, MAX(t.id), MAX(t.created_at), SUM(t.unread), MIN(t.created_at), MAX(t.created_at)
+FROM (
+  SELECT receiver_id AS owner_id, listing_id, sender_id AS counterpart_id, id, created_at,
+         CASE WHEN is_read = 1 THEN 0 ELSE 1 END AS unread
+  FROM messages
+  UNION ALL
+  SELECT sender_id, listing_id, receiver_id, id, created_at, 0
+  FROM messages
+) t
+GROUP BY t.owner_id, t.listing_id, t.counterpart_id;
+
+CREATE INDEX idx_messages_receiver_id_id ON messages (receiver_id, id);
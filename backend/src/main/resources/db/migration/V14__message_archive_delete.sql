@@ -0,0 +1,6 @@
+-- Receiver-side flags for bulk inbox operations. Archived messages leave the inbox but stay in their
+-- thread; deleted messages disappear for the receiver and no longer count as unread. The sender's
+-- copy of the thread is unaffected.
+ALTER TABLE messages
+  ADD COLUMN is_archived BIT(1) NOT NULL DEFAULT 0,
+  ADD COLUMN is_deleted BIT(1) NOT NULL DEFAULT 0;
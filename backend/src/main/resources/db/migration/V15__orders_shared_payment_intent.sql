@@ -0,0 +1,4 @@
+-- Cart checkout charges each seller once, so all of a buyer's orders from that seller share one
+-- PaymentIntent: the id is no longer unique per order.
+ALTER TABLE orders DROP INDEX uk_orders_stripe_payment_intent_id;
+CREATE INDEX idx_orders_stripe_payment_intent_id ON orders (stripe_payment_intent_id);
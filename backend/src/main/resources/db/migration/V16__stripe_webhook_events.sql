@@ -0,0 +1,18 @@
+-- Durable inbox for Stripe webhooks. The endpoint only verifies and inserts (duplicates are dropped by
+-- the unique event id); workers process rows in id order per PaymentIntent with retry and backoff.
+CREATE TABLE stripe_webhook_events (
+  id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  event_id VARCHAR(255) NOT NULL,
+  type VARCHAR(100) NOT NULL,
+  payment_intent_id VARCHAR(255),
+  payload MEDIUMTEXT NOT NULL,
+  status VARCHAR(20) NOT NULL,
+  attempts INT NOT NULL DEFAULT 0,
+  next_attempt_at DATETIME(6) NOT NULL,
+  last_error TEXT,
+  received_at DATETIME(6) NOT NULL,
+  processed_at DATETIME(6),
+  UNIQUE KEY uk_stripe_webhook_events_event_id (event_id),
+  KEY idx_stripe_webhook_events_status_id (status, id),
+  KEY idx_stripe_webhook_events_payment_intent (payment_intent_id, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,6 @@
+-- Optimistic-lock version plus a short purchase hold, claimed by one conditional UPDATE so only
+-- one checkout at a time can create a payment for a listing.
+ALTER TABLE listings
+  ADD COLUMN version BIGINT NOT NULL DEFAULT 0,
+  ADD COLUMN held_by_user_id BIGINT NULL,
+  ADD COLUMN held_until DATETIME(6) NULL;
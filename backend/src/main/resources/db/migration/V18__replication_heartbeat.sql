@@ -0,0 +1,6 @@
+-- Written on the primary every check interval and read back from each replica; the age of the row a
+-- replica returns is its replication lag.
+CREATE TABLE replication_heartbeat (
+  id INT NOT NULL PRIMARY KEY,
+  beat_at DATETIME(6) NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
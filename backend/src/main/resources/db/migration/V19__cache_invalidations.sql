@@ -0,0 +1,10 @@
+-- Cross-instance cache invalidations: each node appends a row after a committed change and polls for
+-- rows from the other nodes. Rows are only needed for a short while and are deleted after retention.
+CREATE TABLE cache_invalidations (
+  id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  kind VARCHAR(20) NOT NULL,
+  entity_id BIGINT,
+  origin VARCHAR(64) NOT NULL,
+  created_at DATETIME(6) NOT NULL,
+  KEY idx_cache_invalidations_created_at (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
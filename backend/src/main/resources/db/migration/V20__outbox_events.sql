@@ -0,0 +1,15 @@
+-- Transactional outbox: domain events inserted in the same transaction as the change they describe,
+-- then delivered to in-process subscribers by the relay in id order per aggregate.
+CREATE TABLE outbox_events (
+  id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  aggregate_type VARCHAR(40) NOT NULL,
+  aggregate_id BIGINT NOT NULL,
+  event_type VARCHAR(60) NOT NULL,
+  payload TEXT NOT NULL,
+  created_at DATETIME(6) NOT NULL,
+  attempts INT NOT NULL DEFAULT 0,
+  next_attempt_at DATETIME(6) NOT NULL,
+  last_error TEXT,
+  dispatched_at DATETIME(6),
+  KEY idx_outbox_events_dispatched_id (dispatched_at, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
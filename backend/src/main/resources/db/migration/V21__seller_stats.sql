@@ -0,0 +1,50 @@
+-- Seller dashboard rollups, maintained from outbox events (listing status, orders paid/refunded,
+-- watch changes) so the dashboard never aggregates orders or watchlists on read.
+CREATE TABLE seller_stats (
+  seller_id BIGINT NOT NULL PRIMARY KEY,
+  active_listings INT NOT NULL DEFAULT 0,
+  sold_listings INT NOT NULL DEFAULT 0,
+  paid_orders INT NOT NULL DEFAULT 0,
+  refunded_orders INT NOT NULL DEFAULT 0,
+  gross DECIMAL(19,2) NOT NULL DEFAULT 0,
+  platform_fees DECIMAL(19,2) NOT NULL DEFAULT 0,
+  payouts DECIMAL(19,2) NOT NULL DEFAULT 0,
+  updated_at DATETIME(6) NOT NULL,
+  CONSTRAINT fk_seller_stats_seller FOREIGN KEY (seller_id) REFERENCES users (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- One row per non-removed listing.
+CREATE TABLE listing_stats (
+  listing_id BIGINT NOT NULL PRIMARY KEY,
+  seller_id BIGINT NOT NULL,
+  status VARCHAR(255) NOT NULL,
+  watchers INT NOT NULL DEFAULT 0,
+  KEY idx_listing_stats_seller_listing (seller_id, listing_id),
+  CONSTRAINT fk_listing_stats_listing FOREIGN KEY (listing_id) REFERENCES listings (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Watcher recounts look up folder items by listing.
+CREATE INDEX idx_watchlist_items_listing_user ON watchlist_items (listing_id, user_id);
+
+-- Backfill from current data; paid sums cover orders still PAID (refunds are netted out).
+INSERT INTO seller_stats (seller_id, active_listings, sold_listings, paid_orders, refunded_orders, gross, platform_fees, payouts, updated_at)
+SELECT s.seller_id,
+       (SELECT COUNT(*) FROM listings l WHERE l.seller_id = s.seller_id AND l.status = 'ACTIVE'),
+       (SELECT COUNT(*) FROM listings l WHERE l.seller_id = s.seller_id AND l.status = 'SOLD'),
+       (SELECT COUNT(*) FROM orders o JOIN listings l ON l.id = o.listing_id WHERE l.seller_id = s.seller_id AND o.status = 'PAID'),
+       (SELECT COUNT(*) FROM orders o JOIN listings l ON l.id = o.listing_id WHERE l.seller_id = s.seller_id AND o.status = 'REFUNDED'),
+       (SELECT COALESCE(SUM(o.amount), 0) FROM orders o JOIN listings l ON l.id = o.listing_id WHERE l.seller_id = s.seller_id AND o.status = 'PAID'),
+       (SELECT COALESCE(SUM(o.platform_fee), 0) FROM orders o JOIN listings l ON l.id = o.listing_id WHERE l.seller_id = s.seller_id AND o.status = 'PAID'),
+       (SELECT COALESCE(SUM(o.seller_payout), 0) FROM orders o JOIN listings l ON l.id = o.listing_id WHERE l.seller_id = s.seller_id AND o.status = 'PAID'),
+       NOW(6)
+FROM (SELECT DISTINCT seller_id FROM listings) s;
+
+INSERT INTO listing_stats (listing_id, seller_id, status, watchers)
+SELECT l.id, l.seller_id, l.status, COALESCE(w.watchers, 0)
+FROM listings l
+LEFT JOIN (SELECT u.listing_id, COUNT(*) AS watchers
+           FROM (SELECT user_id, listing_id FROM watchlist
+                 UNION
+                 SELECT user_id, listing_id FROM watchlist_items) u
+           GROUP BY u.listing_id) w ON w.listing_id = l.id
+WHERE l.status <> 'REMOVED';
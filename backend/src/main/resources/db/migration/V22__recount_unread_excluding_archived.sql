@@ -0,0 +1,5 @@
+-- Archived messages no longer count as unread; recount the denormalized counters accordingly.
+UPDATE conversations c
+SET unread_count = (SELECT COUNT(*) FROM messages m
+                    WHERE m.receiver_id = c.owner_id AND m.listing_id = c.listing_id AND m.sender_id = c.counterpart_id
+                      AND m.is_read = 0 AND m.is_archived = 0 AND m.is_deleted = 0);
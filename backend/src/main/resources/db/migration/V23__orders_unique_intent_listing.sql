@@ -0,0 +1,4 @@
+-- A PaymentIntent pays for each listing at most once, so concurrent identical cart checkouts cannot
+-- both record orders for it. The unique key also serves lookups by intent, replacing V15's index.
+ALTER TABLE orders ADD CONSTRAINT uk_orders_payment_intent_listing UNIQUE (stripe_payment_intent_id, listing_id);
+DROP INDEX idx_orders_stripe_payment_intent_id ON orders;
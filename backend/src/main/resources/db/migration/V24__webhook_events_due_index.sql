@@ -0,0 +1,3 @@
+-- The dispatcher selects only due events (status open and next_attempt_at <= now) instead of scanning
+-- the oldest open ones, so index that range.
+CREATE INDEX idx_stripe_webhook_events_status_next_attempt ON stripe_webhook_events (status, next_attempt_at);
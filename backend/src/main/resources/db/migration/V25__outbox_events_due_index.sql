@@ -0,0 +1,4 @@
+-- The relay selects only due events (undelivered and next_attempt_at <= now) that are the oldest
+-- undelivered event of their aggregate, so index that range and the per-aggregate lookup.
+CREATE INDEX idx_outbox_events_dispatched_next_attempt ON outbox_events (dispatched_at, next_attempt_at);
+CREATE INDEX idx_outbox_events_aggregate ON outbox_events (aggregate_type, aggregate_id, id);
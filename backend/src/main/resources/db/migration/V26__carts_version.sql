@@ -0,0 +1,2 @@
+-- Counts the writes of each cart so an instance only writes a cart over the version it loaded.
+ALTER TABLE carts ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
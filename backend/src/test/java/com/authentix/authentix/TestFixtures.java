@@ -0,0 +1,77 @@
+package com.authentix.authentix;
+
+import com.authentix.authentix.entity.*;
+import com.authentix.authentix.repository.CategoryRepository;
+import com.authentix.authentix.repository.ListingRepository;
+import com.authentix.authentix.repository.UserRepository;
+import com.authentix.authentix.security.AuthenticatedUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Users, listings and sign-in for the Spring Boot tests. Picked up by component scanning, so any
+ * test can autowire it without changing its context.
+ */
+@Component
+@RequiredArgsConstructor
+public class TestFixtures {
+
+    private final UserRepository userRepository;
+    private final ListingRepository listingRepository;
+    private final CategoryRepository categoryRepository;
+
+    /** Saves a user shown as {@code name}, with a unique email. */
+    public User user(String name) {
+        return user(name, null);
+    }
+
+    public User user(String name, String connectAccountId) {
+        return userRepository.save(User.builder()
+                .email(name.toLowerCase(Locale.ROOT) + "-" + UUID.randomUUID() + "@test.local")
+                .passwordHash("x")
+                .displayName(name)
+                .contactVisible(true)
+                .stripeConnectAccountId(connectAccountId)
+                .build());
+    }
+
+    /** An unsaved ACTIVE listing at 100.00 in pokemon-cards, shipped from 90007; adjust before saving. */
+    public Listing.ListingBuilder listingBuilder(User seller, String title) {
+        return Listing.builder()
+                .seller(seller)
+                .category(categoryRepository.findBySlug("pokemon-cards").orElseThrow())
+                .title(title)
+                .price(new BigDecimal("100.00"))
+                .status(ListingStatus.ACTIVE)
+                .shippingOption(ShippingOption.SHIP)
+                .zipCode("90007");
+    }
+
+    public Listing listing(User seller, String title) {
+        return listingRepository.save(listingBuilder(seller, title).build());
+    }
+
+    public Listing listing(User seller, String title, String price) {
+        return listingRepository.save(listingBuilder(seller, title).price(new BigDecimal(price)).build());
+    }
+
+    public Listing draft(User seller, String title) {
+        return listingRepository.save(listingBuilder(seller, title).status(ListingStatus.DRAFT).build());
+    }
+
+    public void signIn(User user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(user.getId(), user.getEmail()), null, List.of()));
+    }
+
+    public void clearAuth() {
+        SecurityContextHolder.clearContext();
+    }
+}
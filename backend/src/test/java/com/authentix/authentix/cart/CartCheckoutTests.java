@@ -0,0 +1,219 @@
+package com.authentix.authentix.cart;
+
+import com.authentix.authentix.TestFixtures;
+import com.authentix.authentix.cart.dto.CartItemRequest;
+import com.authentix.authentix.cart.dto.CheckoutResponse;
+import com.authentix.authentix.entity.*;
+import com.authentix.authentix.repository.AddressRepository;
+import com.authentix.authentix.repository.ListingRepository;
+import com.authentix.authentix.repository.OrderRepository;
+import com.authentix.authentix.service.OrderService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Cart checkout against a local stand-in for the Stripe API: one PaymentIntent per seller, one order per item. */
+@SpringBootTest
+class CartCheckoutTests {
+
+    private static final StubStripe stripe = StubStripe.start();
+
+    @DynamicPropertySource
+    static void stripeProperties(DynamicPropertyRegistry registry) {
+        registry.add("stripe.secret-key", () -> "sk_test_stub");
+        registry.add("stripe.api-base", stripe::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStripe() {
+        stripe.server.stop(0);
+    }
+
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private CartCheckoutService cartCheckoutService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ListingRepository listingRepository;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Test
+    void chargesEachSellerOnceAndRecordsEveryItem() throws Exception {
+        User alice = fixtures.user("alice", "acct_alice");
+        User bob = fixtures.user("bob", "acct_bob");
+        User buyer = fixtures.user("buyer");
+        Address address = address(buyer);
+        List<Listing> listings = List.of(
+                fixtures.listing(alice, "Charizard", "100.00"),
+                fixtures.listing(bob, "Pikachu", "10.00"),
+                fixtures.listing(alice, "Blastoise", "50.00"));
+        for (Listing listing : listings) {
+            cartService.addOrUpdateItem(buyer.getId(), new CartItemRequest(listing.getId(), 1, listing.getPrice(), listing.getTitle(), null, null));
+        }
+
+        int requestsBefore = stripe.requests.size();
+        CheckoutResponse response = cartCheckoutService.checkout(buyer.getId(), address.getId());
+
+        assertThat(stripe.requests).hasSize(requestsBefore + 2);
+        assertThat(response.total()).isEqualByComparingTo("160.00");
+        assertThat(response.payments()).extracting(CheckoutResponse.SellerPayment::sellerId).containsExactly(alice.getId(), bob.getId());
+        CheckoutResponse.SellerPayment alicePayment = response.payments().get(0);
+        assertThat(alicePayment.amount()).isEqualByComparingTo("150.00");
+        assertThat(alicePayment.orderIds()).hasSize(2);
+        Map<String, String> aliceRequest = stripe.requests.stream()
+                .filter(r -> "acct_alice".equals(r.get("transfer_data[destination]"))).findFirst().orElseThrow();
+        assertThat(aliceRequest).containsEntry("amount", "15000").containsEntry("application_fee_amount", "900");
+
+        List<Order> orders = orderRepository.findAllByStripePaymentIntentId(alicePayment.paymentIntentId());
+        assertThat(orders).extracting(Order::getId).containsExactlyInAnyOrderElementsOf(alicePayment.orderIds());
+        assertThat(orders).allSatisfy(order -> {
+            assertThat(order.getStatus()).isEqualTo(OrderStatus.PENDING);
+            assertThat(order.getShipLine1()).isEqualTo("1 Main St");
+        });
+
+        CheckoutResponse retried = cartCheckoutService.checkout(buyer.getId(), address.getId());
+        assertThat(retried.payments()).extracting(CheckoutResponse.SellerPayment::paymentIntentId)
+                .containsExactly(alicePayment.paymentIntentId(), response.payments().get(1).paymentIntentId());
+        assertThat(retried.payments().get(0).orderIds()).isEqualTo(alicePayment.orderIds());
+        assertThat(orderRepository.findAllByStripePaymentIntentIdIn(List.of(alicePayment.paymentIntentId()))).hasSize(2);
+
+        orderService.markOrderPaidByPaymentIntentId(alicePayment.paymentIntentId());
+        assertThat(listingRepository.findById(listings.get(0).getId()).orElseThrow().getStatus()).isEqualTo(ListingStatus.SOLD);
+        assertThat(listingRepository.findById(listings.get(2).getId()).orElseThrow().getStatus()).isEqualTo(ListingStatus.SOLD);
+        assertThat(listingRepository.findById(listings.get(1).getId()).orElseThrow().getStatus()).isEqualTo(ListingStatus.ACTIVE);
+    }
+
+    @Test
+    void checkingOutAgainAfterACanceledPaymentStartsANewIntent() throws Exception {
+        User alice = fixtures.user("alice", "acct_alice");
+        User bob = fixtures.user("bob", "acct_bob");
+        User buyer = fixtures.user("buyer");
+        Address address = address(buyer);
+        for (Listing listing : List.of(fixtures.listing(alice, "Charizard", "100.00"), fixtures.listing(bob, "Pikachu", "10.00"))) {
+            cartService.addOrUpdateItem(buyer.getId(), new CartItemRequest(listing.getId(), 1, listing.getPrice(), listing.getTitle(), null, null));
+        }
+
+        CheckoutResponse first = cartCheckoutService.checkout(buyer.getId(), address.getId());
+        String failedIntent = first.payments().get(0).paymentIntentId();
+        orderService.markOrderCanceledByPaymentIntentId(failedIntent);
+
+        CheckoutResponse second = cartCheckoutService.checkout(buyer.getId(), address.getId());
+        CheckoutResponse.SellerPayment alicePayment = second.payments().get(0);
+        assertThat(alicePayment.paymentIntentId()).isNotEqualTo(failedIntent);
+        assertThat(alicePayment.orderIds()).doesNotContainAnyElementsOf(first.payments().get(0).orderIds());
+        assertThat(orderRepository.findAllByStripePaymentIntentId(alicePayment.paymentIntentId()))
+                .extracting(Order::getStatus).containsExactly(OrderStatus.PENDING);
+        assertThat(orderRepository.findAllByStripePaymentIntentId(failedIntent))
+                .extracting(Order::getStatus).containsExactly(OrderStatus.FAILED);
+        assertThat(second.payments().get(1)).as("the other seller's pending payment is reused").isEqualTo(first.payments().get(1));
+    }
+
+    @Test
+    void concurrentIdenticalCheckoutsRecordOneSetOfOrders() throws Exception {
+        User alice = fixtures.user("alice", "acct_alice");
+        User buyer = fixtures.user("buyer");
+        Address address = address(buyer);
+        for (Listing listing : List.of(fixtures.listing(alice, "Charizard", "100.00"), fixtures.listing(alice, "Blastoise", "50.00"))) {
+            cartService.addOrUpdateItem(buyer.getId(), new CartItemRequest(listing.getId(), 1, listing.getPrice(), listing.getTitle(), null, null));
+        }
+
+        List<CheckoutResponse> responses = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return responses.add(cartCheckoutService.checkout(buyer.getId(), address.getId()));
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        String intent = responses.getFirst().payments().getFirst().paymentIntentId();
+        assertThat(responses).extracting(r -> r.payments().getFirst().orderIds()).containsOnly(responses.getFirst().payments().getFirst().orderIds());
+        assertThat(orderRepository.findAllByStripePaymentIntentId(intent)).hasSize(2);
+    }
+
+    private Address address(User buyer) {
+        return addressRepository.save(Address.builder().user(buyer).line1("1 Main St").city("Los Angeles")
+                .state("CA").postalCode("90007").country("US").build());
+    }
+
+    /** Answers POST /v1/payment_intents like Stripe, replaying the first response for a repeated idempotency key. */
+    private record StubStripe(HttpServer server, List<Map<String, String>> requests, Map<String, String> byIdempotencyKey) {
+
+        static StubStripe start() {
+            try {
+                HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+                StubStripe stub = new StubStripe(server, new CopyOnWriteArrayList<>(), new ConcurrentHashMap<>());
+                AtomicInteger ids = new AtomicInteger();
+                server.createContext("/v1/payment_intents", exchange -> stub.handle(exchange, ids));
+                server.start();
+                return stub;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        String baseUrl() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        private void handle(HttpExchange exchange, AtomicInteger ids) throws IOException {
+            Map<String, String> form = new HashMap<>();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            for (String pair : body.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    form.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                            URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+                }
+            }
+            String key = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+            String json = byIdempotencyKey.computeIfAbsent(key, k -> {
+                requests.add(form);
+                String id = "pi_stub_" + ids.incrementAndGet();
+                return "{\"id\":\"" + id + "\",\"object\":\"payment_intent\",\"amount\":" + form.get("amount")
+                        + ",\"currency\":\"usd\",\"client_secret\":\"" + id + "_secret\",\"status\":\"requires_payment_method\"}";
+            });
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.authentix.authentix.cart;
+
+import com.authentix.authentix.TestFixtures;
+import com.authentix.authentix.cart.dto.CartIssue;
+import com.authentix.authentix.cart.dto.CartItemRequest;
+import com.authentix.authentix.cart.dto.CartItemResponse;
+import com.authentix.authentix.cart.dto.CartResponse;
+import com.authentix.authentix.entity.*;
+import com.authentix.authentix.repository.ListingRepository;
+import com.authentix.authentix.service.ListingChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Cart views are checked against listings in one query and cached until the cart or one of its listings changes. */
+@SpringBootTest
+class CartRevalidatorTests {
+
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private ListingRepository listingRepository;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void reportsIssuesUntilAcknowledgedAndCachesPerListing() {
+        User seller = fixtures.user("Seller");
+        User buyer = fixtures.user("Buyer");
+        Listing charizard = listing(seller, "Charizard", "99.00");
+        Listing pikachu = listing(seller, "Pikachu", "15.00");
+
+        cartService.addOrUpdateItem(buyer.getId(), new CartItemRequest(charizard.getId(), 1, null, null, null, null));
+        cartService.addOrUpdateItem(buyer.getId(), new CartItemRequest(pikachu.getId(), 2, null, null, null, null));
+        transactionTemplate.executeWithoutResult(status -> {
+            Listing repriced = listingRepository.findById(charizard.getId()).orElseThrow();
+            repriced.setPrice(new BigDecimal("120.00"));
+            eventPublisher.publishEvent(ListingChangedEvent.of(repriced));
+        });
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        CartResponse first = cartService.getCart(buyer.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(first.subtotal()).isEqualByComparingTo("150.00");
+        assertThat(first.items()).extracting(CartItemResponse::title).containsExactly("Charizard", "Pikachu");
+        assertThat(first.items().get(0).image()).isEqualTo("/api/images/Charizard");
+        assertThat(first.issues()).singleElement().satisfies(issue -> {
+            assertThat(issue.reason()).isEqualTo(CartIssue.Reason.PRICE_CHANGED);
+            assertThat(issue.previousPrice()).isEqualByComparingTo("99.00");
+            assertThat(issue.currentPrice()).isEqualByComparingTo("120.00");
+        });
+
+        statistics.clear();
+        CartResponse cached = cartService.getCart(buyer.getId());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(cached.issues()).as("issues stay until acknowledged").isEqualTo(first.issues());
+        assertThat(cached.subtotal()).isEqualByComparingTo("150.00");
+
+        Listing other = listing(seller, "Mewtwo", "40.00");
+        transactionTemplate.executeWithoutResult(status -> {
+            Listing changed = listingRepository.findById(other.getId()).orElseThrow();
+            changed.setPrice(new BigDecimal("45.00"));
+            eventPublisher.publishEvent(ListingChangedEvent.of(changed));
+        });
+        statistics.clear();
+        cartService.getCart(buyer.getId());
+        assertThat(statistics.getPrepareStatementCount()).as("other listings do not invalidate the cart").isZero();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Listing sold = listingRepository.findById(pikachu.getId()).orElseThrow();
+            sold.setStatus(ListingStatus.SOLD);
+            eventPublisher.publishEvent(ListingChangedEvent.of(sold));
+        });
+        CartResponse afterSale = cartService.getCart(buyer.getId());
+        assertThat(afterSale.items()).extracting(CartItemResponse::listingId).containsExactly(charizard.getId());
+        assertThat(afterSale.subtotal()).isEqualByComparingTo("120.00");
+        assertThat(afterSale.issues()).extracting(CartIssue::reason)
+                .containsExactly(CartIssue.Reason.PRICE_CHANGED, CartIssue.Reason.SOLD);
+        assertThat(cartService.getCart(buyer.getId()).issues()).hasSize(2);
+
+        CartResponse acknowledged = cartService.acknowledgeIssues(buyer.getId());
+        assertThat(acknowledged.issues()).isEmpty();
+        assertThat(acknowledged.items()).extracting(CartItemResponse::listingId).containsExactly(charizard.getId());
+        assertThat(cartService.getCart(buyer.getId()).issues()).isEmpty();
+    }
+
+    @Test
+    void addsSnapshotTheListingNotWhatTheClientSent() {
+        User seller = fixtures.user("Seller");
+        User buyer = fixtures.user("Buyer");
+        Listing charizard = listing(seller, "Charizard", "120.00");
+        Listing sold = listing(seller, "Pikachu", "15.00");
+        transactionTemplate.executeWithoutResult(status -> {
+            Listing changed = listingRepository.findById(sold.getId()).orElseThrow();
+            changed.setStatus(ListingStatus.SOLD);
+        });
+
+        CartResponse added = cartService.addOrUpdateItem(buyer.getId(),
+                new CartItemRequest(charizard.getId(), 1, new BigDecimal("0.01"), "Bargain", "/evil.png", "LOCAL_PICKUP"));
+        assertThat(added.subtotal()).isEqualByComparingTo("120.00");
+        assertThat(added.issues()).isEmpty();
+        assertThat(added.items()).singleElement().satisfies(item -> {
+            assertThat(item.title()).isEqualTo("Charizard");
+            assertThat(item.image()).isEqualTo("/api/images/Charizard");
+        });
+        assertThatThrownBy(() -> cartService.addOrUpdateItem(buyer.getId(), new CartItemRequest(sold.getId(), 1, null, null, null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        CartResponse merged = cartService.mergeGuestCart(buyer.getId(), List.of(
+                new CartItemRequest(charizard.getId(), 1, new BigDecimal("0.01"), "Bargain", null, null),
+                new CartItemRequest(sold.getId(), 1, new BigDecimal("15.00"), "Pikachu", null, null)));
+        assertThat(merged.items()).extracting(CartItemResponse::listingId).containsExactly(charizard.getId());
+        assertThat(merged.subtotal()).isEqualByComparingTo("240.00");
+        assertThat(merged.issues()).isEmpty();
+    }
+
+    private Listing listing(User seller, String title, String price) {
+        return listingRepository.save(fixtures.listingBuilder(seller, title)
+                .price(new BigDecimal(price))
+                .images(List.of("/api/images/" + title))
+                .build());
+    }
+}
@@ -0,0 +1,146 @@
+package com.authentix.authentix.cart;
+
+import com.authentix.authentix.TestFixtures;
+import com.authentix.authentix.cart.dto.CartItemRequest;
+import com.authentix.authentix.cart.dto.CartItemResponse;
+import com.authentix.authentix.cart.dto.CartResponse;
+import com.authentix.authentix.dto.ListingSummary;
+import com.authentix.authentix.entity.User;
+import com.authentix.authentix.repository.ListingRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Cart mutations are served from memory and reach cart_items only when the store flushes. Adds read
+ * the listing, never the cart.
+ */
+@SpringBootTest
+class CartStoreTests {
+
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private CartStore cartStore;
+    @Autowired
+    private CartBatchWriter writer;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ListingRepository listingRepository;
+    @Autowired
+    private TestFixtures fixtures;
+
+    /** Listings priced 10.00, 5.50, 1.00, 1.00 and 1.00. */
+    private List<Long> listings;
+
+    @BeforeEach
+    void seed() {
+        User seller = fixtures.user("Seller");
+        listings = List.of("10.00", "5.50", "1.00", "1.00", "1.00").stream()
+                .map(price -> fixtures.listing(seller, "Card", price).getId())
+                .toList();
+    }
+
+    @Test
+    void mutationsRunInMemoryAndSurviveFlushAndReload() {
+        Long userId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Long first = listings.get(0);
+        Long second = listings.get(1);
+        Long third = listings.get(2);
+        cartStore.apply(userId, CartState::items);
+        cartService.addOrUpdateItem(userId, item(first, 2));
+        cartService.addOrUpdateItem(userId, item(second, 1));
+        statistics.clear();
+        cartService.addOrUpdateItem(userId, item(first, 1));
+        assertThat(statistics.getPrepareStatementCount()).as("the listing, then the cart's review").isEqualTo(2);
+        statistics.clear();
+        cartService.updateQuantity(userId, second, 4);
+        CartResponse response = cartService.removeItem(userId, third);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(response.itemCount()).isEqualTo(7);
+        assertThat(response.subtotal()).isEqualByComparingTo("52.00");
+        assertThatThrownBy(() -> cartService.updateQuantity(userId, third, 2)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(cartStore.evict(userId)).isFalse();
+        cartStore.flush();
+        assertThat(storedQuantities(userId)).containsExactly(3, 4);
+
+        assertThat(cartStore.evict(userId)).isTrue();
+        CartResponse reloaded = cartStore.apply(userId, cart -> CartService.summarize(cart.items()));
+        assertThat(reloaded.items()).extracting(CartItemResponse::listingId).containsExactly(first, second);
+        assertThat(reloaded.subtotal()).isEqualByComparingTo("52.00");
+
+        cartService.clearCart(userId);
+        cartStore.flush();
+        assertThat(storedQuantities(userId)).isEmpty();
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws Exception {
+        Long userId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofVirtual().start(() ->
+                    IntStream.range(0, 250).forEach(i -> cartService.addOrUpdateItem(userId, item(listings.get(i % 5), 1)))));
+        }
+        for (Thread thread : threads) thread.join();
+        cartStore.flush();
+
+        assertThat(cartStore.apply(userId, cart -> CartService.summarize(cart.items())).itemCount()).isEqualTo(2000);
+        assertThat(storedQuantities(userId).stream().mapToInt(Integer::intValue).sum()).isEqualTo(2000);
+    }
+
+    @Test
+    void writesFromAnotherInstanceAreMergedRatherThanOverwritten() {
+        Long userId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+        CartStore otherInstance = new CartStore(writer, event -> {}, 100);
+        Long first = listings.get(0);
+        Long second = listings.get(1);
+        ListingSummary third = listingRepository.findSummariesByIdIn(List.of(listings.get(2))).get(0);
+        cartService.addOrUpdateItem(userId, item(first, 1));
+        cartService.addOrUpdateItem(userId, item(second, 1));
+        cartStore.flush();
+
+        otherInstance.apply(userId, cart -> {
+            cart.upsert(third, 1);
+            return cart.setQuantity(second, 5);
+        });
+        cartService.updateQuantity(userId, first, 3);
+        cartService.removeItem(userId, second);
+        otherInstance.flush();
+        cartStore.flush();
+        assertThat(storedQuantities(userId)).as("the other instance's write is kept").containsExactly(1, 5, 1);
+
+        cartStore.flush();
+        assertThat(storedQuantities(userId)).containsExactly(3, 1);
+        otherInstance.invalidate(userId);
+        assertThat(otherInstance.apply(userId, CartState::listingIds)).containsExactly(first, third.id());
+    }
+
+    private List<Integer> storedQuantities(Long userId) {
+        return jdbcTemplate.queryForList("SELECT ci.quantity FROM cart_items ci JOIN carts c ON c.id = ci.cart_id"
+                + " WHERE c.user_id = ? ORDER BY ci.listing_id", Integer.class, userId);
+    }
+
+    private static CartItemRequest item(Long listingId, int quantity) {
+        return new CartItemRequest(listingId, quantity, null, null, null, null);
+    }
+}
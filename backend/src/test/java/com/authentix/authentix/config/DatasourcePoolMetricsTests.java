@@ -0,0 +1,54 @@
+package com.authentix.authentix.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.micrometer.metrics.test.autoconfigure.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** The pool takes its settings from spring.datasource.hikari.* (as in application.properties) and reports its gauges to Micrometer and Prometheus. */
+@AutoConfigureMetrics
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.pool-name=authentix",
+        "spring.datasource.hikari.maximum-pool-size=7",
+        "spring.datasource.hikari.leak-detection-threshold=30000",
+        "spring.datasource.hikari.data-source-properties.cachePrepStmts=false"})
+class DatasourcePoolMetricsTests {
+
+    @Autowired
+    private HikariDataSource dataSource;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private PrometheusMeterRegistry prometheusMeterRegistry;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void bindsPoolSettingsAndExportsPoolGauges() {
+        assertThat(dataSource.getPoolName()).isEqualTo("authentix");
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(7);
+        assertThat(dataSource.getLeakDetectionThreshold()).isEqualTo(30000);
+        assertThat(dataSource.getDataSourceProperties()).containsEntry("cachePrepStmts", "false");
+
+        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+
+        assertThat(meterRegistry.get("hikaricp.connections.active").tag("pool", "authentix").gauge()).isNotNull();
+        assertThat(meterRegistry.get("hikaricp.connections.idle").gauge().value()).isPositive();
+        assertThat(meterRegistry.get("hikaricp.connections.pending").gauge()).isNotNull();
+        assertThat(meterRegistry.get("hikaricp.connections.acquire").timer().count()).isPositive();
+        assertThat(prometheusMeterRegistry.scrape()).contains("hikaricp_connections_active{pool=\"authentix\"}");
+    }
+
+    @Test
+    void appliesMysqlDriverDefaultsOnlyToMysqlUrls() {
+        assertThat(DatasourceConfig.MYSQL_DRIVER_DEFAULTS).containsEntry("rewriteBatchedStatements", "true")
+                .containsEntry("useServerPrepStmts", "true");
+        assertThat(dataSource.getDataSourceProperties()).doesNotContainKey("rewriteBatchedStatements");
+    }
+}
@@ -0,0 +1,128 @@
+package com.authentix.authentix.config;
+
+import com.authentix.authentix.TestFixtures;
+import com.authentix.authentix.dto.MessageDto;
+import com.authentix.authentix.entity.Listing;
+import com.authentix.authentix.entity.User;
+import com.authentix.authentix.service.MessageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two in-memory H2 databases stand in for a primary and its replica; each has a marker row naming
+ * itself, so a query shows where a transaction's connection came from.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replicas=" + ReadReplicaRoutingTests.REPLICA_URL,
+        "app.datasource.replica-username=sa",
+        "app.datasource.replica-max-lag=5s",
+        "app.datasource.replica-lag-check-interval=1h"})
+class ReadReplicaRoutingTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:authentix_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String WHERE_AM_I = "SELECT name FROM routing_marker";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+    @Autowired
+    private MessageService messageService;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @BeforeEach
+    void createMarkers() throws SQLException {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS routing_marker (name VARCHAR(20))");
+        jdbcTemplate.execute("DELETE FROM routing_marker");
+        jdbcTemplate.update("INSERT INTO routing_marker (name) VALUES ('primary')");
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS routing_marker (name VARCHAR(20))");
+            statement.execute("DELETE FROM routing_marker");
+            statement.execute("INSERT INTO routing_marker (name) VALUES ('replica')");
+            statement.execute("CREATE TABLE IF NOT EXISTS replication_heartbeat (id INT PRIMARY KEY, beat_at TIMESTAMP(6) NOT NULL)");
+        }
+    }
+
+    @Test
+    void readOnlyTransactionsUseACaughtUpReplica() throws SQLException {
+        replicateHeartbeat(Instant.now());
+        replicaLagMonitor.check();
+
+        assertThat(inTransaction(true)).isEqualTo("replica");
+        assertThat(inTransaction(false)).isEqualTo("primary");
+        assertThat(jdbcTemplate.queryForObject(WHERE_AM_I, String.class)).isEqualTo("primary");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM replication_heartbeat", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void laggingOrUnreadableReplicasFallBackToThePrimary() throws SQLException {
+        replicateHeartbeat(Instant.now().minusSeconds(60));
+        replicaLagMonitor.check();
+        assertThat(inTransaction(true)).isEqualTo("primary");
+
+        replicateHeartbeat(Instant.now());
+        replicaLagMonitor.check();
+        assertThat(inTransaction(true)).isEqualTo("replica");
+
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("DROP TABLE replication_heartbeat");
+        }
+        replicaLagMonitor.check();
+        assertThat(inTransaction(true)).isEqualTo("primary");
+    }
+
+    @Test
+    void inboxReadsStayOnThePrimaryWhileAReplicaIsUsable() throws SQLException {
+        replicateHeartbeat(Instant.now());
+        replicaLagMonitor.check();
+        assertThat(inTransaction(true)).isEqualTo("replica");
+
+        User seller = fixtures.user("seller");
+        Listing listing = fixtures.listing(seller, "Umbreon");
+        fixtures.signIn(fixtures.user("buyer"));
+        try {
+            MessageDto sent = messageService.send(listing.getId(), "Still available?");
+            // The replica has no message tables, so either read would fail if it were routed there.
+            assertThat(messageService.getReceivedAfter(seller.getId(), sent.getId() - 1, 10))
+                    .extracting(MessageDto::getId).containsExactly(sent.getId());
+            fixtures.signIn(seller);
+            assertThat(messageService.getUnreadCount()).isEqualTo(1);
+        } finally {
+            fixtures.clearAuth();
+        }
+    }
+
+    private String inTransaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject(WHERE_AM_I, String.class));
+    }
+
+    private static void replicateHeartbeat(Instant beatAt) throws SQLException {
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             PreparedStatement statement = replica.prepareStatement("MERGE INTO replication_heartbeat (id, beat_at) KEY (id) VALUES (1, ?)")) {
+            statement.setTimestamp(1, Timestamp.from(beatAt));
+            statement.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.authentix.authentix.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** A replica that refuses connections at startup leaves the application running on the primary. */
+@SpringBootTest(properties = {
+        "app.datasource.replicas=jdbc:h2:tcp://127.0.0.1:1/mem:authentix_down",
+        "app.datasource.replica-username=sa",
+        "app.datasource.replica-lag-check-interval=1h",
+        "spring.datasource.hikari.connection-timeout=250"})
+class UnreachableReplicaTests {
+
+    @Autowired
+    private ReadReplicaRoutingDataSource routingDataSource;
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaIsDown() {
+        assertThat(routingDataSource.replicas()).hasSize(1);
+
+        replicaLagMonitor.check();
+
+        assertThat(routingDataSource.isUsable(0)).isFalse();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Integer one = readOnly.execute(status -> jdbcTemplate.queryForObject("SELECT 1", Integer.class));
+        assertThat(one).isEqualTo(1);
+    }
+}
@@ -0,0 +1,111 @@
+package com.authentix.authentix.dashboard;
+
+import com.authentix.authentix.TestFixtures;
+import com.authentix.authentix.entity.*;
+import com.authentix.authentix.repository.OrderRepository;
+import com.authentix.authentix.security.AuthenticatedUser;
+import com.authentix.authentix.service.ListingService;
+import com.authentix.authentix.service.OrderService;
+import com.authentix.authentix.service.WatchlistService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** The dashboard follows listing, order and watch changes through the outbox. */
+@SpringBootTest(properties = "app.outbox.poll-interval=50ms")
+class SellerDashboardTests {
+
+    @Autowired
+    private SellerDashboardService dashboardService;
+    @Autowired
+    private ListingService listingService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private WatchlistService watchlistService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @AfterEach
+    void clearAuth() {
+        fixtures.clearAuth();
+    }
+
+    @Test
+    void totalsAndWatchersFollowStatusOrdersAndWatches() throws Exception {
+        User seller = fixtures.user("seller");
+        User buyer = fixtures.user("buyer");
+        AuthenticatedUser sellerAuth = new AuthenticatedUser(seller.getId(), seller.getEmail());
+        Listing kept = fixtures.draft(seller, "Charizard");
+        Listing sold = fixtures.draft(seller, "Blastoise");
+        Listing removed = fixtures.draft(seller, "Venusaur");
+
+        fixtures.signIn(seller);
+        listingService.setStatus(kept.getId(), ListingStatus.ACTIVE);
+        listingService.setStatus(sold.getId(), ListingStatus.ACTIVE);
+        listingService.setStatus(removed.getId(), ListingStatus.ACTIVE);
+        listingService.delete(removed.getId());
+        // Watchlist plus its "Saved" folder: still one watcher.
+        fixtures.signIn(buyer);
+        watchlistService.add(kept.getId());
+
+        SellerDashboard dashboard = await(sellerAuth, d -> d.activeListings() == 2
+                && d.listings().stream().anyMatch(l -> l.listingId().equals(kept.getId()) && l.watchers() == 1));
+        assertThat(dashboard.listings()).extracting(SellerDashboard.ListingWatchers::listingId)
+                .containsExactly(sold.getId(), kept.getId());
+        assertThat(dashboard.soldListings()).isZero();
+
+        String paymentIntent = "pi_" + UUID.randomUUID();
+        orderRepository.save(Order.builder()
+                .buyer(buyer)
+                .listing(sold)
+                .stripePaymentIntentId(paymentIntent)
+                .amount(new BigDecimal("100.00"))
+                .platformFee(new BigDecimal("10.00"))
+                .sellerPayout(new BigDecimal("90.00"))
+                .status(OrderStatus.PENDING)
+                .createdAt(Instant.now())
+                .build());
+        orderService.markOrderPaidByPaymentIntentId(paymentIntent);
+        orderService.markOrderPaidByPaymentIntentId(paymentIntent);
+
+        dashboard = await(sellerAuth, d -> d.paidOrders() == 1 && d.soldListings() == 1);
+        assertThat(dashboard.activeListings()).isEqualTo(1);
+        assertThat(dashboard.gross()).isEqualByComparingTo("100.00");
+        assertThat(dashboard.platformFees()).isEqualByComparingTo("10.00");
+        assertThat(dashboard.payouts()).isEqualByComparingTo("90.00");
+        assertThat(dashboard.listings()).filteredOn(l -> l.listingId().equals(sold.getId()))
+                .extracting(SellerDashboard.ListingWatchers::status).containsExactly(ListingStatus.SOLD);
+
+        orderService.markOrderRefundedByPaymentIntentId(paymentIntent);
+        dashboard = await(sellerAuth, d -> d.refundedOrders() == 1);
+        assertThat(dashboard.paidOrders()).isZero();
+        assertThat(dashboard.gross()).isEqualByComparingTo("0");
+        assertThat(dashboard.payouts()).isEqualByComparingTo("0");
+
+        fixtures.signIn(buyer);
+        watchlistService.remove(kept.getId());
+        await(sellerAuth, d -> d.listings().stream().allMatch(l -> l.watchers() == 0));
+    }
+
+    private SellerDashboard await(AuthenticatedUser auth, Predicate<SellerDashboard> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        SellerDashboard dashboard;
+        while (!condition.test(dashboard = dashboardService.get(auth))) {
+            assertThat(System.nanoTime()).as("timed out waiting for the dashboard: %s", dashboard).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+        return dashboard;
+    }
+}
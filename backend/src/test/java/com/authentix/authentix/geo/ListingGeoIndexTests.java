@@ -0,0 +1,65 @@
+package com.authentix.authentix.geo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ListingGeoIndexTests {
+
+    private static final GeoPoint DOWNTOWN_LA = new GeoPoint(34.0449, -118.2404);   // 90013
+    private static final GeoPoint USC = new GeoPoint(34.0284, -118.2848);           // 90007
+    private static final GeoPoint BEVERLY_HILLS = new GeoPoint(34.1030, -118.4105); // 90210
+    private static final GeoPoint SAN_DIEGO = new GeoPoint(32.7190, -117.1628);     // 92101
+
+    private final ListingGeoIndex index = new ListingGeoIndex();
+
+    @BeforeEach
+    void seed() {
+        index.put(1L, "90007", USC, Instant.parse("2026-01-01T00:00:00Z"));
+        index.put(2L, "90007", USC, Instant.parse("2026-02-01T00:00:00Z"));
+        index.put(3L, "90210", BEVERLY_HILLS, Instant.parse("2026-03-01T00:00:00Z"));
+        index.put(4L, "92101", SAN_DIEGO, Instant.parse("2026-04-01T00:00:00Z"));
+    }
+
+    @Test
+    void returnsListingsInRadiusNearestFirst() {
+        List<NearbyHit> hits = index.within(DOWNTOWN_LA, 25, 10);
+
+        assertThat(hits).extracting(NearbyHit::listingId).containsExactly(2L, 1L, 3L);
+        assertThat(hits.get(0).distanceMiles()).isBetween(2.0, 3.5);
+        assertThat(index.within(DOWNTOWN_LA, 150, 10)).extracting(NearbyHit::listingId).containsExactly(2L, 1L, 3L, 4L);
+        assertThat(index.within(DOWNTOWN_LA, 150, 2)).extracting(NearbyHit::listingId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void followsMovesAndRemovals() {
+        index.put(4L, "90013", DOWNTOWN_LA, Instant.parse("2026-04-01T00:00:00Z"));
+        index.remove(2L);
+
+        assertThat(index.within(DOWNTOWN_LA, 25, 10)).extracting(NearbyHit::listingId).containsExactly(4L, 1L, 3L);
+        assertThat(index.within(SAN_DIEGO, 10, 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void answersRadiusQueriesOverManyListings() {
+        Random random = new Random(42);
+        index.clear();
+        for (long id = 1; id <= 100_000; id++) {
+            int zip = random.nextInt(20_000);
+            GeoPoint point = new GeoPoint(25 + (zip % 200) * 0.12, -124 + (zip / 200) * 0.57);
+            index.put(id, String.valueOf(zip), point, Instant.ofEpochSecond(id));
+        }
+
+        List<NearbyHit> hits = index.within(new GeoPoint(37.0, -100.0), 50, 50);
+
+        assertThat(hits).hasSize(50);
+        assertThat(hits).allMatch(h -> h.distanceMiles() <= 50);
+        assertThat(hits).isSortedAccordingTo((a, b) -> Double.compare(a.distanceMiles(), b.distanceMiles()));
+    }
+}
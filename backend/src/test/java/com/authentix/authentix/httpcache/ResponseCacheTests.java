@@ -0,0 +1,112 @@
+package com.authentix.authentix.httpcache;
+
+import com.authentix.authentix.TestFixtures;
+import com.authentix.authentix.dto.UpdateListingRequest;
+import com.authentix.authentix.entity.Listing;
+import com.authentix.authentix.entity.User;
+import com.authentix.authentix.service.ListingService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.util.unit.DataSize;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Public GETs are served from memory with ETags until a committed change invalidates them. */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ResponseCacheTests {
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Value("${local.server.port}")
+    private int port;
+    @Autowired
+    private ListingService listingService;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void clearAuth() {
+        fixtures.clearAuth();
+    }
+
+    @Test
+    void listingDetailRevalidatesUntilTheListingChanges() throws Exception {
+        User seller = fixtures.user("Seller");
+        Listing listing = fixtures.listing(seller, "Charizard");
+        String path = "/api/listings/" + listing.getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        HttpResponse<String> first = get(path, null);
+        assertThat(first.statusCode()).isEqualTo(200);
+        assertThat(first.body()).contains("Charizard");
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        assertThat(etag).startsWith("W/\"");
+        assertThat(first.headers().firstValue("Cache-Control")).hasValue("public, no-cache");
+
+        statistics.clear();
+        HttpResponse<String> revalidated = get(path, etag);
+        HttpResponse<String> again = get(path, null);
+        assertThat(revalidated.statusCode()).isEqualTo(304);
+        assertThat(revalidated.body()).isEmpty();
+        assertThat(again.body()).isEqualTo(first.body());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        fixtures.signIn(seller);
+        UpdateListingRequest update = new UpdateListingRequest();
+        update.setTitle("Charizard (1st edition)");
+        listingService.update(listing.getId(), update);
+
+        HttpResponse<String> changed = get(path, etag);
+        assertThat(changed.statusCode()).isEqualTo(200);
+        assertThat(changed.body()).contains("1st edition");
+        assertThat(changed.headers().firstValue("ETag")).isPresent().get().isNotEqualTo(etag);
+    }
+
+    @Test
+    void equivalentFeedQueriesShareAnEntry() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        HttpResponse<String> first = get("/api/listings?size=5&shippingOption=SHIP&categoryId=", null);
+        assertThat(first.statusCode()).isEqualTo(200);
+
+        statistics.clear();
+        HttpResponse<String> reordered = get("/api/listings?shippingOption=SHIP&size=5", null);
+        assertThat(reordered.body()).isEqualTo(first.body());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesToStayWithinItsByteBudget() {
+        ResponseCache cache = new ResponseCache(DataSize.ofKilobytes(64), Duration.ofMinutes(1));
+        ResponseCache.Stamp stamp = cache.stamp(List.of(ResponseCache.LISTINGS));
+        for (int i = 0; i < 1000; i++) {
+            cache.put("/api/listings/" + i, new byte[512], "application/json", "W/\"" + i + "\"", stamp);
+        }
+        assertThat(cache.bytes()).isLessThanOrEqualTo(DataSize.ofKilobytes(64).toBytes());
+        assertThat(cache.size()).isBetween(1, 999);
+        assertThat(cache.get("/api/listings/999")).isNotNull();
+
+        cache.invalidate(ResponseCache.LISTINGS);
+        assertThat(cache.get("/api/listings/999")).isNull();
+    }
+
+    private HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (ifNoneMatch != null) request.header("If-None-Match", ifNoneMatch);
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,64 @@
+package com.authentix.authentix.image;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Stored images go out through the connector's sendfile when it offers one, and are copied otherwise. */
+class ImageControllerTests {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13};
+
+    @TempDir
+    private Path dir;
+    private ImageStore imageStore;
+    private ImageController controller;
+    private String hash;
+
+    @BeforeEach
+    void setUp() {
+        imageStore = new ImageStore(dir.toString());
+        controller = new ImageController(new ImageService(imageStore), imageStore);
+        hash = imageStore.put(PNG);
+    }
+
+    @Test
+    void handsTheFileToSendfileWhenTheConnectorSupportsIt() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/images/" + hash);
+        request.setAttribute(ImageController.SENDFILE_SUPPORT, Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.serve(hash, request, response);
+
+        assertThat(response.getContentType()).isEqualTo("image/png");
+        assertThat(response.getContentLengthLong()).isEqualTo(PNG.length);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(request.getAttribute(ImageController.SENDFILE_FILENAME))
+                .isEqualTo(imageStore.find(hash).orElseThrow().toString());
+        assertThat(request.getAttribute(ImageController.SENDFILE_START)).isEqualTo(0L);
+        assertThat(request.getAttribute(ImageController.SENDFILE_END)).isEqualTo((long) PNG.length);
+    }
+
+    @Test
+    void copiesTheFileOtherwiseAndAnswersConditionalRequests() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.serve(hash, new MockHttpServletRequest("GET", "/api/images/" + hash), response);
+
+        assertThat(response.getContentAsByteArray()).isEqualTo(PNG);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + hash + "\"");
+
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/api/images/" + hash);
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + hash + "\"");
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+        controller.serve(hash, conditional, notModified);
+        assertThat(notModified.getStatus()).isEqualTo(304);
+        assertThat(notModified.getContentAsByteArray()).isEmpty();
+    }
+}
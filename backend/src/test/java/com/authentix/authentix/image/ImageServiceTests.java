@@ -0,0 +1,98 @@
+package com.authentix.authentix.image;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Images are stored once per content hash, legacy data URLs become references, and lookups only accept hashes. */
+class ImageServiceTests {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13};
+
+    @TempDir
+    private Path dir;
+    private ImageStore imageStore;
+    private ImageService imageService;
+
+    @BeforeEach
+    void setUp() {
+        imageStore = new ImageStore(dir.toString());
+        imageService = new ImageService(imageStore);
+        ReflectionTestUtils.setField(imageService, "maxBytes", 64L);
+    }
+
+    @Test
+    void identicalUploadsAreStoredOnce() throws Exception {
+        String first = imageService.store(PNG);
+        String second = imageService.store(PNG.clone());
+
+        assertThat(first).isEqualTo(second).startsWith(ImageService.URL_PREFIX);
+        String hash = first.substring(ImageService.URL_PREFIX.length());
+        assertThat(ImageStore.isValidHash(hash)).isTrue();
+        assertThat(imageStore.find(hash)).hasValueSatisfying(path -> {
+            assertThat(path).startsWith(dir);
+            assertThat(path).hasBinaryContent(PNG);
+        });
+        try (Stream<Path> files = Files.walk(dir)) {
+            assertThat(files.filter(Files::isRegularFile)).hasSize(1);
+        }
+    }
+
+    @Test
+    void dataUrlsBecomeReferencesAndOtherUrlsPassThrough() {
+        String dataUrl = "data:image/png;base64," + Base64.getEncoder().encodeToString(PNG);
+
+        assertThat(imageService.toStoredRef(" " + dataUrl + " ")).isEqualTo(imageService.store(PNG));
+        assertThat(imageService.toStoredRef("https://cdn.example.com/a.png ")).isEqualTo("https://cdn.example.com/a.png");
+        assertThat(imageService.toStoredRef(null)).isNull();
+        assertThat(imageService.toStoredRefs(Arrays.asList(dataUrl, null, " ", "/api/images/abc")))
+                .containsExactly(imageService.store(PNG), "/api/images/abc");
+
+        assertThatThrownBy(() -> imageService.toStoredRef("data:image/png,rawbytes"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Unsupported image data URL");
+        assertThatThrownBy(() -> imageService.toStoredRef("data:image/png;base64,QQ="))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid image data URL");
+        // The MIME decoder skips characters outside the alphabet, leaving nothing to store.
+        assertThatThrownBy(() -> imageService.toStoredRef("data:image/png;base64,%%%"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Image is empty");
+    }
+
+    @Test
+    void rejectsEmptyOversizedAndNonImageBytes() {
+        byte[] oversized = Arrays.copyOf(PNG, 65);
+
+        assertThatThrownBy(() -> imageService.store(new byte[0]))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Image is empty");
+        assertThatThrownBy(() -> imageService.store(oversized))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageStartingWith("Image is too large");
+        assertThatThrownBy(() -> imageService.store("<svg onload=alert(1)>".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageStartingWith("Unsupported image type");
+        assertThat(dir).isEmptyDirectory();
+    }
+
+    @Test
+    void lookupOnlyAcceptsLowercaseSha256Hashes() throws Exception {
+        String hash = imageStore.put(PNG);
+        Files.writeString(dir.resolve("secret.txt"), "not an image");
+
+        assertThat(imageStore.find(hash)).isPresent();
+        for (String id : List.of("../secret.txt", "..%2Fsecret.txt", "secret.txt", hash.toUpperCase(),
+                hash.substring(1), hash + "0", hash.substring(0, 63) + "/", "")) {
+            assertThat(imageStore.find(id)).as(id).isEmpty();
+        }
+        assertThat(imageStore.find(null)).isEmpty();
+        assertThat(imageStore.find("0".repeat(64))).as("well-formed but unknown").isEmpty();
+    }
+}
@@ -0,0 +1,150 @@
+package com.authentix.authentix.invalidation;
+
+import com.authentix.authentix.AuthentixApplication;
+import com.authentix.authentix.TestFixtures;
+import com.authentix.authentix.cart.CartService;
+import com.authentix.authentix.cart.CartStore;
+import com.authentix.authentix.cart.dto.CartItemRequest;
+import com.authentix.authentix.cart.dto.CartItemResponse;
+import com.authentix.authentix.dto.UpdateProfileRequest;
+import com.authentix.authentix.entity.*;
+import com.authentix.authentix.recommend.RecommendationEngine;
+import com.authentix.authentix.service.ListingService;
+import com.authentix.authentix.service.UserService;
+import com.authentix.authentix.service.WatchlistService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two nodes in one JVM sharing the test database: changes made on this context's node reach the
+ * second node's caches through the cache_invalidations table. The context is closed afterwards so its
+ * poller does not outlive the class while other contexts recreate the shared schema.
+ */
+@DirtiesContext
+@SpringBootTest(properties = {"app.invalidation.transport=jdbc", "app.invalidation.poll-interval=20ms"})
+class InvalidationBusTests {
+
+    private static ConfigurableApplicationContext otherNode;
+
+    @Autowired
+    private ListingService listingService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private WatchlistService watchlistService;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private CartStore cartStore;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void startOtherNode() {
+        // Started after this context so it reuses the schema instead of recreating it.
+        if (otherNode == null) {
+            otherNode = new SpringApplicationBuilder(AuthentixApplication.class)
+                    .run("--server.port=0", "--spring.jpa.hibernate.ddl-auto=none",
+                            "--app.invalidation.transport=jdbc", "--app.invalidation.poll-interval=20ms");
+        }
+    }
+
+    @AfterEach
+    void clearAuth() {
+        fixtures.clearAuth();
+    }
+
+    @AfterAll
+    static void stopOtherNode() {
+        if (otherNode != null) otherNode.close();
+    }
+
+    @Test
+    void listingAndProfileChangesReachTheOtherNodesCaches() throws Exception {
+        User seller = fixtures.user("Seller");
+        Listing listing = fixtures.listing(seller, "Charizard");
+        ListingService otherListings = otherNode.getBean(ListingService.class);
+        assertThat(otherListings.getById(listing.getId()).getStatus()).isEqualTo(ListingStatus.ACTIVE);
+
+        fixtures.signIn(seller);
+        listingService.setStatus(listing.getId(), ListingStatus.SOLD);
+        Duration propagation = await(() -> otherListings.getById(listing.getId()).getStatus() == ListingStatus.SOLD);
+        assertThat(propagation).isLessThan(Duration.ofSeconds(1));
+
+        UpdateProfileRequest rename = new UpdateProfileRequest();
+        rename.setDisplayName("Renamed");
+        userService.updateMe(rename);
+        await(() -> "Renamed".equals(otherListings.getById(listing.getId()).getSellerDisplayName()));
+
+        String otherNodeId = otherNode.getBean(InvalidationBus.class).nodeId();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cache_invalidations WHERE origin = ? AND kind <> 'CART'",
+                Integer.class, otherNodeId)).as("replayed changes are not published again").isZero();
+    }
+
+    @Test
+    void cartEditsOnBothNodesAreMergedAndReachBoth() throws Exception {
+        User seller = fixtures.user("Seller");
+        Listing charizard = fixtures.listing(seller, "Charizard");
+        Listing pikachu = fixtures.listing(seller, "Pikachu");
+        Long buyerId = fixtures.user("Buyer").getId();
+        CartService otherCarts = otherNode.getBean(CartService.class);
+        CartStore otherStore = otherNode.getBean(CartStore.class);
+
+        cartService.addOrUpdateItem(buyerId, new CartItemRequest(charizard.getId(), 1, charizard.getPrice(), "Charizard", null, null));
+        otherCarts.addOrUpdateItem(buyerId, new CartItemRequest(pikachu.getId(), 1, pikachu.getPrice(), "Pikachu", null, null));
+        cartStore.flush();
+        otherStore.flush();
+        otherStore.flush();
+
+        List<Long> both = List.of(charizard.getId(), pikachu.getId());
+        await(() -> cartListings(cartService, buyerId).equals(both));
+        assertThat(cartListings(otherCarts, buyerId)).isEqualTo(both);
+    }
+
+    @Test
+    void watchlistChangesReachTheOtherNodesCoWatchGraph() throws Exception {
+        User seller = fixtures.user("Seller");
+        Listing charizard = fixtures.listing(seller, "Charizard");
+        Listing pikachu = fixtures.listing(seller, "Pikachu");
+        RecommendationEngine otherEngine = otherNode.getBean(RecommendationEngine.class);
+
+        fixtures.signIn(fixtures.user("Watcher"));
+        watchlistService.add(charizard.getId());
+        watchlistService.add(pikachu.getId());
+        await(() -> Arrays.equals(otherEngine.similarTo(charizard.getId(), 5), new long[]{pikachu.getId()}));
+
+        watchlistService.remove(pikachu.getId());
+        await(() -> otherEngine.similarTo(charizard.getId(), 5).length == 0);
+    }
+
+    private static List<Long> cartListings(CartService carts, Long userId) {
+        return carts.getCart(userId).items().stream().map(CartItemResponse::listingId).sorted().toList();
+    }
+
+    private static Duration await(BooleanSupplier condition) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("timed out waiting for the other node").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+}
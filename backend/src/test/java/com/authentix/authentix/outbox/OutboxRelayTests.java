@@ -0,0 +1,132 @@
+package com.authentix.authentix.outbox;
+
+import com.authentix.authentix.TestFixtures;
+import com.authentix.authentix.entity.*;
+import com.authentix.authentix.service.ListingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Listing status changes reach subscribers once each, in order per listing, surviving a failed delivery. */
+@SpringBootTest(properties = {"app.outbox.poll-interval=50ms", "app.outbox.retry-backoff=50ms"})
+class OutboxRelayTests {
+
+    @TestConfiguration
+    static class RecordingSubscriberConfig {
+        @Bean
+        RecordingSubscriber recordingSubscriber() {
+            return new RecordingSubscriber();
+        }
+    }
+
+    static class RecordingSubscriber implements DomainEventSubscriber {
+        final List<DomainEvent> received = new CopyOnWriteArrayList<>();
+        final Set<Long> failOnce = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void handle(DomainEvent event) {
+            if (failOnce.remove(event.aggregateId())) throw new IllegalStateException("subscriber down");
+            received.add(event);
+        }
+    }
+
+    @Autowired
+    private RecordingSubscriber subscriber;
+    @Autowired
+    private ListingService listingService;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void clearAuth() {
+        fixtures.clearAuth();
+    }
+
+    @Test
+    void failedDeliveryHoldsBackOnlyItsOwnListing() throws Exception {
+        User seller = fixtures.user("Seller");
+        Listing first = fixtures.draft(seller, "Charizard");
+        Listing second = fixtures.draft(seller, "Blastoise");
+        fixtures.signIn(seller);
+
+        subscriber.failOnce.add(first.getId());
+        listingService.setStatus(first.getId(), ListingStatus.ACTIVE);
+        listingService.setStatus(second.getId(), ListingStatus.ACTIVE);
+        listingService.setStatus(first.getId(), ListingStatus.SOLD);
+        listingService.setStatus(first.getId(), ListingStatus.SOLD);
+
+        List<Long> ids = List.of(first.getId(), second.getId());
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (received(ids).size() < 3) {
+            assertThat(System.nanoTime()).as("timed out waiting for delivery").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+        Thread.sleep(200);
+
+        List<DomainEvent> events = received(ids);
+        assertThat(events).as("unchanged status appends nothing").hasSize(3);
+        assertThat(events).extracting(DomainEvent::type).containsOnly(DomainEvent.LISTING_STATUS_CHANGED);
+        assertThat(events.getFirst().aggregateId()).as("the other listing is not held back").isEqualTo(second.getId());
+        List<DomainEvent> firstEvents = events.stream().filter(e -> e.aggregateId().equals(first.getId())).toList();
+        assertThat(firstEvents).extracting(e -> e.payload().get("from").asString() + "->" + e.payload().get("to").asString())
+                .containsExactly("DRAFT->ACTIVE", "ACTIVE->SOLD");
+        assertThat(firstEvents.getFirst().payload().get("sellerId").asLong()).isEqualTo(seller.getId());
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT MAX(attempts) FROM outbox_events WHERE aggregate_type = 'listing' AND aggregate_id = ?",
+                Integer.class, first.getId())).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox_events WHERE aggregate_id IN (?, ?) AND dispatched_at IS NULL",
+                Integer.class, first.getId(), second.getId())).isZero();
+    }
+
+    @Test
+    void aStuckAggregateWithALongBacklogDoesNotHoldBackOthers() throws Exception {
+        long stuck = -System.nanoTime();
+        Timestamp later = Timestamp.from(Instant.now().plus(Duration.ofHours(1)));
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            rows.add(new Object[]{stuck, i == 0 ? later : Timestamp.from(Instant.now())});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, created_at,"
+                + " attempts, next_attempt_at) VALUES ('listing', ?, 'ListingStatusChanged', '{}', CURRENT_TIMESTAMP, 1, ?)", rows);
+        try {
+            User seller = fixtures.user("Seller");
+            Listing listing = fixtures.draft(seller, "Venusaur");
+            fixtures.signIn(seller);
+            listingService.setStatus(listing.getId(), ListingStatus.ACTIVE);
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (received(List.of(listing.getId())).isEmpty()) {
+                assertThat(System.nanoTime()).as("timed out waiting for delivery").isLessThan(deadline);
+                Thread.sleep(10);
+            }
+            assertThat(subscriber.received).noneMatch(e -> e.aggregateId() == stuck);
+        } finally {
+            jdbcTemplate.update("DELETE FROM outbox_events WHERE aggregate_id = ?", stuck);
+        }
+    }
+
+    private List<DomainEvent> received(List<Long> listingIds) {
+        return subscriber.received.stream()
+                .filter(e -> DomainEvent.LISTING.equals(e.aggregateType()) && listingIds.contains(e.aggregateId()))
+                .toList();
+    }
+}
@@ -0,0 +1,134 @@
+package com.authentix.authentix.realtime;
+
+import com.authentix.authentix.dto.MessageDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessagePushHubTests {
+
+    private final MessagePushHub hub = new MessagePushHub(4, Duration.ofSeconds(30), Duration.ofSeconds(30));
+
+    @Test
+    void replaysMissedMessagesThenStreamsLiveWithoutDuplicates() throws Exception {
+        RecordingSink sink = new RecordingSink(3);
+        CountDownLatch replayStarted = new CountDownLatch(1);
+        CountDownLatch releaseReplay = new CountDownLatch(1);
+
+        hub.subscribe(1L, 5L, sink, afterId -> {
+            if (afterId > 5) return List.of();
+            replayStarted.countDown();
+            await(releaseReplay);
+            return List.of(message(6), message(7));
+        });
+        assertThat(replayStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        // arrives while the replay query is running: 7 is a duplicate of the replay, 8 is new
+        hub.publish(1L, message(7));
+        hub.publish(1L, message(8));
+        hub.publish(2L, message(9));
+        releaseReplay.countDown();
+
+        assertThat(sink.sent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(sink.ids).containsExactly(6L, 7L, 8L);
+    }
+
+    @Test
+    void deliversIdsThatCommitOutOfOrderAndResumesBelowThem() throws Exception {
+        RecordingSink sink = new RecordingSink(2);
+        hub.subscribe(1L, 9L, sink, afterId -> List.of());
+
+        // 11 commits before 10; a redelivered 11 is dropped
+        hub.publish(1L, message(11));
+        hub.publish(1L, message(10));
+        hub.publish(1L, message(11));
+
+        assertThat(sink.sent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(sink.ids).containsExactly(11L, 10L);
+        assertThat(sink.eventIds).as("resume point stays below ids still settling").containsOnly(9L);
+
+        // a reconnect from the last event id gets both back from the database
+        RecordingSink resumed = new RecordingSink(2);
+        hub.subscribe(1L, sink.eventIds.get(sink.eventIds.size() - 1), resumed,
+                afterId -> afterId < 11 ? List.of(message(10), message(11)) : List.of());
+        assertThat(resumed.sent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(resumed.ids).containsExactly(10L, 11L);
+    }
+
+    @Test
+    void resumePointPassesIdsOnceTheyHaveSettled() throws Exception {
+        MessagePushHub settled = new MessagePushHub(4, Duration.ofSeconds(30), Duration.ZERO);
+        RecordingSink sink = new RecordingSink(2);
+        settled.subscribe(1L, null, sink, afterId -> List.of());
+
+        settled.publish(1L, message(3));
+        settled.publish(1L, message(4));
+
+        assertThat(sink.sent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(sink.eventIds).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void closesConnectionsThatFallBehind() throws Exception {
+        RecordingSink sink = new RecordingSink(0);
+        CountDownLatch blockReplay = new CountDownLatch(1);
+        hub.subscribe(1L, 0L, sink, afterId -> {
+            await(blockReplay);
+            return List.of();
+        });
+
+        for (long id = 1; id <= 5; id++) {
+            hub.publish(1L, message(id));
+        }
+
+        assertThat(sink.closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(hub.connectionCount()).isZero();
+    }
+
+    private static MessageDto message(long id) {
+        MessageDto dto = new MessageDto();
+        dto.setId(id);
+        dto.setReceiverId(1L);
+        return dto;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class RecordingSink implements PushSink {
+        final List<Long> ids = new CopyOnWriteArrayList<>();
+        final List<Long> eventIds = new CopyOnWriteArrayList<>();
+        final CountDownLatch sent;
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        RecordingSink(int expected) {
+            sent = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(long eventId, Object payload) {
+            ids.add(((MessageDto) payload).getId());
+            eventIds.add(eventId);
+            sent.countDown();
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+}
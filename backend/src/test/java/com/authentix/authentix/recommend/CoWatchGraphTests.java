@@ -0,0 +1,64 @@
+package com.authentix.authentix.recommend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoWatchGraphTests {
+
+    private final CoWatchGraph graph = new CoWatchGraph();
+
+    @BeforeEach
+    void seed() {
+        // users 1-3 all watch 10 and 11; only user 3 also watches 12; user 4 watches 10 and 13
+        for (long user = 1; user <= 3; user++) {
+            graph.add(user, 10);
+            graph.add(user, 11);
+        }
+        graph.add(3, 12);
+        graph.add(4, 10);
+        graph.add(4, 13);
+    }
+
+    @Test
+    void ranksByCoWatchSimilarity() {
+        assertThat(graph.similarTo(10, 10)).containsExactly(11, 13, 12);
+        assertThat(graph.similarTo(12, 10)).containsExactly(11, 10);
+        assertThat(graph.recommendFor(4, 10)).containsExactly(11, 12);
+        assertThat(graph.recommendFor(99, 10)).isEmpty();
+    }
+
+    @Test
+    void updatesIncrementallyAndSkipsRetiredListings() {
+        assertThat(graph.add(4, 10)).isFalse();
+        graph.remove(3, 12);
+        assertThat(graph.similarTo(10, 10)).containsExactly(11, 13);
+        assertThat(graph.similarTo(12, 10)).isEmpty();
+
+        graph.setRetired(11, true);
+        assertThat(graph.recommendFor(4, 10)).isEmpty();
+        graph.setRetired(11, false);
+        assertThat(graph.recommendFor(4, 10)).containsExactly(11);
+    }
+
+    @Test
+    void longIntMapMatchesHashMapUnderChurn() {
+        LongIntMap map = new LongIntMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(5_000);
+            int delta = random.nextBoolean() ? 1 : -1;
+            map.addTo(key, delta);
+            expected.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+        assertThat(map.size()).isEqualTo(expected.size());
+        expected.forEach((key, value) -> assertThat(map.get(key)).isEqualTo(value));
+        map.forEach((key, value) -> assertThat(expected.get(key)).isEqualTo(value));
+    }
+}
@@ -0,0 +1,77 @@
+package com.authentix.authentix.search;
+
+import com.authentix.authentix.entity.ShippingOption;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ListingSearchIndexTests {
+
+    private final ListingSearchIndex index = new ListingSearchIndex();
+
+    @BeforeEach
+    void seed() {
+        index.replaceAll(List.of(
+                doc(1L, "PSA 10 Charizard Base Set", "Gem mint Pokémon card", "Pokemon cards", 25L, "600", ShippingOption.SHIP),
+                doc(2L, "Base Set Booster Box", "Sealed box, includes a chance at Charizard", "Pokemon cards", 25L, "1400", ShippingOption.SHIP),
+                doc(3L, "Rolex Submariner", "Box and papers", "Watches", 28L, "9000", ShippingOption.LOCAL_PICKUP)));
+    }
+
+    @Test
+    void ranksTitleMatchesAboveDescriptionMatches() {
+        assertThat(index.search(query("charizard"), 0, 10).ids()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void matchesPrefixesAndFoldsAccents() {
+        assertThat(index.search(query("chari"), 0, 10).ids()).containsExactly(1L, 2L);
+        assertThat(index.search(query("pokémon"), 0, 10).ids()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search(query("rolex sub"), 0, 10).ids()).containsExactly(3L);
+    }
+
+    @Test
+    void requiresEveryTokenAndAppliesFilters() {
+        assertThat(index.search(query("charizard rolex"), 0, 10).total()).isZero();
+        SearchQuery cheap = new SearchQuery("base set", null, new BigDecimal("1000"), null, null);
+        assertThat(index.search(cheap, 0, 10).ids()).containsExactly(1L);
+        SearchQuery pickup = new SearchQuery("", null, null, Set.of(28L), ShippingOption.LOCAL_PICKUP);
+        assertThat(index.search(pickup, 0, 10).ids()).containsExactly(3L);
+    }
+
+    @Test
+    void incrementalUpdatesReplaceAndRemoveDocuments() {
+        index.put(doc(3L, "Omega Speedmaster", "Moonwatch", "Watches", 28L, "5000", ShippingOption.SHIP));
+        assertThat(index.search(query("rolex"), 0, 10).total()).isZero();
+        assertThat(index.search(query("speedmaster"), 0, 10).ids()).containsExactly(3L);
+        index.remove(1L);
+        assertThat(index.search(query("charizard"), 0, 10).ids()).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void searchRejectsNegativePagesAndClampsSize() {
+        ListingSearchService service = new ListingSearchService(index, null, null);
+        assertThatThrownBy(() -> service.search("charizard", null, null, null, null, -1, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.search("pikachu", null, null, null, null, 0, 0).getSize()).isEqualTo(1);
+        assertThat(service.search("pikachu", null, null, null, null, 0, 5000).getSize()).isEqualTo(100);
+        assertThat(service.search("charizard", null, null, null, null, Integer.MAX_VALUE, 100).getContent()).isEmpty();
+    }
+
+    private static SearchQuery query(String text) {
+        return new SearchQuery(text, null, null, null, null);
+    }
+
+    private static SearchDocument doc(Long id, String title, String description, String category, Long categoryId,
+                                      String price, ShippingOption shipping) {
+        return new SearchDocument(id, title, description, category, null, categoryId, new BigDecimal(price), shipping,
+                Instant.parse("2026-01-01T00:00:00Z").plusSeconds(id));
+    }
+}
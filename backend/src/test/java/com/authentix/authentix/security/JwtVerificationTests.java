@@ -0,0 +1,43 @@
+package com.authentix.authentix.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtVerificationTests {
+
+    private static final String SECRET = "test-secret-key-that-is-at-least-256-bits-long!!!!";
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000);
+
+    @Test
+    void verifiesOnceAndRejectsTamperedOrExpiredTokens() {
+        String token = jwtUtil.generateToken("buyer@test.local", 42L);
+
+        JwtUtil.VerifiedToken verified = jwtUtil.verify(token).orElseThrow();
+        assertThat(verified.userId()).isEqualTo(42L);
+        assertThat(verified.email()).isEqualTo("buyer@test.local");
+
+        assertThat(jwtUtil.verify(token.substring(0, token.length() - 2) + "xx")).isEmpty();
+        assertThat(new JwtUtil(SECRET, -1_000).verify(new JwtUtil(SECRET, -1_000).generateToken("a@b.c", 1L))).isEmpty();
+        assertThat(new JwtUtil("another-secret-key-that-is-at-least-256-bits-long!!", 60_000).verify(token)).isEmpty();
+    }
+
+    @Test
+    void cacheServesUntilTokenExpiryAndStaysBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        AuthenticatedUser user = new AuthenticatedUser(42L, "buyer@test.local");
+
+        cache.put("live", user, System.currentTimeMillis() + 60_000);
+        cache.put("expired", user, System.currentTimeMillis() - 1);
+
+        assertThat(cache.get("live")).isSameAs(user);
+        assertThat(cache.get("expired")).isNull();
+        assertThat(cache.get("unknown")).isNull();
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("token-" + i, user, System.currentTimeMillis() + 60_000);
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+    }
+}
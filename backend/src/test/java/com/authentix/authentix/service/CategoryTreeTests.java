@@ -0,0 +1,51 @@
+package com.authentix.authentix.service;
+
+import com.authentix.authentix.entity.Category;
+import com.authentix.authentix.repository.CategoryRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class CategoryTreeTests {
+
+    private final CategoryRepository repository = mock(CategoryRepository.class);
+    private final CategoryTree tree = new CategoryTree(repository);
+
+    @Test
+    void subtreeCoversEveryDepthAndReadsDoNotHitTheRepository() {
+        when(repository.findAll()).thenReturn(List.of(
+                category(1L, "Trading Cards", null),
+                category(2L, "Pokemon cards", 1L),
+                category(3L, "Base Set", 2L),
+                category(4L, "Comics", null)));
+
+        assertThat(tree.subtreeIds(1L)).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(tree.subtreeIds(3L)).containsExactly(3L);
+        assertThat(tree.subtreeIds(99L)).containsExactly(99L);
+        assertThat(tree.roots()).extracting(m -> m.get("name")).containsExactly("Comics", "Trading Cards");
+        assertThat(tree.children(2L)).extracting(m -> m.get("id")).containsExactly(3L);
+        assertThat(tree.get(3L)).get().extracting(m -> m.get("parentId")).isEqualTo(2L);
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void invalidatePublishesANewSnapshot() {
+        when(repository.findAll())
+                .thenReturn(List.of(category(1L, "Luxury", null)))
+                .thenReturn(List.of(category(1L, "Luxury", null), category(5L, "Watches", 1L)));
+
+        assertThat(tree.children(1L)).isEmpty();
+        tree.invalidate();
+        List<Map<String, Object>> children = tree.children(1L);
+        assertThat(children).extracting(m -> m.get("slug")).containsExactly("watches");
+        assertThat(tree.subtreeIds(1L)).containsExactlyInAnyOrder(1L, 5L);
+    }
+
+    private static Category category(Long id, String name, Long parentId) {
+        return Category.builder().id(id).name(name).slug(name.toLowerCase().replace(' ', '-')).parentId(parentId).build();
+    }
+}
@@ -0,0 +1,208 @@
+package com.authentix.authentix.service;
+
+import com.authentix.authentix.TestFixtures;
+import com.authentix.authentix.dto.ConversationDto;
+import com.authentix.authentix.dto.ConversationPage;
+import com.authentix.authentix.dto.MessageDto;
+import com.authentix.authentix.entity.*;
+import com.authentix.authentix.repository.ListingRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Conversation rows and unread counters must follow send, markRead and the bulk operations, and inbox
+ * pages must be one query each.
+ */
+@SpringBootTest
+class ConversationInboxTests {
+
+    @Autowired
+    private MessageService messageService;
+    @Autowired
+    private ListingRepository listingRepository;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User seller;
+    private User alice;
+    private User bob;
+    private Listing listing;
+
+    @BeforeEach
+    void seed() {
+        seller = fixtures.user("seller");
+        alice = fixtures.user("alice");
+        bob = fixtures.user("bob");
+        listing = listingRepository.save(fixtures.listingBuilder(seller, "Charizard")
+                .price(BigDecimal.TEN)
+                .images(List.of("/api/images/charizard"))
+                .build());
+    }
+
+    @AfterEach
+    void clearAuth() {
+        fixtures.clearAuth();
+    }
+
+    @Test
+    void countersFollowSendAndMarkRead() {
+        fixtures.signIn(alice);
+        MessageDto first = messageService.send(listing.getId(), "Is this still available?");
+        messageService.send(listing.getId(), "Would you take $8?");
+        fixtures.signIn(bob);
+        messageService.send(listing.getId(), "Interested!");
+
+        fixtures.signIn(seller);
+        assertThat(messageService.getUnreadCount()).isEqualTo(3);
+        messageService.markRead(first.getId());
+        messageService.markRead(first.getId());
+        assertThat(messageService.getUnreadCount()).isEqualTo(2);
+
+        ConversationPage page = messageService.getConversations(null, 10);
+        assertThat(page.content()).extracting(ConversationDto::counterpartId).containsExactly(bob.getId(), alice.getId());
+        assertThat(page.content()).extracting(ConversationDto::unreadCount).containsExactly(1, 1);
+        assertThat(page.content().get(1).lastMessageBody()).isEqualTo("Would you take $8?");
+        assertThat(page.content().get(1).listingImage()).isEqualTo("/api/images/charizard");
+
+        List<MessageDto> thread = messageService.getConversationMessages(page.content().get(1).id(), null, 10);
+        assertThat(thread).extracting(MessageDto::getBody).containsExactly("Would you take $8?", "Is this still available?");
+
+        fixtures.signIn(alice);
+        ConversationPage sent = messageService.getConversations(null, 10);
+        assertThat(sent.content()).singleElement().satisfies(c -> {
+            assertThat(c.counterpartId()).isEqualTo(seller.getId());
+            assertThat(c.unreadCount()).isZero();
+        });
+        assertThat(messageService.getUnreadCount()).isZero();
+    }
+
+    @Test
+    void firstMessagesRacingIntoOneThreadShareItsConversation() throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (String body : List.of("Is this still available?", "Would you take $8?")) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    fixtures.signIn(alice);
+                    start.await();
+                    messageService.send(listing.getId(), body);
+                } catch (Throwable e) {
+                    failures.add(e);
+                } finally {
+                    fixtures.clearAuth();
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+
+        assertThat(failures).isEmpty();
+        fixtures.signIn(seller);
+        assertThat(messageService.getConversations(null, 10).content())
+                .extracting(ConversationDto::counterpartId, ConversationDto::unreadCount)
+                .containsExactly(tuple(alice.getId(), 2));
+        fixtures.signIn(alice);
+        assertThat(messageService.getConversations(null, 10).content())
+                .extracting(ConversationDto::counterpartId, ConversationDto::unreadCount)
+                .containsExactly(tuple(seller.getId(), 0));
+    }
+
+    @Test
+    void conversationPagesAreOneQueryEach() {
+        List<User> buyers = List.of(alice, bob, fixtures.user("carol"));
+        for (User buyer : buyers) {
+            fixtures.signIn(buyer);
+            messageService.send(listing.getId(), "Hi from " + buyer.getDisplayName());
+        }
+
+        fixtures.signIn(seller);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            statistics.clear();
+            ConversationPage page = messageService.getConversations(cursor, 2);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            page.content().forEach(c -> seen.add(c.counterpartId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        assertThat(seen).containsExactly(buyers.get(2).getId(), bob.getId(), alice.getId());
+
+        statistics.clear();
+        assertThat(messageService.getMyInbox(null, 50, false)).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void bulkOperationsAreScopedToTheReceiverAndKeepCountersConsistent() {
+        fixtures.signIn(alice);
+        List<Long> fromAlice = new ArrayList<>();
+        for (int i = 0; i < 4; i++) fromAlice.add(messageService.send(listing.getId(), "Offer " + i).getId());
+        fixtures.signIn(bob);
+        Long fromBob = messageService.send(listing.getId(), "Hello").getId();
+
+        fixtures.signIn(alice);
+        assertThat(messageService.markRead(fromAlice)).isZero();
+
+        fixtures.signIn(seller);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertThat(messageService.markRead(List.of(fromAlice.get(0), fromAlice.get(1), fromBob))).isEqualTo(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(messageService.getUnreadCount()).isEqualTo(2);
+
+        assertThat(messageService.archive(List.of(fromAlice.get(3)))).isEqualTo(1);
+        assertThat(messageService.getUnreadCount()).as("archived unread messages stop counting").isEqualTo(1);
+        assertThat(messageService.getMyInbox(null, 50, false)).extracting(MessageDto::getId)
+                .containsExactly(fromBob, fromAlice.get(2), fromAlice.get(1), fromAlice.get(0));
+        assertThat(messageService.getMyInbox(null, 50, true)).extracting(MessageDto::getId).containsExactly(fromAlice.get(3));
+
+        ConversationDto aliceThread = messageService.getConversations(null, 10).content().stream()
+                .filter(c -> c.counterpartId().equals(alice.getId())).findFirst().orElseThrow();
+        assertThat(messageService.deleteConversation(aliceThread.id())).isEqualTo(4);
+        assertThat(messageService.getUnreadCount()).isZero();
+        assertThat(messageService.getConversationMessages(aliceThread.id(), null, 10)).isEmpty();
+
+        fixtures.signIn(alice);
+        ConversationDto sellerThread = messageService.getConversations(null, 10).content().get(0);
+        assertThat(messageService.getConversationMessages(sellerThread.id(), null, 10)).hasSize(4);
+    }
+
+    @Test
+    void markAllReadCoversTheWholeInboxInTwoStatements() {
+        fixtures.signIn(alice);
+        for (int i = 0; i < 60; i++) messageService.send(listing.getId(), "Offer " + i);
+        fixtures.signIn(bob);
+        messageService.send(listing.getId(), "Hello");
+
+        fixtures.signIn(alice);
+        assertThat(messageService.markAllRead()).as("alice has received nothing").isZero();
+
+        fixtures.signIn(seller);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertThat(messageService.markAllRead()).isEqualTo(61);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(messageService.getUnreadCount()).isZero();
+        assertThat(messageService.getConversations(null, 10).content()).extracting(ConversationDto::unreadCount)
+                .containsOnly(0);
+    }
+}
@@ -0,0 +1,90 @@
+package com.authentix.authentix.service;
+
+import com.authentix.authentix.TestFixtures;
+import com.authentix.authentix.dto.ListingDto;
+import com.authentix.authentix.entity.*;
+import com.authentix.authentix.repository.ListingRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Listing detail views are loaded once per change, however many arrive at the same moment. */
+@SpringBootTest
+class ListingDetailCacheTests {
+
+    @Autowired
+    private ListingService listingService;
+    @Autowired
+    private ListingRepository listingRepository;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void clearAuth() {
+        fixtures.clearAuth();
+    }
+
+    @Test
+    void concurrentMissesShareOneLoadAndChangesInvalidate() throws Exception {
+        User seller = fixtures.user("Seller");
+        Listing listing = listingRepository.save(fixtures.listingBuilder(seller, "Charizard")
+                .images(List.of("/api/images/front", "/api/images/back"))
+                .build());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        double missesBefore = misses();
+
+        statistics.clear();
+        CountDownLatch start = new CountDownLatch(1);
+        List<ListingDto> views = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                views.add(listingService.getById(listing.getId()));
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+
+        assertThat(views).hasSize(1000).allSatisfy(view -> {
+            assertThat(view.getImages()).containsExactly("/api/images/front", "/api/images/back");
+            assertThat(view.getSellerDisplayName()).isEqualTo("Seller");
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(misses() - missesBefore).isEqualTo(1);
+
+        fixtures.signIn(seller);
+        listingService.setStatus(listing.getId(), ListingStatus.SOLD);
+        assertThat(listingService.getById(listing.getId()).getStatus()).isEqualTo(ListingStatus.SOLD);
+        assertThat(misses() - missesBefore).isEqualTo(2);
+
+        listingService.delete(listing.getId());
+        assertThatThrownBy(() -> listingService.getById(listing.getId()))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Listing not found");
+    }
+
+    private double misses() {
+        return meterRegistry.get("app.listing.detail.cache.requests").tag("result", "miss").counter().count();
+    }
+}
@@ -0,0 +1,152 @@
+package com.authentix.authentix.service;
+
+import com.authentix.authentix.TestFixtures;
+import com.authentix.authentix.dto.ListingCursorPage;
+import com.authentix.authentix.dto.ListingDto;
+import com.authentix.authentix.entity.*;
+import com.authentix.authentix.geo.GeoIndexLoader;
+import com.authentix.authentix.repository.CategoryRepository;
+import com.authentix.authentix.repository.ListingRepository;
+import com.authentix.authentix.repository.WatchlistRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Feed endpoints must run a fixed number of SQL statements per page regardless of how many listings
+ * they return (no lazy category/seller/images loads per row): one, with no count query, for the
+ * offset feed as well as the keyset one.
+ */
+@SpringBootTest
+class ListingFeedQueryCountTests {
+
+    /** Fewer than the listings seeded, so the offset feed's first page is full and it runs its count query. */
+    private static final int PAGE_SIZE = 10;
+    private static final int SEEDED = 20;
+
+    @Autowired
+    private ListingService listingService;
+    @Autowired
+    private RecommendationService recommendationService;
+    @Autowired
+    private ListingRepository listingRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private WatchlistRepository watchlistRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private GeoIndexLoader geoIndexLoader;
+    @Autowired
+    private TestFixtures fixtures;
+
+    private User seller;
+    private User buyer;
+    private Category category;
+    private Listing first;
+
+    @BeforeEach
+    void seed() {
+        seller = fixtures.user("Seller");
+        buyer = fixtures.user("Buyer");
+        category = categoryRepository.findBySlug("pokemon-cards").orElseThrow();
+        for (int i = 0; i < SEEDED; i++) {
+            Listing listing = listingRepository.save(fixtures.listingBuilder(seller, "Card " + i)
+                    .price(BigDecimal.TEN)
+                    .images(List.of("/api/images/cover-" + i, "/api/images/back-" + i))
+                    .build());
+            if (first == null) first = listing;
+        }
+        watchlistRepository.save(Watchlist.builder().user(buyer).listing(first).build());
+    }
+
+    @AfterEach
+    void clearAuth() {
+        fixtures.clearAuth();
+    }
+
+    @Test
+    void activeListingFeedIsOneQueryPerFullPageForEveryFilterCombination() {
+        Long parentId = category.getParentId();
+        assertStatements(1, () -> fullPage(listingService.getActiveListings(null, null, 0, PAGE_SIZE)));
+        assertStatements(1, () -> fullPage(listingService.getActiveListings(null, ShippingOption.SHIP, 0, PAGE_SIZE)));
+        assertStatements(1, () -> fullPage(listingService.getActiveListings(parentId, ShippingOption.SHIP, 0, PAGE_SIZE)));
+        assertStatements(1, () -> fullPage(listingService.getActiveListings(parentId, null, 0, PAGE_SIZE)));
+    }
+
+    @Test
+    void cursorFeedWalksEveryListingOnceWithOneQueryPerPage() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Set<Long> seen = new HashSet<>();
+        String cursor = "";
+        int pages = 0;
+        while (cursor != null) {
+            statistics.clear();
+            ListingCursorPage page = listingService.getActiveListingsAfter(null, ShippingOption.SHIP, cursor, 2);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            page.content().forEach(dto -> assertThat(seen.add(dto.getId())).isTrue());
+            cursor = page.nextCursor();
+            pages++;
+        }
+        assertThat(pages).isGreaterThan(1);
+        assertThat(seen).hasSize((int) listingRepository.findAll().stream()
+                .filter(l -> l.getStatus() == ListingStatus.ACTIVE && l.getShippingOption() == ShippingOption.SHIP)
+                .count());
+    }
+
+    @Test
+    void nearbyAndMyListingsAreOneQuery() {
+        geoIndexLoader.run();
+        List<ListingDto> nearby = assertSingleStatement(() -> listingService.getNearby("90013", 10.0, 50));
+        assertThat(nearby).extracting(ListingDto::getDistanceMiles).doesNotContainNull();
+        assertThat(nearby).extracting(ListingDto::getZipCode).contains("90007");
+        assertSingleStatement(() -> listingService.getNearby("90007-1234", null, 50));
+        fixtures.signIn(seller);
+        List<ListingDto> mine = assertSingleStatement(() -> listingService.getMyListings());
+        assertThat(mine).hasSize(SEEDED);
+        assertThat(mine.get(0).getImages()).singleElement().asString().startsWith("/api/images/cover-");
+    }
+
+    @Test
+    void recommendationsAreOneQuery() {
+        assertSingleStatement(() -> recommendationService.getRecommended(first.getId()));
+        assertSingleStatement(() -> recommendationService.getRecommended(null));
+        fixtures.signIn(buyer);
+        List<ListingDto> forYou = assertSingleStatement(() -> recommendationService.getRecommended(null));
+        assertThat(forYou).extracting(ListingDto::getCategoryId).containsOnly(category.getId());
+    }
+
+    private <T extends List<ListingDto>> T assertSingleStatement(Supplier<T> call) {
+        return assertStatements(1, call);
+    }
+
+    private <T extends List<ListingDto>> T assertStatements(int expected, Supplier<T> call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        T result = call.get();
+        assertThat(result).isNotEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expected);
+        return result;
+    }
+
+    private static List<ListingDto> fullPage(Slice<ListingDto> page) {
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.hasNext()).as("%d seeded listings fill more than one page", SEEDED).isTrue();
+        return page.getContent();
+    }
+}
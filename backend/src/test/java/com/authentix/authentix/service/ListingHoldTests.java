@@ -0,0 +1,191 @@
+package com.authentix.authentix.service;
+
+import com.authentix.authentix.TestFixtures;
+import com.authentix.authentix.entity.Listing;
+import com.authentix.authentix.entity.ListingStatus;
+import com.authentix.authentix.entity.Order;
+import com.authentix.authentix.entity.OrderStatus;
+import com.authentix.authentix.entity.User;
+import com.authentix.authentix.repository.ListingRepository;
+import com.authentix.authentix.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Purchase holds: one conditional UPDATE decides which of many concurrent buyers gets the listing, and
+ * a payment that arrives after its hold lapsed cannot sell the listing a second time.
+ */
+@SpringBootTest
+class ListingHoldTests {
+
+    @Autowired
+    private ListingHoldService listingHoldService;
+    @Autowired
+    private ListingRepository listingRepository;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void exactlyOneOfManyConcurrentBuyersWins() throws Exception {
+        Listing listing = listing();
+        int buyers = 64;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentLinkedQueue<Long> winners = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < buyers; i++) {
+            long buyerId = 1_000_000L + i;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    listingHoldService.claim(listing.getId(), buyerId);
+                    winners.add(buyerId);
+                } catch (IllegalArgumentException e) {
+                    rejected.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+
+        assertThat(winners).hasSize(1);
+        assertThat(rejected.get()).isEqualTo(buyers - 1);
+        Listing held = listingRepository.findById(listing.getId()).orElseThrow();
+        assertThat(held.getHeldByUserId()).isEqualTo(winners.peek());
+        assertThat(held.getVersion()).isEqualTo(listing.getVersion() + 1);
+
+        // The winner can renew; others stay out until it releases.
+        listingHoldService.claim(listing.getId(), winners.peek());
+        assertThatThrownBy(() -> listingHoldService.claim(listing.getId(), 42L)).isInstanceOf(IllegalArgumentException.class);
+        listingHoldService.release(listing.getId(), 42L);
+        assertThat(listingRepository.findById(listing.getId()).orElseThrow().getHeldByUserId()).isEqualTo(winners.peek());
+        listingHoldService.release(listing.getId(), winners.peek());
+        listingHoldService.claim(listing.getId(), 42L);
+    }
+
+    @Test
+    void expiredHoldsCanBeTakenAndStaleCopiesCannotOverwriteAClaim() {
+        Listing listing = listing();
+        Instant now = Instant.now();
+        assertThat(listingRepository.claimHold(listing.getId(), 1L, now.minusSeconds(120), now.minusSeconds(60))).isEqualTo(1);
+        assertThat(listingRepository.claimHold(listing.getId(), 2L, now, now.plusSeconds(60))).isEqualTo(1);
+
+        Listing stale = listingRepository.findById(listing.getId()).orElseThrow();
+        listingHoldService.release(listing.getId(), 2L);
+        stale.setPrice(new BigDecimal("1.00"));
+        assertThatThrownBy(() -> listingRepository.save(stale)).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        Listing sold = listingRepository.findById(listing.getId()).orElseThrow();
+        sold.setStatus(ListingStatus.SOLD);
+        listingRepository.save(sold);
+        Listing available = listing();
+        assertThatThrownBy(() -> listingHoldService.claimAll(List.of(available.getId(), sold.getId()), 3L))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(listingRepository.findById(available.getId()).orElseThrow().getHeldByUserId()).isNull();
+    }
+
+    @Test
+    void aPaymentLandingAfterItsHoldLapsedLosesToTheCurrentHolder() throws Exception {
+        Listing listing = listing();
+        User late = fixtures.user("late");
+        User current = fixtures.user("current");
+        Instant now = Instant.now();
+        assertThat(listingRepository.claimHold(listing.getId(), late.getId(), now.minusSeconds(1200), now.minusSeconds(600))).isEqualTo(1);
+        listingHoldService.claim(listing.getId(), current.getId());
+        Order lateOrder = pendingOrder(late, listing);
+        Order currentOrder = pendingOrder(current, listing);
+
+        payConcurrently(lateOrder, currentOrder);
+
+        assertThat(statusOf(lateOrder)).isEqualTo(OrderStatus.OVERSOLD);
+        assertThat(statusOf(currentOrder)).isEqualTo(OrderStatus.PAID);
+        Listing sold = listingRepository.findById(listing.getId()).orElseThrow();
+        assertThat(sold.getStatus()).isEqualTo(ListingStatus.SOLD);
+        assertThat(sold.getHeldByUserId()).isNull();
+
+        // Redelivery leaves the flag; the refund closes the late order without touching the sale.
+        orderService.markOrderPaidByPaymentIntentId(lateOrder.getStripePaymentIntentId());
+        assertThat(statusOf(lateOrder)).isEqualTo(OrderStatus.OVERSOLD);
+        orderService.markOrderRefundedByPaymentIntentId(lateOrder.getStripePaymentIntentId());
+        assertThat(statusOf(lateOrder)).isEqualTo(OrderStatus.REFUNDED);
+        assertThat(statusOf(currentOrder)).isEqualTo(OrderStatus.PAID);
+    }
+
+    @Test
+    void twoPaymentsRacingAfterEveryHoldLapsedSellTheListingOnce() throws Exception {
+        Listing listing = listing();
+        User first = fixtures.user("first");
+        User second = fixtures.user("second");
+        Instant now = Instant.now();
+        assertThat(listingRepository.claimHold(listing.getId(), first.getId(), now.minusSeconds(1200), now.minusSeconds(900))).isEqualTo(1);
+        assertThat(listingRepository.claimHold(listing.getId(), second.getId(), now.minusSeconds(800), now.minusSeconds(600))).isEqualTo(1);
+        Order firstOrder = pendingOrder(first, listing);
+        Order secondOrder = pendingOrder(second, listing);
+
+        payConcurrently(firstOrder, secondOrder);
+
+        assertThat(List.of(statusOf(firstOrder), statusOf(secondOrder)))
+                .containsExactlyInAnyOrder(OrderStatus.PAID, OrderStatus.OVERSOLD);
+        assertThat(listingRepository.findById(listing.getId()).orElseThrow().getStatus()).isEqualTo(ListingStatus.SOLD);
+    }
+
+    /** Applies each order's payment on its own thread, retrying version conflicts as the webhook workers do. */
+    private void payConcurrently(Order... orders) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (Order order : orders) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    while (true) {
+                        try {
+                            orderService.markOrderPaidByPaymentIntentId(order.getStripePaymentIntentId());
+                            return;
+                        } catch (ConcurrencyFailureException e) {
+                            // lost the race for the listing row; retry like a redelivered webhook
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+    }
+
+    private Order pendingOrder(User buyer, Listing listing) {
+        return orderRepository.save(Order.builder().buyer(buyer).listing(listing).amount(listing.getPrice())
+                .platformFee(BigDecimal.ZERO).sellerPayout(listing.getPrice()).status(OrderStatus.PENDING)
+                .stripePaymentIntentId("pi_" + UUID.randomUUID()).build());
+    }
+
+    private OrderStatus statusOf(Order order) {
+        return orderRepository.findById(order.getId()).orElseThrow().getStatus();
+    }
+
+    private Listing listing() {
+        return fixtures.listing(fixtures.user("seller"), "Lugia", "250.00");
+    }
+}
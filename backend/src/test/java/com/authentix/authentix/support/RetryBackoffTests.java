@@ -0,0 +1,24 @@
+package com.authentix.authentix.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBackoffTests {
+
+    @Test
+    void doublesUpToTheCap() {
+        RetryBackoff backoff = new RetryBackoff(Duration.ofSeconds(5), Duration.ofHours(1));
+        assertThat(backoff.after(1)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(backoff.after(3)).isEqualTo(Duration.ofSeconds(20));
+        assertThat(backoff.after(30)).isEqualTo(Duration.ofHours(1));
+    }
+
+    @Test
+    void truncatesStoredErrors() {
+        assertThat(RetryBackoff.describe(new IllegalStateException("x".repeat(5000)))).hasSize(RetryBackoff.MAX_ERROR_LENGTH);
+        assertThat(RetryBackoff.describe(new IllegalStateException("boom"))).isEqualTo("java.lang.IllegalStateException: boom");
+    }
+}
@@ -0,0 +1,35 @@
+package com.authentix.authentix.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SettlingWatermarkTests {
+
+    @Test
+    void passesIdsOnlyOnceTheyHaveSettled() {
+        SettlingWatermark watermark = new SettlingWatermark(10, Duration.ofMillis(100));
+        assertThat(watermark.accept(12, 0)).isTrue();
+        assertThat(watermark.accept(12, 0)).as("seen before").isFalse();
+        assertThat(watermark.accept(10, 0)).as("at the watermark").isFalse();
+
+        watermark.advance(50, false);
+        assertThat(watermark.value()).isEqualTo(10);
+        assertThat(watermark.accept(11, 60)).as("committed late, below an id already seen").isTrue();
+
+        watermark.advance(120, false);
+        assertThat(watermark.value()).as("12 has settled but 11 has not").isEqualTo(10);
+        assertThat(watermark.oldestUnsettled()).isEqualTo(11);
+
+        watermark.advance(160, false);
+        assertThat(watermark.value()).isEqualTo(12);
+        assertThat(watermark.oldestUnsettled()).isNull();
+        assertThat(watermark.accept(11, 170)).isFalse();
+
+        assertThat(watermark.accept(13, 200)).isTrue();
+        watermark.advance(200, true);
+        assertThat(watermark.value()).isEqualTo(13);
+    }
+}
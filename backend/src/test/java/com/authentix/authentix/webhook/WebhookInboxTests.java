@@ -0,0 +1,153 @@
+package com.authentix.authentix.webhook;
+
+import com.authentix.authentix.TestFixtures;
+import com.authentix.authentix.controller.StripeController;
+import com.authentix.authentix.entity.*;
+import com.authentix.authentix.repository.ListingRepository;
+import com.authentix.authentix.repository.OrderRepository;
+import com.stripe.net.Webhook;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Webhooks are acked once stored and applied by the workers, in order per PaymentIntent and only once. */
+@SpringBootTest(properties = {"stripe.webhook-secret=" + WebhookInboxTests.SECRET, "app.webhooks.poll-interval=100ms"})
+class WebhookInboxTests {
+
+    static final String SECRET = "whsec_test";
+
+    @Autowired
+    private StripeController stripeController;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ListingRepository listingRepository;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void appliesEventsInOrderPerPaymentIntentAndDropsRedeliveries() throws Exception {
+        String paymentIntentId = "pi_" + UUID.randomUUID();
+        Order order = pendingOrder(paymentIntentId);
+
+        String failed = event("payment_intent.payment_failed", paymentIntentObject(paymentIntentId));
+        String succeeded = event("payment_intent.succeeded", paymentIntentObject(paymentIntentId));
+        assertThat(deliver(failed)).isEqualTo(HttpStatus.OK);
+        assertThat(deliver(succeeded)).isEqualTo(HttpStatus.OK);
+        assertThat(deliver(succeeded)).isEqualTo(HttpStatus.OK);
+
+        await(() -> statusOf(succeeded) == WebhookEventStatus.PROCESSED);
+        assertThat(statusOf(failed)).isEqualTo(WebhookEventStatus.PROCESSED);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stripe_webhook_events WHERE payment_intent_id = ?",
+                Integer.class, paymentIntentId)).isEqualTo(2);
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(listingRepository.findById(order.getListing().getId()).orElseThrow().getStatus()).isEqualTo(ListingStatus.SOLD);
+
+        String refunded = event("charge.refunded", "{\"id\":\"ch_1\",\"object\":\"charge\",\"refunded\":true,"
+                + "\"payment_intent\":\"" + paymentIntentId + "\"}");
+        deliver(refunded);
+        await(() -> statusOf(refunded) == WebhookEventStatus.PROCESSED);
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.REFUNDED);
+    }
+
+    @Test
+    void failedAttemptsKeepTheHoldAndOnlyCancellationReleasesIt() throws Exception {
+        String paymentIntentId = "pi_" + UUID.randomUUID();
+        Order order = pendingOrder(paymentIntentId);
+        Long listingId = order.getListing().getId();
+        Instant now = Instant.now();
+        assertThat(listingRepository.claimHold(listingId, order.getBuyer().getId(), now, now.plusSeconds(600))).isEqualTo(1);
+
+        String failed = event("payment_intent.payment_failed", paymentIntentObject(paymentIntentId));
+        deliver(failed);
+        await(() -> statusOf(failed) == WebhookEventStatus.PROCESSED);
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.PENDING);
+        assertThat(listingRepository.findById(listingId).orElseThrow().getHeldByUserId()).isEqualTo(order.getBuyer().getId());
+
+        String canceled = event("payment_intent.canceled", paymentIntentObject(paymentIntentId));
+        deliver(canceled);
+        await(() -> statusOf(canceled) == WebhookEventStatus.PROCESSED);
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.FAILED);
+        assertThat(listingRepository.findById(listingId).orElseThrow().getHeldByUserId()).isNull();
+    }
+
+    @Test
+    void ignoresUnhandledTypesAndRejectsBadSignatures() throws Exception {
+        String payout = event("payout.paid", "{\"id\":\"po_1\",\"object\":\"payout\"}");
+        deliver(payout);
+        await(() -> statusOf(payout) == WebhookEventStatus.IGNORED);
+
+        var response = stripeController.handleWebhook(payout, "t=1,v1=bad");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void eventsWaitingOnRetriesDoNotHoldBackDueOnes() throws Exception {
+        String batch = "pi_retrying_" + UUID.randomUUID();
+        Timestamp later = Timestamp.from(Instant.now().plus(Duration.ofHours(1)));
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            rows.add(new Object[]{"evt_retrying_" + UUID.randomUUID(), batch + "_" + i, later});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO stripe_webhook_events (event_id, type, payment_intent_id, payload, status,"
+                + " attempts, next_attempt_at, received_at) VALUES (?, 'payment_intent.succeeded', ?, '{}', 'PENDING', 1, ?, CURRENT_TIMESTAMP)", rows);
+        try {
+            String payout = event("payout.paid", "{\"id\":\"po_2\",\"object\":\"payout\"}");
+            deliver(payout);
+            await(() -> statusOf(payout) == WebhookEventStatus.IGNORED);
+        } finally {
+            jdbcTemplate.update("DELETE FROM stripe_webhook_events WHERE payment_intent_id LIKE ?", batch + "%");
+        }
+    }
+
+    private HttpStatus deliver(String payload) throws Exception {
+        long timestamp = System.currentTimeMillis() / 1000;
+        String signature = Webhook.Util.computeHmacSha256(SECRET, timestamp + "." + payload);
+        return (HttpStatus) stripeController.handleWebhook(payload, "t=" + timestamp + ",v1=" + signature).getStatusCode();
+    }
+
+    private WebhookEventStatus statusOf(String payload) {
+        String eventId = payload.substring(payload.indexOf("evt_"), payload.indexOf('"', payload.indexOf("evt_")));
+        return jdbcTemplate.queryForList("SELECT status FROM stripe_webhook_events WHERE event_id = ?", String.class, eventId)
+                .stream().findFirst().map(WebhookEventStatus::valueOf).orElse(null);
+    }
+
+    private static String event(String type, String object) {
+        return "{\"id\":\"evt_" + UUID.randomUUID() + "\",\"object\":\"event\",\"type\":\"" + type + "\","
+                + "\"api_version\":\"2025-01-27.acacia\",\"created\":1700000000,\"data\":{\"object\":" + object + "}}";
+    }
+
+    private static String paymentIntentObject(String id) {
+        return "{\"id\":\"" + id + "\",\"object\":\"payment_intent\",\"amount\":1000,\"currency\":\"usd\"}";
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("timed out waiting for webhook processing").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private Order pendingOrder(String paymentIntentId) {
+        User buyer = fixtures.user("buyer");
+        Listing listing = fixtures.listing(fixtures.user("seller"), "Mewtwo", "10.00");
+        return orderRepository.save(Order.builder().buyer(buyer).listing(listing).amount(new BigDecimal("10.00"))
+                .platformFee(new BigDecimal("0.60")).sellerPayout(new BigDecimal("9.40")).status(OrderStatus.PENDING).stripePaymentIntentId(paymentIntentId).build());
+    }
+}
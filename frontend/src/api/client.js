@@ -39,7 +39,69 @@ export async function api(path, options = {}) {
   return JSON.parse(text);
 }
 
+/** Resolve a backend-relative asset path (e.g. /api/images/{hash}) against the API base URL. */
+export function assetUrl(path) {
+  if (!path || !path.startsWith('/api/')) return path;
+  return `${API_BASE}${path}`;
+}
+
 export function setToken(token) {
   if (token) localStorage.setItem('authentix_token', token);
   else localStorage.removeItem('authentix_token');
 }
+
+/**
+ * Subscribe to a server-sent event stream with the auth header (EventSource cannot send one).
+ * Reconnects after drops, sending the last seen event id so the server replays what was missed.
+ * Returns a function that closes the stream.
+ */
+export function subscribe(path, { lastEventId, onEvent, retryMs = 3000 } = {}) {
+  const url = path.startsWith('http') ? path : `${API_BASE}${path}`;
+  let lastId = lastEventId ?? null;
+  let controller = null;
+  let stopped = false;
+
+  async function connect() {
+    controller = new AbortController();
+    const headers = { Accept: 'text/event-stream' };
+    const token = getToken();
+    if (token) headers['Authorization'] = `Bearer ${token}`;
+    if (lastId != null) headers['Last-Event-ID'] = String(lastId);
+    try {
+      const res = await fetch(url, { headers, signal: controller.signal });
+      if (res.status === 401) {
+        stopped = true;
+        return;
+      }
+      if (!res.ok || !res.body) throw new Error(res.statusText);
+      const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffer = '';
+      for (;;) {
+        const { value, done } = await reader.read();
+        if (done) break;
+        buffer += value;
+        let end;
+        while ((end = buffer.indexOf('\n\n')) >= 0) {
+          const event = { event: 'message', data: '' };
+          for (const line of buffer.slice(0, end).split('\n')) {
+            if (line.startsWith('id:')) event.id = line.slice(3).trim();
+            else if (line.startsWith('event:')) event.event = line.slice(6).trim();
+            else if (line.startsWith('data:')) event.data += line.slice(5).trim();
+          }
+          buffer = buffer.slice(end + 2);
+          if (event.id) lastId = event.id;
+          if (event.data) onEvent?.(event.event, JSON.parse(event.data));
+        }
+      }
+    } catch (e) {
+      if (stopped) return;
+    }
+    if (!stopped) setTimeout(connect, retryMs);
+  }
+
+  connect();
+  return () => {
+    stopped = true;
+    controller?.abort();
+  };
+}
@@ -26,6 +26,7 @@
 // }
 import React, { useEffect, useMemo, useRef, useState } from 'react'
 import { Link } from 'react-router-dom'
+import { assetUrl } from '../api/client'
 
 const HERO_ROTATE_MS = 5000
 const HERO_CTA_AB_KEY = 'ab_home_hero_cta_v1_variant'
@@ -212,7 +213,7 @@ export default function HeroCarousel({
                                 <div className="flex h-16 w-16 shrink-0 items-center justify-center overflow-hidden rounded-xl bg-slate-100">
                                   {image ? (
                                     <img
-                                      src={image}
+                                      src={assetUrl(image)}
                                       alt={titleText}
                                       className="h-full w-full object-cover"
                                     />
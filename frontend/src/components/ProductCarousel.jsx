@@ -1,5 +1,6 @@
 import { useRef } from 'react'
 import { Link } from 'react-router-dom'
+import { assetUrl } from '../api/client'
 import './ProductCarousel.css'
 
 /**
@@ -48,7 +49,7 @@ export default function ProductCarousel({ title, products = [], loading, emptyMe
             <Link key={item.id} to={`/listings/${item.id}`} className="product-card">
               <div className="product-card-image-wrap">
                 {item.images?.[0] ? (
-                  <img src={item.images[0]} alt="" />
+                  <img src={assetUrl(item.images[0])} alt="" />
                 ) : (
                   <span className="product-card-no-image">No image</span>
                 )}
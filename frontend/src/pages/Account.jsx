@@ -1,7 +1,7 @@
 import { useState, useEffect, useRef, useCallback } from 'react'
 import { Link, useSearchParams } from 'react-router-dom'
 import { useAuth } from '../context/AuthContext'
-import { api } from '../api/client'
+import { api, assetUrl } from '../api/client'
 import './Account.css'
 
 const PROFILE_PHOTO_SIZE = 120
@@ -191,7 +191,7 @@ export default function Account() {
           />
           <button type="button" className="account-photo-circle" onClick={triggerPhotoInput} aria-label="Change profile photo">
             {profilePhotoUrl ? (
-              <img src={profilePhotoUrl} alt="" onError={(e) => (e.target.style.display = 'none')} />
+              <img src={assetUrl(profilePhotoUrl)} alt="" onError={(e) => (e.target.style.display = 'none')} />
             ) : (
               <span className="account-photo-placeholder">Photo</span>
             )}
@@ -214,6 +214,7 @@
 import { useEffect, useMemo, useState } from 'react'
 import { Link, useNavigate } from 'react-router-dom'
 import { useAuth } from '../context/AuthContext'
+import { assetUrl } from '../api/client'
 import {
   clearCart,
   fetchCart,
@@ -354,7 +355,7 @@ export default function CartPage() {
                   <div className="flex gap-4">
                     <Link to={`/listings/${item.listingId}`} className="h-24 w-24 shrink-0 overflow-hidden rounded-2xl bg-slate-100">
                       {item.image ? (
-                        <img src={item.image} alt={item.title} className="h-full w-full object-cover" />
+                        <img src={assetUrl(item.image)} alt={item.title} className="h-full w-full object-cover" />
                       ) : (
                         <div className="flex h-full w-full items-center justify-center text-xs text-slate-400">No image</div>
                       )}
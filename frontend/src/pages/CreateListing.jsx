@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react'
 import { useNavigate } from 'react-router-dom'
-import { api } from '../api/client'
+import { api, assetUrl } from '../api/client'
 import { resizeListingImage, MAX_LISTING_IMAGES } from '../utils/listingImage'
 import './ListingForm.css'
 
@@ -245,7 +245,7 @@ export default function CreateListing() {
             <ul className="listing-form-image-list">
               {form.images.map((url, i) => (
                 <li key={i}>
-                  <img src={url} alt="" className="listing-form-thumb" onError={(e) => e.target.style.display = 'none'} />
+                  <img src={assetUrl(url)} alt="" className="listing-form-thumb" onError={(e) => e.target.style.display = 'none'} />
                   <button class="text-slate-700" type="button" onClick={() => removeImage(i)}>Remove</button>
                 </li>
               ))}
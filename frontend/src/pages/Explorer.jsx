@@ -1,7 +1,7 @@
 import { useState, useEffect } from 'react'
 import { Link } from 'react-router-dom'
 import { useAuth } from '../context/AuthContext'
-import { api } from '../api/client'
+import { api, assetUrl } from '../api/client'
 import { AdSlot } from '../components/Analytics'
 import './Explorer.css'
 
@@ -15,7 +15,8 @@ export default function Explorer() {
   const [shippingOption, setShippingOption] = useState('')
   const [loading, setLoading] = useState(true)
   const [page, setPage] = useState(0)
-  const [totalPages, setTotalPages] = useState(0)
+  // The feed says whether another page follows, not how many there are.
+  const [hasNext, setHasNext] = useState(false)
 
   useEffect(() => {
     api('/api/categories').then(setCategories).catch(() => {})
@@ -45,7 +46,7 @@ export default function Explorer() {
     api(`/api/listings?${params}`)
       .then((data) => {
         setListings(data.content || [])
-        setTotalPages(data.totalPages ?? 0)
+        setHasNext(data.last === false)
       })
       .catch(() => setListings([]))
       .finally(() => setLoading(false))
@@ -99,7 +100,7 @@ export default function Explorer() {
             {recommended.slice(0, 8).map((listing) => (
               <Link key={listing.id} to={`/listings/${listing.id}`} className="listing-card">
                 <div className="listing-card-image">
-                  {listing.images?.[0] ? <img src={listing.images[0]} alt="" /> : <span className="listing-card-placeholder">No image</span>}
+                  {listing.images?.[0] ? <img src={assetUrl(listing.images[0])} alt="" /> : <span className="listing-card-placeholder">No image</span>}
                 </div>
                 <div className="listing-card-body">
                   <span className="listing-card-price">${Number(listing.price).toFixed(2)}</span>
@@ -128,7 +129,7 @@ export default function Explorer() {
                 <Link to={`/listings/${listing.id}`} className="listing-card">
                   <div className="listing-card-image">
                     {listing.images?.[0] ? (
-                      <img src={listing.images[0]} alt="" />
+                      <img src={assetUrl(listing.images[0])} alt="" />
                     ) : (
                       <span className="listing-card-placeholder">No image</span>
                     )}
@@ -153,11 +154,11 @@ export default function Explorer() {
               </div>
             ))}
           </div>
-          {totalPages > 1 && (
+          {(page > 0 || hasNext) && (
             <div className="explorer-pagination text-slate-700">
               <button type="button" disabled={page === 0} onClick={() => setPage((p) => p - 1)}>Previous</button>
-              <span>Page {page + 1} of {totalPages}</span>
-              <button type="button" disabled={page >= totalPages - 1} onClick={() => setPage((p) => p + 1)}>Next</button>
+              <span>Page {page + 1}</span>
+              <button type="button" disabled={!hasNext} onClick={() => setPage((p) => p + 1)}>Next</button>
             </div>
           )}
         </>
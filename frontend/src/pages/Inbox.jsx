@@ -1,21 +1,56 @@
 import { useState, useEffect } from 'react'
 import { Link } from 'react-router-dom'
-import { api } from '../api/client'
+import { api, subscribe } from '../api/client'
 import './Inbox.css'
 
+const PAGE_SIZE = 50
+
 export default function Inbox() {
   const [messages, setMessages] = useState([])
   const [loading, setLoading] = useState(true)
+  const [hasMore, setHasMore] = useState(false)
+  const [loadingMore, setLoadingMore] = useState(false)
 
   const load = () => {
-    api('/api/users/me/inbox')
-      .then(setMessages)
+    api(`/api/users/me/inbox?size=${PAGE_SIZE}`)
+      .then((page) => {
+        setMessages(page)
+        setHasMore(page.length === PAGE_SIZE)
+      })
       .catch(() => setMessages([]))
       .finally(() => setLoading(false))
   }
 
   useEffect(() => { load() }, [])
 
+  // Older messages are fetched a page at a time below the oldest id shown.
+  async function loadMore() {
+    if (messages.length === 0) return
+    const before = messages.reduce((min, m) => Math.min(min, m.id), Infinity)
+    setLoadingMore(true)
+    try {
+      const page = await api(`/api/users/me/inbox?before=${before}&size=${PAGE_SIZE}`)
+      setMessages((prev) => [...prev, ...page.filter((m) => !prev.some((p) => p.id === m.id))])
+      setHasMore(page.length === PAGE_SIZE)
+    } catch (e) {
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
+  // Once the inbox has loaded, new messages are pushed over SSE instead of re-fetching the list.
+  const latestId = messages.reduce((max, m) => Math.max(max, m.id), 0)
+  useEffect(() => {
+    if (loading) return undefined
+    return subscribe('/api/users/me/inbox/stream', {
+      lastEventId: latestId,
+      onEvent: (type, message) => {
+        if (type !== 'message') return
+        setMessages((prev) => (prev.some((m) => m.id === message.id) ? prev : [message, ...prev]))
+      },
+    })
+  }, [loading])
+
   async function markRead(id) {
     try {
       await api(`/api/messages/${id}/read`, { method: 'PATCH' })
@@ -23,10 +58,23 @@ export default function Inbox() {
     } catch (e) {}
   }
 
+  // One request marks the whole inbox read on the server, including pages not loaded yet.
+  async function markAllRead() {
+    try {
+      await api('/api/users/me/inbox/read-all', { method: 'POST' })
+      setMessages((prev) => prev.map((m) => ({ ...m, read: true })))
+    } catch (e) {}
+  }
+
   if (loading) return <div className="layout-main"><p>Loading…</p></div>
   return (
     <div className="inbox-page">
-      <h1>Inbox</h1>
+      <div className="inbox-header">
+        <h1>Inbox</h1>
+        {messages.some((m) => !m.read) && (
+          <button type="button" className="inbox-mark-all" onClick={markAllRead}>Mark all read</button>
+        )}
+      </div>
       {messages.length === 0 ? (
         <p className="inbox-empty">No messages yet. When buyers ask about your listings, they’ll appear here.</p>
       ) : (
@@ -43,6 +91,11 @@ export default function Inbox() {
           ))}
         </ul>
       )}
+      {hasMore && (
+        <button type="button" className="inbox-load-more" onClick={loadMore} disabled={loadingMore}>
+          {loadingMore ? 'Loading…' : 'Load older messages'}
+        </button>
+      )}
     </div>
   )
 }
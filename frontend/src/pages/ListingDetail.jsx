@@ -3,7 +3,7 @@ import { Link, useParams, useSearchParams } from 'react-router-dom'
 import { loadStripe } from '@stripe/stripe-js'
 import { Elements } from '@stripe/react-stripe-js'
 import { useAuth } from '../context/AuthContext'
-import { api } from '../api/client'
+import { api, assetUrl } from '../api/client'
 import CheckoutForm from '../components/CheckoutForm'
 import { addCartItem } from '../api/cart'
 import './ListingDetail.css'
@@ -266,7 +266,7 @@ export default function ListingDetail() {
                     idx === imageViewerIndex ? 'border-slate-900 ring-2 ring-slate-900/10' : 'border-slate-200'
                   }`}
                 >
-                  <img src={src} alt="" className="h-16 w-16 object-cover" />
+                  <img src={assetUrl(src)} alt="" className="h-16 w-16 object-cover" />
                 </button>
               ))}
             </div>
@@ -286,7 +286,7 @@ export default function ListingDetail() {
                 <div className="flex min-h-[420px] w-full items-center justify-center p-4 sm:min-h-[520px] lg:min-h-[620px]">
                   {images.length > 0 ? (
                     <img
-                      src={images[0]}
+                      src={assetUrl(images[0])}
                       alt={listing.title}
                       className="max-h-[560px] w-full object-contain transition duration-200 group-hover:scale-[1.01]"
                     />
@@ -307,7 +307,7 @@ export default function ListingDetail() {
             <p className="text-xs font-medium uppercase tracking-wide text-slate-500">Seller</p>
             <Link to={`/users/${listing.sellerId}`} className="mt-3 flex items-center gap-3 rounded-2xl border border-slate-100 p-3 transition hover:bg-slate-50">
               {listing.sellerProfilePhotoUrl ? (
-                <img src={listing.sellerProfilePhotoUrl} alt="" className="h-12 w-12 rounded-full object-cover" />
+                <img src={assetUrl(listing.sellerProfilePhotoUrl)} alt="" className="h-12 w-12 rounded-full object-cover" />
               ) : (
                 <div className="flex h-12 w-12 items-center justify-center rounded-full bg-slate-200 text-sm font-semibold text-slate-700">
                   {String(listing.sellerDisplayName || 'S').slice(0, 1).toUpperCase()}
@@ -477,7 +477,7 @@ export default function ListingDetail() {
             )}
 
             <div className="flex h-full w-full items-center justify-center px-10 py-8">
-              <img src={currentImage} alt={listing.title} className="max-h-[88vh] max-w-full object-contain" />
+              <img src={assetUrl(currentImage)} alt={listing.title} className="max-h-[88vh] max-w-full object-contain" />
             </div>
 
             {hasMultipleImages && (
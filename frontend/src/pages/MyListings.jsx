@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react'
 import { Link } from 'react-router-dom'
-import { api } from '../api/client'
+import { api, assetUrl } from '../api/client'
 import './MyListings.css'
 
 export default function MyListings() {
@@ -49,7 +49,7 @@ export default function MyListings() {
             <li key={listing.id} className="my-listings-item">
               <div className="my-listings-item-image">
                 {listing.images?.[0] ? (
-                  <img src={listing.images[0]} alt="" />
+                  <img src={assetUrl(listing.images[0])} alt="" />
                 ) : (
                   <span>No image</span>
                 )}
@@ -63,7 +63,7 @@
 // }
 import { useEffect, useMemo, useState } from 'react'
 import { Link } from 'react-router-dom'
-import { api } from '../api/client'
+import { api, assetUrl } from '../api/client'
 import { useAuth } from '../context/AuthContext'
 import { addCartItem } from '../api/cart'
 
@@ -492,7 +492,7 @@ export default function MyWatchlist() {
                     <div className="relative aspect-[4/3] bg-slate-100">
                       {listing.images?.[0] ? (
                         <img
-                          src={listing.images[0]}
+                          src={assetUrl(listing.images[0])}
                           alt=""
                           className="h-full w-full object-cover transition duration-300 group-hover:scale-105"
                         />
@@ -668,7 +668,7 @@ export default function MyWatchlist() {
                           className="h-12 w-12 overflow-hidden rounded-xl border border-slate-200 bg-slate-100"
                         >
                           {item.images?.[0] ? (
-                            <img src={item.images[0]} alt="" className="h-full w-full object-cover" />
+                            <img src={assetUrl(item.images[0])} alt="" className="h-full w-full object-cover" />
                           ) : null}
                         </div>
                       ))}
@@ -776,7 +776,7 @@ export default function MyWatchlist() {
                             <div className="relative aspect-[4/3] bg-slate-100">
                               {item.images?.[0] ? (
                                 <img
-                                  src={item.images[0]}
+                                  src={assetUrl(item.images[0])}
                                   alt=""
                                   className="h-full w-full object-cover transition duration-300 group-hover:scale-105"
                                 />
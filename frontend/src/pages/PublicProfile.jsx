@@ -1,7 +1,7 @@
 import { useParams } from 'react-router-dom'
 import { useState, useEffect } from 'react'
 import { Link } from 'react-router-dom'
-import { api } from '../api/client'
+import { api, assetUrl } from '../api/client'
 import './PublicProfile.css'
 
 export default function PublicProfile() {
@@ -25,7 +25,7 @@ export default function PublicProfile() {
     <div className="public-profile-page">
       <div className="public-profile-card">
         {profile.profilePhotoUrl && (
-          <img src={profile.profilePhotoUrl} alt="" className="public-profile-photo" />
+          <img src={assetUrl(profile.profilePhotoUrl)} alt="" className="public-profile-photo" />
         )}
         <h1>{profile.displayName || 'Anonymous'}</h1>
         {profile.bio && <p className="public-profile-bio">{profile.bio}</p>}